@@ -3,7 +3,7 @@ import { View, StyleSheet, FlatList, KeyboardAvoidingView, Platform } from 'reac
 import { TextInput, Button, Text, ActivityIndicator, Card, IconButton } from 'react-native-paper';
 import { format, parseISO, differenceInMinutes, differenceInHours, differenceInMilliseconds } from 'date-fns';
 import { Message, ActivityDetail } from '../types';
-import { messagesApi, activitiesApi, reportsApi } from '../services/api';
+import { messagesApi, activitiesApi, reportsApi, ApiError } from '../services/api';
 import { ChatBubble } from '../components/ChatBubble';
 import { ReportModal } from '../components/ReportModal';
 import { useWebSocket, WebSocketMessage } from '../hooks/useWebSocket';
@@ -11,6 +11,11 @@ import { useUser } from '../context/UserContext';
 import Toast from 'react-native-toast-message';
 import { trackChat, trackActivity, trackReport } from '../utils/telemetry';
 
+const PAGE_SIZE = 50;
+
+const byCreatedAt = (a: Message, b: Message) =>
+  new Date(a.createdAt).getTime() - new Date(b.createdAt).getTime();
+
 interface ChatScreenProps {
   activityId: number;
   navigation?: any;
@@ -22,12 +27,18 @@ export const ChatScreen: React.FC<ChatScreenProps> = ({ activityId, navigation }
   const [messages, setMessages] = useState<Message[]>([]);
   const [messageText, setMessageText] = useState('');
   const [loading, setLoading] = useState(true);
+  const [loadingOlder, setLoadingOlder] = useState(false);
   const [sending, setSending] = useState(false);
   const [showReportModal, setShowReportModal] = useState(false);
   const [reportTargetUserId, setReportTargetUserId] = useState<number | null>(null);
   const flatListRef = useRef<FlatList>(null);
   const pollIntervalRef = useRef<NodeJS.Timeout | null>(null);
-  const lastMessageTimeRef = useRef<string>('');
+  const lastMessageIdRef = useRef<number | null>(null);
+  const oldestMessageIdRef = useRef<number | null>(null);
+  const hasOlderRef = useRef(false);
+  const loadingOlderRef = useRef(false);
+  // Set while older history is prepended, so the list keeps its place instead of jumping to the end
+  const prependingRef = useRef(false);
   const hasTrackedOpen = useRef(false);
 
   // WebSocket integration
@@ -99,17 +110,16 @@ export const ChatScreen: React.FC<ChatScreenProps> = ({ activityId, navigation }
 
   const loadMessages = async (initialLoad = false) => {
     try {
-      const since = initialLoad ? undefined : lastMessageTimeRef.current || undefined;
-      const data = await messagesApi.getByActivity(activityId, since);
+      const after = initialLoad ? undefined : lastMessageIdRef.current ?? undefined;
+      const data = await messagesApi.getByActivity(activityId, { after, limit: PAGE_SIZE });
       
       if (initialLoad) {
-        // Initial load - replace all messages
-        setMessages(data.sort((a, b) => 
-          new Date(a.createdAt).getTime() - new Date(b.createdAt).getTime()
-        ));
-        if (data.length > 0) {
-          lastMessageTimeRef.current = data[data.length - 1].createdAt;
-        }
+        // Initial load - replace all messages with the newest page
+        const sorted = data.sort(byCreatedAt);
+        setMessages(sorted);
+        lastMessageIdRef.current = sorted.length > 0 ? sorted[sorted.length - 1].id : null;
+        oldestMessageIdRef.current = sorted.length > 0 ? sorted[0].id : null;
+        hasOlderRef.current = sorted.length === PAGE_SIZE;
         setTimeout(() => flatListRef.current?.scrollToEnd({ animated: false }), 100);
       } else if (data.length > 0) {
         // Incremental load - add new messages
@@ -121,7 +131,7 @@ export const ChatScreen: React.FC<ChatScreenProps> = ({ activityId, navigation }
             new Date(a.createdAt).getTime() - new Date(b.createdAt).getTime()
           );
           if (updated.length > 0) {
-            lastMessageTimeRef.current = updated[updated.length - 1].createdAt;
+            lastMessageIdRef.current = updated[updated.length - 1].id;
           }
           return updated;
         });
@@ -130,11 +140,47 @@ export const ChatScreen: React.FC<ChatScreenProps> = ({ activityId, navigation }
       
       setLoading(false);
     } catch (error) {
+      if (!initialLoad && error instanceof ApiError && error.status === 404) {
+        // The cursor message expired server-side; start again from the newest page
+        lastMessageIdRef.current = null;
+        return loadMessages(true);
+      }
       console.error('Error loading messages:', error);
       setLoading(false);
     }
   };
 
+  const loadOlderMessages = async () => {
+    const before = oldestMessageIdRef.current;
+    if (loadingOlderRef.current || !hasOlderRef.current || before === null) {
+      return;
+    }
+    loadingOlderRef.current = true;
+    setLoadingOlder(true);
+    try {
+      const data = await messagesApi.getByActivity(activityId, { before, limit: PAGE_SIZE });
+      hasOlderRef.current = data.length === PAGE_SIZE;
+      if (data.length > 0) {
+        oldestMessageIdRef.current = data[0].id;
+        prependingRef.current = true;
+        setMessages(prev => {
+          const older = data.filter(msg => !prev.find(existing => existing.id === msg.id));
+          return [...older, ...prev].sort(byCreatedAt);
+        });
+      }
+    } catch (error) {
+      if (error instanceof ApiError && error.status === 404) {
+        // The oldest loaded message has expired, and everything before it with it
+        hasOlderRef.current = false;
+      } else {
+        console.error('Error loading older messages:', error);
+      }
+    } finally {
+      loadingOlderRef.current = false;
+      setLoadingOlder(false);
+    }
+  };
+
   const startPolling = () => {
     // Poll for new messages every 3 seconds (fallback when WebSocket unavailable)
     if (pollIntervalRef.current) {
@@ -328,7 +374,17 @@ export const ChatScreen: React.FC<ChatScreenProps> = ({ activityId, navigation }
           />
         )}
         contentContainerStyle={styles.messagesList}
-        onContentSizeChange={() => flatListRef.current?.scrollToEnd({ animated: true })}
+        onStartReached={loadOlderMessages}
+        onStartReachedThreshold={0.1}
+        maintainVisibleContentPosition={{ minIndexForVisible: 0 }}
+        ListHeaderComponent={loadingOlder ? <ActivityIndicator style={styles.olderLoader} /> : null}
+        onContentSizeChange={() => {
+          if (prependingRef.current) {
+            prependingRef.current = false;
+            return;
+          }
+          flatListRef.current?.scrollToEnd({ animated: true });
+        }}
         ListEmptyComponent={
           <View style={styles.empty}>
             <Text variant="bodyMedium" style={styles.emptyText}>
@@ -425,6 +481,9 @@ const styles = StyleSheet.create({
     paddingVertical: 8,
     paddingBottom: 120,
   },
+  olderLoader: {
+    paddingVertical: 8,
+  },
   empty: {
     padding: 32,
     alignItems: 'center',
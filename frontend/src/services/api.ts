@@ -1,4 +1,4 @@
-export { apiRequest, getToken, setToken, clearToken, MOCK_MODE } from './api/client';
+export { apiRequest, getToken, setToken, clearToken, MOCK_MODE, ApiError } from './api/client';
 export { authApi } from './api/auth';
 export { hubsApi } from './api/hubs';
 export { activitiesApi } from './api/activities';
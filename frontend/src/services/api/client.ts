@@ -6,6 +6,18 @@ export const MOCK_MODE = process.env.EXPO_PUBLIC_MOCK_MODE === 'true';
 
 const TOKEN_KEY = 'gathr_token';
 
+// Thrown for non-2xx responses so callers can branch on the status
+export class ApiError extends Error {
+  status: number;
+
+  constructor(message: string, status: number) {
+    super(message);
+    this.name = 'ApiError';
+    this.status = status;
+    Object.setPrototypeOf(this, ApiError.prototype);
+  }
+}
+
 export const getToken = async (): Promise<string | null> => {
   try {
     return await SecureStore.getItemAsync(TOKEN_KEY);
@@ -57,7 +69,7 @@ export const apiRequest = async <T>(
       authEvents.emit('unauthorized');
     }
     const error = await response.json().catch(() => ({ error: 'Unknown error' }));
-    throw new Error(error.error || `HTTP error! status: ${response.status}`);
+    throw new ApiError(error.error || `HTTP error! status: ${response.status}`, response.status);
   }
 
   return response.json();
@@ -1,14 +1,40 @@
 import { apiRequest, MOCK_MODE } from './client';
 
+// Keep each request small; the server dedupes across chunks
+const UPLOAD_CHUNK_SIZE = 1000;
+
+interface UploadChunkResponse {
+  processed: number;
+  new: number;
+  mutualsCount: number;
+  uploadId?: string;
+  chunksReceived?: number;
+  totalChunks?: number;
+  complete?: boolean;
+}
+
 export const contactsApi = {
-  upload: async (hashes: string[]): Promise<{ mutualsCount: number }> => {
+  upload: async (
+    hashes: string[],
+    onProgress?: (uploaded: number, total: number) => void
+  ): Promise<{ mutualsCount: number }> => {
     if (MOCK_MODE) {
       return { mutualsCount: Math.floor(Math.random() * 5) };
     }
-    return apiRequest<{ mutualsCount: number }>('/contacts/upload', {
-      method: 'POST',
-      body: JSON.stringify({ hashes }),
-    });
+
+    const totalChunks = Math.max(1, Math.ceil(hashes.length / UPLOAD_CHUNK_SIZE));
+    const uploadId = `${Date.now()}-${Math.random().toString(36).slice(2, 10)}`;
+    let response: UploadChunkResponse = { processed: 0, new: 0, mutualsCount: 0 };
+
+    for (let chunkIndex = 0; chunkIndex < totalChunks; chunkIndex++) {
+      const chunk = hashes.slice(chunkIndex * UPLOAD_CHUNK_SIZE, (chunkIndex + 1) * UPLOAD_CHUNK_SIZE);
+      response = await apiRequest<UploadChunkResponse>('/contacts/upload', {
+        method: 'POST',
+        body: JSON.stringify({ hashes: chunk, uploadId, chunkIndex, totalChunks }),
+      });
+      onProgress?.(Math.min(hashes.length, (chunkIndex + 1) * UPLOAD_CHUNK_SIZE), hashes.length);
+    }
+
+    return { mutualsCount: response.mutualsCount };
   },
 };
-
@@ -2,17 +2,35 @@ import { Message } from '../../types';
 import { apiRequest, MOCK_MODE } from './client';
 import { MOCK_MESSAGES } from './mockData';
 
+// Cursors are message ids: `before` pages back through older history, `after` catches up
+// on newer messages. With neither, the newest page is returned. Pages are oldest first.
+export interface MessagePage {
+  before?: number;
+  after?: number;
+  limit?: number;
+}
+
 export const messagesApi = {
-  getByActivity: async (activityId: number, since?: string): Promise<Message[]> => {
+  getByActivity: async (
+    activityId: number,
+    { before, after, limit = 50 }: MessagePage = {}
+  ): Promise<Message[]> => {
     if (MOCK_MODE) {
       const messages = MOCK_MESSAGES[activityId] || [];
-      if (since) {
-        return messages.filter(m => m.createdAt > since);
+      if (after !== undefined) {
+        return messages.filter(m => m.id > after).slice(0, limit);
       }
-      return messages;
+      const older = before !== undefined ? messages.filter(m => m.id < before) : messages;
+      return older.slice(-limit);
+    }
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (before !== undefined) {
+      params.set('before', String(before));
+    }
+    if (after !== undefined) {
+      params.set('after', String(after));
     }
-    const params = since ? `?since=${since}` : '';
-    return apiRequest<Message[]>(`/activities/${activityId}/messages${params}`);
+    return apiRequest<Message[]>(`/activities/${activityId}/messages?${params.toString()}`);
   },
 
   create: async (activityId: number, text: string): Promise<Message> => {
@@ -1,6 +1,7 @@
 package com.gathr.config;
 
 import com.gathr.security.JwtUtil;
+import com.gathr.security.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,7 @@ import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -59,20 +61,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     String authToken = accessor.getFirstNativeHeader("Authorization");
 
                     if (authToken != null && authToken.startsWith("Bearer ")) {
-                        String token = authToken.substring(7);
-                        try {
-                            Long userId = jwtUtil.getUserIdFromToken(token);
-                            String phone = jwtUtil.getPhoneFromToken(token);
-
-                            if (!jwtUtil.isTokenExpired(token)) {
-                                UsernamePasswordAuthenticationToken authentication =
-                                        new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
-                                accessor.setUser(authentication);
-                                SecurityContextHolder.getContext().setAuthentication(authentication);
-                                logger.info("WebSocket connection authenticated for user: {}", userId);
-                            }
-                        } catch (Exception e) {
-                            logger.error("WebSocket authentication failed: {}", e.getMessage());
+                        Optional<VerifiedToken> verified = jwtUtil.verify(authToken.substring(7));
+                        if (verified.isPresent()) {
+                            Long userId = verified.get().userId();
+                            UsernamePasswordAuthenticationToken authentication =
+                                    new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+                            accessor.setUser(authentication);
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            logger.info("WebSocket connection authenticated for user: {}", userId);
+                        } else {
+                            logger.error("WebSocket authentication failed: invalid or expired token");
                         }
                     }
                 }
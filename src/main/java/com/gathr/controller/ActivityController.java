@@ -24,27 +24,26 @@ public class ActivityController {
     private final InviteTokenService inviteTokenService;
     private final AuthenticatedUserService authenticatedUserService;
     private final com.gathr.recs.CreationAssistant creationAssistant;
-    private final com.gathr.repository.UserRepository userRepository;
+    private final com.gathr.service.user.UserSnapshotCache userSnapshots;
 
     public ActivityController(
             ActivityService activityService,
             InviteTokenService inviteTokenService,
             AuthenticatedUserService authenticatedUserService,
             com.gathr.recs.CreationAssistant creationAssistant,
-            com.gathr.repository.UserRepository userRepository) {
+            com.gathr.service.user.UserSnapshotCache userSnapshots) {
         this.activityService = activityService;
         this.inviteTokenService = inviteTokenService;
         this.authenticatedUserService = authenticatedUserService;
         this.creationAssistant = creationAssistant;
-        this.userRepository = userRepository;
+        this.userSnapshots = userSnapshots;
     }
 
     @GetMapping("/suggestions")
     public ResponseEntity<ApiResponse<List<com.gathr.dto.ActivitySuggestionDto>>> getSuggestions(
             Authentication authentication) {
         Long userId = authenticatedUserService.requireUserId(authentication);
-        com.gathr.entity.User user = userRepository.findById(userId)
-                .orElseThrow(() -> new com.gathr.exception.ResourceNotFoundException("User", userId));
+        com.gathr.service.user.UserSnapshot user = userSnapshots.require(userId);
 
         return ResponseEntity.ok(ApiResponse.success(creationAssistant.suggestActivities(user)));
     }
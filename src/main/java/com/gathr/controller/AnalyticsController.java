@@ -1,6 +1,7 @@
 package com.gathr.controller;
 
 import com.gathr.entity.Event;
+import com.gathr.ratelimit.RateLimitMetrics;
 import com.gathr.repository.EventRepository;
 import com.gathr.security.AuthenticatedUserService;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -20,10 +21,13 @@ public class AnalyticsController {
 
     private final EventRepository eventRepository;
     private final AuthenticatedUserService authenticatedUserService;
+    private final RateLimitMetrics rateLimitMetrics;
 
-    public AnalyticsController(EventRepository eventRepository, AuthenticatedUserService authenticatedUserService) {
+    public AnalyticsController(EventRepository eventRepository, AuthenticatedUserService authenticatedUserService,
+            RateLimitMetrics rateLimitMetrics) {
         this.eventRepository = eventRepository;
         this.authenticatedUserService = authenticatedUserService;
+        this.rateLimitMetrics = rateLimitMetrics;
     }
 
     @GetMapping("/events")
@@ -103,6 +107,14 @@ public class AnalyticsController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Allowed/denied counts per rate limit bucket and the busiest identifiers right now.
+     */
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Object>> getRateLimits() {
+        return ResponseEntity.ok(rateLimitMetrics.snapshot());
+    }
+
     @GetMapping("/funnel/activity-creation")
     public ResponseEntity<Map<String, Object>> getActivityCreationFunnel(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
@@ -3,7 +3,9 @@ package com.gathr.controller;
 import com.gathr.security.AuthenticatedUserService;
 import com.gathr.service.ContactService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -28,14 +30,34 @@ public class ContactController {
             @Valid @RequestBody ContactUploadRequest request,
             Authentication authentication) {
         Long userId = authenticatedUserService.requireUserId(authentication);
-        Map<String, Object> response = contactService.uploadContacts(userId, request.getHashes());
+        Map<String, Object> response = contactService.uploadContacts(userId, request.getHashes(),
+                request.getUploadId(), request.getChunkIndex(), request.getTotalChunks());
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/upload/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUploadProgress(
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        Long userId = authenticatedUserService.requireUserId(authentication);
+        return ResponseEntity.ok(contactService.getUploadProgress(userId, uploadId));
+    }
+
     public static class ContactUploadRequest {
         @NotEmpty(message = "Hashes list cannot be empty")
+        @Size(max = 10000, message = "Send at most 10000 hashes per request; use chunks for larger uploads")
         private List<String> hashes;
 
+        // Optional, for uploads split across several requests
+        @Size(max = 64)
+        private String uploadId;
+
+        @Min(0)
+        private Integer chunkIndex;
+
+        @Min(1)
+        private Integer totalChunks;
+
         public List<String> getHashes() {
             return hashes;
         }
@@ -43,6 +65,30 @@ public class ContactController {
         public void setHashes(List<String> hashes) {
             this.hashes = hashes;
         }
+
+        public String getUploadId() {
+            return uploadId;
+        }
+
+        public void setUploadId(String uploadId) {
+            this.uploadId = uploadId;
+        }
+
+        public Integer getChunkIndex() {
+            return chunkIndex;
+        }
+
+        public void setChunkIndex(Integer chunkIndex) {
+            this.chunkIndex = chunkIndex;
+        }
+
+        public Integer getTotalChunks() {
+            return totalChunks;
+        }
+
+        public void setTotalChunks(Integer totalChunks) {
+            this.totalChunks = totalChunks;
+        }
     }
 }
 
@@ -1,5 +1,10 @@
 package com.gathr.controller;
 
+import com.gathr.ratelimit.ConcurrencyLimiter;
+import com.gathr.ratelimit.storage.RateLimitStorage;
+import com.gathr.service.FraudEvaluationQueue;
+import com.gathr.service.chat.RecentMessageBuffer;
+import com.gathr.service.user.UserSnapshotCache;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -17,10 +22,23 @@ public class HealthController {
 
     private final JdbcTemplate jdbcTemplate;
     private final BuildProperties buildProperties;
-
-    public HealthController(JdbcTemplate jdbcTemplate, BuildProperties buildProperties) {
+    private final FraudEvaluationQueue fraudEvaluationQueue;
+    private final RateLimitStorage rateLimitStorage;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RecentMessageBuffer recentMessageBuffer;
+
+    public HealthController(JdbcTemplate jdbcTemplate, BuildProperties buildProperties,
+            FraudEvaluationQueue fraudEvaluationQueue, RateLimitStorage rateLimitStorage,
+            ConcurrencyLimiter concurrencyLimiter, UserSnapshotCache userSnapshotCache,
+            RecentMessageBuffer recentMessageBuffer) {
         this.jdbcTemplate = jdbcTemplate;
         this.buildProperties = buildProperties;
+        this.fraudEvaluationQueue = fraudEvaluationQueue;
+        this.rateLimitStorage = rateLimitStorage;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.userSnapshotCache = userSnapshotCache;
+        this.recentMessageBuffer = recentMessageBuffer;
     }
 
     @GetMapping
@@ -71,6 +89,31 @@ public class HealthController {
         return ResponseEntity.ok(dbHealth);
     }
 
+    @GetMapping("/fraud-queue")
+    public ResponseEntity<Map<String, Object>> fraudQueue() {
+        return ResponseEntity.ok(fraudEvaluationQueue.stats());
+    }
+
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> rateLimit() {
+        return ResponseEntity.ok(rateLimitStorage.stats());
+    }
+
+    @GetMapping("/concurrency")
+    public ResponseEntity<Map<String, Object>> concurrency() {
+        return ResponseEntity.ok(concurrencyLimiter.stats());
+    }
+
+    @GetMapping("/user-cache")
+    public ResponseEntity<Map<String, Object>> userCache() {
+        return ResponseEntity.ok(userSnapshotCache.stats());
+    }
+
+    @GetMapping("/chat-buffer")
+    public ResponseEntity<Map<String, Object>> chatBuffer() {
+        return ResponseEntity.ok(recentMessageBuffer.stats());
+    }
+
     @GetMapping("/readiness")
     public ResponseEntity<Map<String, Object>> readiness() {
         Map<String, Object> readiness = new HashMap<>();
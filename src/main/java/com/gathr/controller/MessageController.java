@@ -23,9 +23,18 @@ public class MessageController {
         this.authenticatedUserService = authenticatedUserService;
     }
 
+    /**
+     * Chat history, oldest first, one page at a time. Omit both cursors for the newest
+     * page; pass the first message's id as {@code before} to load older messages, or the
+     * last one's as {@code after} to catch up on newer ones.
+     */
     @GetMapping
-    public ResponseEntity<List<MessageDto>> getMessages(@PathVariable Long activityId) {
-        List<MessageDto> messages = messageService.getMessagesByActivity(activityId);
+    public ResponseEntity<List<MessageDto>> getMessages(
+            @PathVariable Long activityId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<MessageDto> messages = messageService.getMessagesByActivity(activityId, before, after, limit);
         return ResponseEntity.ok(messages);
     }
 
@@ -7,7 +7,9 @@ import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.UserRepository;
 import com.gathr.security.AuthenticatedUserService;
 import com.gathr.service.OnboardingService;
+import com.gathr.service.SocialGraphService;
 import com.gathr.service.TrustScoreService;
+import com.gathr.service.graph.FriendSuggestion;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -27,16 +29,19 @@ public class UserController {
         private final OnboardingService onboardingService;
         private final UserRepository userRepository;
         private final AuthenticatedUserService authenticatedUserService;
+        private final SocialGraphService socialGraphService;
 
         public UserController(
                         TrustScoreService trustScoreService,
                         OnboardingService onboardingService,
                         UserRepository userRepository,
-                        AuthenticatedUserService authenticatedUserService) {
+                        AuthenticatedUserService authenticatedUserService,
+                        SocialGraphService socialGraphService) {
                 this.trustScoreService = trustScoreService;
                 this.onboardingService = onboardingService;
                 this.userRepository = userRepository;
                 this.authenticatedUserService = authenticatedUserService;
+                this.socialGraphService = socialGraphService;
         }
 
         // ==================== PROFILE ====================
@@ -157,6 +162,17 @@ public class UserController {
                 return ResponseEntity.ok(ApiResponse.success(trustScore));
         }
 
+        // ==================== SUGGESTIONS ====================
+
+        @GetMapping("/me/suggestions")
+        public ResponseEntity<ApiResponse<List<FriendSuggestion>>> getPeopleYouMayKnow(
+                        @RequestParam(defaultValue = "20") int limit,
+                        Authentication authentication) {
+                Long userId = authenticatedUserService.requireUserId(authentication);
+                int boundedLimit = Math.max(1, Math.min(limit, 50));
+                return ResponseEntity.ok(ApiResponse.success(socialGraphService.getPeopleYouMayKnow(userId, boundedLimit)));
+        }
+
         // ==================== HELPERS ====================
 
         private UserProfileResponse toProfileResponse(User user) {
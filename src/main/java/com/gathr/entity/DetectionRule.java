@@ -32,9 +32,22 @@ public class DetectionRule {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Bumped by a trigger on every update; read only by the rule engine's change poll
+    @Column(name = "revision", insertable = false, updatable = false)
+    private Long revision;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
 
@@ -1,5 +1,6 @@
 package com.gathr.entity;
 
+import com.gathr.security.PhoneHashing;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,6 +26,10 @@ public class User {
     @Column(nullable = false, unique = true)
     private String phone;
 
+    // Normalized SHA-256 of phone, matched against uploaded contact hashes
+    @Column(name = "phone_hash", length = 128)
+    private String phoneHash;
+
     @Column(nullable = false)
     private Boolean verified = false;
 
@@ -103,6 +108,14 @@ public class User {
                 name != null && !name.equals(phone); // Name should be set, not defaulting to phone
     }
 
+    /**
+     * Set phone and keep phoneHash in step with it.
+     */
+    public void setPhone(String phone) {
+        this.phone = phone;
+        this.phoneHash = PhoneHashing.hash(phone);
+    }
+
     /**
      * Update user's location.
      */
@@ -27,6 +27,10 @@ public class UserRiskScore {
     private Integer behaviorScore = 0;
     private Integer reportScore = 0;
     private Integer coordinationScore = 0;
+
+    // Part of coordinationScore set by the ring detection job
+    private Integer ringScore = 0;
+
     private Integer totalScore = 0;
 
     @Column(name = "updated_at")
@@ -0,0 +1,75 @@
+package com.gathr.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running trust inputs for one user, kept current by feedback and report writes.
+ *
+ * Besides plain counts, each signal has an exponentially decayed sum that is current as
+ * of its {@code *DecayedAt} timestamp. TrustScoreService owns the decay factors and
+ * applies them on both write and read.
+ */
+@Entity
+@Table(name = "user_trust_stats")
+@Data
+@NoArgsConstructor
+public class UserTrustStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "show_ups", nullable = false)
+    private int showUps;
+
+    @Column(name = "no_shows", nullable = false)
+    private int noShows;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount;
+
+    @Column(name = "reports_total", nullable = false)
+    private int reportsTotal;
+
+    @Column(name = "show_ups_decayed", nullable = false)
+    private double showUpsDecayed;
+
+    @Column(name = "show_ups_decayed_at")
+    private LocalDateTime showUpsDecayedAt;
+
+    @Column(name = "no_shows_decayed", nullable = false)
+    private double noShowsDecayed;
+
+    @Column(name = "no_shows_decayed_at")
+    private LocalDateTime noShowsDecayedAt;
+
+    @Column(name = "reports_decayed", nullable = false)
+    private double reportsDecayed;
+
+    @Column(name = "reports_decayed_at")
+    private LocalDateTime reportsDecayedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserTrustStats(Long userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Double averageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+}
@@ -0,0 +1,238 @@
+package com.gathr.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive limits on the number of requests in flight, one per endpoint class.
+ *
+ * Each class's limit follows AIMD on that class's own latency: a request finishing within
+ * the target while the class was busy grows its limit by 1/limit (about one per limit's
+ * worth of completions), and one finishing late cuts it by 10%. Only requests started
+ * after the class's last cut can cut it again, so one slow spell costs one cut rather
+ * than one per request caught in it. A slow feed thus throttles the feed, not joins.
+ *
+ * All classes also share a fixed ceiling on requests in flight. Each
+ * {@link RequestPriority} lane admits only while the total is below its share of that
+ * ceiling, so when the server as a whole is busy sheddable traffic is turned away first.
+ * Requests over either limit are refused immediately rather than queued.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxInFlight;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, ClassLimit> classes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConcurrencyLimiter(
+            @Value("${gathr.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${gathr.concurrency.min-limit:4}") int minLimit,
+            @Value("${gathr.concurrency.max-limit:200}") int maxLimit,
+            @Value("${gathr.concurrency.max-in-flight:200}") int maxInFlight) {
+        this(initialLimit, minLimit, maxLimit, maxInFlight, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxInFlight, LongSupplier clock) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 0 < min <= max");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in-flight requests must be positive");
+        }
+        this.initialLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxInFlight = maxInFlight;
+        this.clock = clock;
+    }
+
+    /**
+     * Admit a request of the given class if both the class and its lane have room.
+     *
+     * @return a permit to release when the request completes, or null if it should be shed
+     */
+    public Permit tryAcquire(EndpointClass endpointClass) {
+        ClassLimit limit = classes.computeIfAbsent(endpointClass.name(), k -> new ClassLimit(endpointClass));
+        int classInFlight = increment(limit.inFlight, Math.max(1, (int) limit.limit()));
+        if (classInFlight < 0) {
+            limit.shed.increment();
+            return null;
+        }
+        if (increment(inFlight, endpointClass.priority().admissionLimit(maxInFlight)) < 0) {
+            limit.inFlight.decrementAndGet();
+            limit.shed.increment();
+            return null;
+        }
+        return new Permit(limit, clock.getAsLong(), classInFlight + 1);
+    }
+
+    /**
+     * Current limit of the class, or the initial limit if it has not been seen yet.
+     */
+    double limit(EndpointClass endpointClass) {
+        ClassLimit limit = classes.get(endpointClass.name());
+        return limit != null ? limit.limit() : initialLimit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> perClass = new TreeMap<>();
+        classes.forEach((name, limit) -> {
+            long completed = limit.completed.sum();
+            Map<String, Object> row = new HashMap<>();
+            row.put("priority", limit.endpointClass.priority());
+            row.put("targetLatencyMs", limit.endpointClass.targetLatencyMs());
+            row.put("limit", (int) limit.limit());
+            row.put("inFlight", limit.inFlight.get());
+            row.put("completed", completed);
+            row.put("slow", limit.slow.sum());
+            row.put("shed", limit.shed.sum());
+            row.put("avgLatencyMs", completed > 0 ? limit.latencyNanos.sum() / completed / 1_000_000 : 0);
+            perClass.put(name, row);
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("inFlight", inFlight.get());
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("classes", perClass);
+        return stats;
+    }
+
+    /**
+     * Increment the counter if it is below {@code bound}.
+     *
+     * @return the value before the increment, or -1 if it was at the bound
+     */
+    private static int increment(AtomicInteger counter, int bound) {
+        while (true) {
+            int current = counter.get();
+            if (current >= bound) {
+                return -1;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    private void onComplete(Permit permit, long now) {
+        ClassLimit limit = permit.limit;
+        limit.inFlight.decrementAndGet();
+        inFlight.decrementAndGet();
+
+        long latency = now - permit.startedAt;
+        limit.completed.increment();
+        limit.latencyNanos.add(latency);
+
+        if (latency > limit.targetNanos) {
+            limit.slow.increment();
+            long last = limit.lastDecreaseAt.get();
+            if (permit.startedAt - last >= 0 && limit.lastDecreaseAt.compareAndSet(last, now)) {
+                double lowered = limit.update(l -> Math.max(minLimit, l * BACKOFF_RATIO));
+                logger.debug("Concurrency limit of {} lowered to {} after a request took {}ms",
+                        limit.endpointClass.name(), (int) lowered, latency / 1_000_000);
+            }
+        } else if (permit.inFlightAtStart * 2 >= limit.limit()) {
+            // Only grow when the limit was actually being used
+            limit.update(l -> Math.min(maxLimit, l + 1.0 / l));
+        }
+    }
+
+    /**
+     * One admitted request. Release it exactly once, when the request completes.
+     */
+    public final class Permit {
+        private final ClassLimit limit;
+        private final long startedAt;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(ClassLimit limit, long startedAt, int inFlightAtStart) {
+            this.limit = limit;
+            this.startedAt = startedAt;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The request completed; its latency feeds the class's limit.
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                onComplete(this, clock.getAsLong());
+            }
+        }
+
+        /**
+         * The request was turned away before doing any work; free the slot without
+         * taking a latency sample.
+         */
+        public void cancel() {
+            if (!released) {
+                released = true;
+                limit.inFlight.decrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private final class ClassLimit {
+        final EndpointClass endpointClass;
+        final long targetNanos;
+        // Current limit as double bits, so additive increases can accumulate below 1
+        final AtomicLong limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong lastDecreaseAt = new AtomicLong(clock.getAsLong());
+        final LongAdder completed = new LongAdder();
+        final LongAdder slow = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder latencyNanos = new LongAdder();
+
+        ClassLimit(EndpointClass endpointClass) {
+            this.endpointClass = endpointClass;
+            this.targetNanos = endpointClass.targetLatencyMs() * 1_000_000;
+        }
+
+        double limit() {
+            return Double.longBitsToDouble(limitBits.get());
+        }
+
+        double update(DoubleUnaryOperator update) {
+            while (true) {
+                long bits = limitBits.get();
+                double next = update.applyAsDouble(Double.longBitsToDouble(bits));
+                if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                    return next;
+                }
+            }
+        }
+    }
+}
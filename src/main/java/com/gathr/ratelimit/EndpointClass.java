@@ -0,0 +1,23 @@
+package com.gathr.ratelimit;
+
+/**
+ * A group of endpoints sharing an admission lane and a latency target for the
+ * concurrency limiter. Completions slower than the target count as congestion.
+ */
+public record EndpointClass(
+        String name,
+        RequestPriority priority,
+        long targetLatencyMs
+) {
+    public EndpointClass {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Endpoint class name cannot be null or blank");
+        }
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority cannot be null");
+        }
+        if (targetLatencyMs <= 0) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.gathr.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generic cell rate algorithm (GCRA) rate limiter.
+ *
+ * Each key stores only its theoretical arrival time (TAT): when the next request would be
+ * due if requests arrived exactly at the sustained rate. A request is admitted if it is no
+ * more than the burst tolerance ahead of that time, and admitting it pushes the TAT out by
+ * one emission interval with a single CAS. Equivalent to a token bucket refilling at
+ * maxRequests per window with capacity {@code burst}.
+ *
+ * The X-RateLimit-* figures describe the burst: limit is the burst size, remaining is how
+ * many requests could be sent back to back now, and reset is when the burst is full again.
+ */
+@Component
+public class GcraRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GcraRateLimiter.class);
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
+
+    // Marks a TAT being swept, so racing requests start over with a fresh entry
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public GcraRateLimiter() {
+        this(GcraRateLimiter::epochNanos);
+    }
+
+    GcraRateLimiter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitResult checkAndRecord(String identifier, RateLimitConfig config) {
+        String key = buildKey(config.bucket(), identifier);
+        long now = clock.getAsLong();
+        long interval = interval(config);
+        long tolerance = interval * (config.burst() - 1);
+
+        AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long tat = arrival.get();
+            if (tat == RETIRED) {
+                arrivals.remove(key, arrival);
+                arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+                continue;
+            }
+
+            long due = Math.max(tat, now);
+            if (now < due - tolerance) {
+                logger.debug("Rate limit exceeded: bucket={}, identifier={}, burst={}",
+                        config.bucket(), identifier, config.burst());
+                return RateLimitResult.denied(seconds(due - tolerance - now), config.burst());
+            }
+
+            long next = due + interval;
+            if (arrival.compareAndSet(tat, next)) {
+                int remaining = (int) ((now + tolerance - due) / interval);
+                return RateLimitResult.allowed(remaining, seconds(next - now), config.burst());
+            }
+        }
+    }
+
+    @Override
+    public RateLimitResult check(String identifier, RateLimitConfig config) {
+        long now = clock.getAsLong();
+        long interval = interval(config);
+        long tolerance = interval * (config.burst() - 1);
+
+        AtomicLong arrival = arrivals.get(buildKey(config.bucket(), identifier));
+        long tat = arrival != null ? arrival.get() : RETIRED;
+        long due = tat == RETIRED ? now : Math.max(tat, now);
+
+        if (now < due - tolerance) {
+            return RateLimitResult.denied(seconds(due - tolerance - now), config.burst());
+        }
+        int remaining = (int) ((now + tolerance - due) / interval) + 1;
+        return RateLimitResult.allowed(remaining, seconds(due - now), config.burst());
+    }
+
+    /**
+     * Drop keys whose TAT has passed. Such a key is indistinguishable from a new one, so
+     * this loses nothing; one-off callers are gone one emission interval after their request.
+     */
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void sweep() {
+        long now = clock.getAsLong();
+        arrivals.forEach((key, arrival) -> {
+            long tat = arrival.get();
+            if (tat != RETIRED && tat <= now && arrival.compareAndSet(tat, RETIRED)) {
+                arrivals.remove(key, arrival);
+            }
+        });
+    }
+
+    int liveKeys() {
+        return arrivals.size();
+    }
+
+    private static long interval(RateLimitConfig config) {
+        return config.windowMinutes() * NANOS_PER_MINUTE / config.maxRequests();
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * NANOS_PER_SECOND + now.getNano();
+    }
+
+    private String buildKey(String bucket, String identifier) {
+        return bucket + ":" + identifier;
+    }
+}
@@ -0,0 +1,84 @@
+package com.gathr.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The keys with the highest estimated counts seen so far, fed from a {@link CountMinSketch}.
+ *
+ * Offers below the smallest tracked count are rejected with one volatile read, and keys
+ * already tracked are updated in place without locking. Only admitting a new key takes
+ * the lock, and only then is the list scanned for the key to evict.
+ */
+final class HeavyHitters {
+
+    private final int capacity;
+    private final Map<String, AtomicLong> counts;
+
+    // Smallest tracked count once full, 0 until then; may lag behind in-place updates,
+    // which only lets a few more offers through to the lock
+    private volatile long threshold;
+
+    HeavyHitters(int capacity) {
+        this.capacity = capacity;
+        this.counts = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    void offer(String key, long estimate) {
+        if (estimate < threshold) {
+            return;
+        }
+        AtomicLong tracked = counts.get(key);
+        if (tracked != null) {
+            tracked.accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        admit(key, estimate);
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        AtomicLong tracked = counts.get(key);
+        if (tracked != null) {
+            // Admitted by another thread while this one waited
+            tracked.accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        if (counts.size() >= capacity) {
+            String smallest = null;
+            long smallestCount = Long.MAX_VALUE;
+            for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+                long count = entry.getValue().get();
+                if (count < smallestCount) {
+                    smallest = entry.getKey();
+                    smallestCount = count;
+                }
+            }
+            if (estimate <= smallestCount) {
+                threshold = smallestCount;
+                return;
+            }
+            counts.remove(smallest);
+        }
+        counts.put(key, new AtomicLong(estimate));
+        if (counts.size() >= capacity) {
+            long min = Long.MAX_VALUE;
+            for (AtomicLong count : counts.values()) {
+                min = Math.min(min, count.get());
+            }
+            threshold = min;
+        }
+    }
+
+    /**
+     * Tracked keys, highest count first.
+     */
+    List<Map.Entry<String, Long>> top() {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(capacity);
+        counts.forEach((key, count) -> top.add(Map.entry(key, count.get())));
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return top;
+    }
+}
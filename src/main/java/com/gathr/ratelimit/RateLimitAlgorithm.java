@@ -0,0 +1,18 @@
+package com.gathr.ratelimit;
+
+/**
+ * How a bucket counts requests.
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * At most maxRequests in any window of windowMinutes.
+     */
+    SLIDING_WINDOW,
+
+    /**
+     * Generic cell rate algorithm: a steady rate of maxRequests per window, with up to
+     * burst requests back to back. One timestamp per key.
+     */
+    GCRA
+}
@@ -7,7 +7,9 @@ package com.gathr.ratelimit;
 public record RateLimitConfig(
         String bucket,
         int maxRequests,
-        int windowMinutes
+        int windowMinutes,
+        RateLimitAlgorithm algorithm,
+        int burst
 ) {
     public RateLimitConfig {
         if (bucket == null || bucket.isBlank()) {
@@ -19,6 +21,24 @@ public record RateLimitConfig(
         if (windowMinutes <= 0) {
             throw new IllegalArgumentException("Window minutes must be positive");
         }
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Algorithm cannot be null");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+    }
+
+    public RateLimitConfig(String bucket, int maxRequests, int windowMinutes) {
+        this(bucket, maxRequests, windowMinutes, RateLimitAlgorithm.SLIDING_WINDOW, maxRequests);
+    }
+
+    /**
+     * Same rate, limited with GCRA: maxRequests per window sustained, and at most
+     * {@code burst} requests back to back.
+     */
+    public RateLimitConfig withGcra(int burst) {
+        return new RateLimitConfig(bucket, maxRequests, windowMinutes, RateLimitAlgorithm.GCRA, burst);
     }
 
     /**
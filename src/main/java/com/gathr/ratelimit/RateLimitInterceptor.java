@@ -1,17 +1,17 @@
 package com.gathr.ratelimit;
 
 import com.gathr.security.JwtUtil;
+import com.gathr.security.VerifiedToken;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -22,31 +22,52 @@ import java.util.concurrent.ConcurrentHashMap;
  * - X-RateLimit-Limit: Maximum requests allowed
  * - X-RateLimit-Remaining: Requests remaining in window
  * - X-RateLimit-Reset: Seconds until the window resets
+ *
+ * Endpoint patterns are compiled into a {@link RouteMatcher} once. Requests that reached
+ * a controller are resolved by the handler's mapping pattern (e.g. /activities/{id}/join)
+ * and cached, so the common case is two map lookups.
+ *
+ * Endpoints assigned an {@link EndpointClass} also take a {@link ConcurrencyLimiter}
+ * permit before the rate limit check, held until the request completes. When their class
+ * or lane is full the request is shed at once with 503 and Retry-After.
  */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
-
     private static final String HEADER_LIMIT = "X-RateLimit-Limit";
     private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
     private static final String HEADER_RESET = "X-RateLimit-Reset";
     private static final String HEADER_RETRY_AFTER = "Retry-After";
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimiter.Permit.class.getName();
+    private static final int SHED_RETRY_AFTER_SECONDS = 1;
 
     private final RateLimiter rateLimiter;
+    private final RateLimitMetrics metrics;
+    private final ConcurrencyLimiter concurrencyLimiter;
     private final JwtUtil jwtUtil;
     private final Map<String, RateLimitConfig> endpointConfigs;
+    private final Map<String, EndpointClass> endpointClasses;
+    private volatile RouteMatcher<RateLimitConfig> routes;
+    private volatile RouteMatcher<EndpointClass> classRoutes;
+
+    // method -> handler mapping pattern -> route; bounded by the number of mappings
+    private final Map<String, Map<String, Route>> resolvedByPattern = new ConcurrentHashMap<>();
 
     // Default config for endpoints not explicitly configured
     private final RateLimitConfig defaultConfig;
 
-    public RateLimitInterceptor(RateLimiter rateLimiter, JwtUtil jwtUtil) {
+    public RateLimitInterceptor(RateLimiter rateLimiter, RateLimitMetrics metrics,
+            ConcurrencyLimiter concurrencyLimiter, JwtUtil jwtUtil) {
         this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.concurrencyLimiter = concurrencyLimiter;
         this.jwtUtil = jwtUtil;
-        this.endpointConfigs = new ConcurrentHashMap<>();
+        this.endpointConfigs = new LinkedHashMap<>();
+        this.endpointClasses = new LinkedHashMap<>();
         this.defaultConfig = RateLimitConfig.perHour("default", 200);
 
         initializeEndpointConfigs();
+        initializeEndpointClasses();
     }
 
     /**
@@ -64,9 +85,9 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         registerConfig("POST:/activities/*/confirm", RateLimitConfig.perHour("activity_confirm", 30));
         registerConfig("POST:/activities/*/invite-token", RateLimitConfig.perHour("invite_token", 20));
 
-        // Message endpoints (higher limit for chat)
-        registerConfig("POST:/activities/*/messages", RateLimitConfig.perHour("message_send", 120));
-        registerConfig("GET:/activities/*/messages", RateLimitConfig.perHour("message_fetch", 300));
+        // Message endpoints (higher limit for chat; GCRA keeps these hot paths O(1))
+        registerConfig("POST:/activities/*/messages", RateLimitConfig.perHour("message_send", 120).withGcra(30));
+        registerConfig("GET:/activities/*/messages", RateLimitConfig.perHour("message_fetch", 300).withGcra(60));
 
         // Report endpoint (prevent spam reports)
         registerConfig("POST:/reports", RateLimitConfig.perHour("report_create", 10));
@@ -81,8 +102,46 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         registerConfig("POST:/activity-templates", RateLimitConfig.perHour("template_create", 10));
     }
 
-    public void registerConfig(String pattern, RateLimitConfig config) {
+    /**
+     * Group endpoints for the concurrency limiter. Endpoints without a class are not
+     * concurrency limited.
+     */
+    private void initializeEndpointClasses() {
+        // Joining and confirming are what the app is for; keep them going under load
+        EndpointClass commit = new EndpointClass("commit", RequestPriority.CRITICAL, 500);
+        registerEndpointClass("POST:/activities", commit);
+        registerEndpointClass("POST:/activities/*/join", commit);
+        registerEndpointClass("POST:/activities/*/confirm", commit);
+
+        EndpointClass chat = new EndpointClass("chat", RequestPriority.NORMAL, 300);
+        registerEndpointClass("POST:/activities/*/messages", chat);
+        registerEndpointClass("GET:/activities/*/messages", chat);
+
+        EndpointClass browse = new EndpointClass("browse", RequestPriority.NORMAL, 500);
+        registerEndpointClass("GET:/activities", browse);
+        registerEndpointClass("GET:/activities/*", browse);
+        registerEndpointClass("GET:/hubs/*", browse);
+
+        // Feed ranking is the most expensive read, and the client keeps the last feed
+        EndpointClass feed = new EndpointClass("feed", RequestPriority.SHEDDABLE, 800);
+        registerEndpointClass("GET:/feed", feed);
+        registerEndpointClass("POST:/feed/refresh", feed);
+
+        EndpointClass analytics = new EndpointClass("analytics", RequestPriority.SHEDDABLE, 2000);
+        registerEndpointClass("GET:/analytics/*", analytics);
+        registerEndpointClass("GET:/analytics/funnel/*", analytics);
+    }
+
+    public synchronized void registerConfig(String pattern, RateLimitConfig config) {
         endpointConfigs.put(pattern, config);
+        routes = RouteMatcher.compile(endpointConfigs);
+        resolvedByPattern.clear();
+    }
+
+    public synchronized void registerEndpointClass(String pattern, EndpointClass endpointClass) {
+        endpointClasses.put(pattern, endpointClass);
+        classRoutes = RouteMatcher.compile(endpointClasses);
+        resolvedByPattern.clear();
     }
 
     @Override
@@ -98,27 +157,62 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         }
 
         // Find matching config
-        RateLimitConfig config = findConfig(method, path);
-        String identifier = extractIdentifier(request);
-
-        // Perform rate limit check
-        RateLimitResult result = rateLimiter.checkAndRecord(identifier, config);
-
-        // Always add rate limit headers
-        addRateLimitHeaders(response, result);
-
-        if (!result.allowed()) {
-            logger.warn("Rate limited: method={}, path={}, identifier={}", method, path, identifier);
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setHeader(HEADER_RETRY_AFTER, String.valueOf(result.resetInSeconds()));
-            response.setContentType("application/json");
-            response.getWriter().write(
-                    "{\"error\":\"Too many requests. Please try again in " + result.resetInSeconds() + " seconds.\"}"
-            );
-            return false;
+        Route route = findRoute(request, method, path);
+        RateLimitConfig config = route.config();
+
+        // Shed before doing any work if this endpoint's class or lane is full
+        ConcurrencyLimiter.Permit permit = null;
+        if (route.endpointClass() != null) {
+            permit = concurrencyLimiter.tryAcquire(route.endpointClass());
+            if (permit == null) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HEADER_RETRY_AFTER, String.valueOf(SHED_RETRY_AFTER_SECONDS));
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\":\"Server is busy. Please try again shortly.\"}");
+                return false;
+            }
+        }
+
+        // Until handed to afterCompletion, the permit is freed here on every way out
+        boolean admitted = false;
+        try {
+            String identifier = extractIdentifier(request);
+
+            // Perform rate limit check
+            RateLimitResult result = rateLimiter.checkAndRecord(identifier, config);
+            metrics.record(config.bucket(), identifier, result.allowed(), path);
+
+            // Always add rate limit headers
+            addRateLimitHeaders(response, result);
+
+            if (!result.allowed()) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HEADER_RETRY_AFTER, String.valueOf(result.resetInSeconds()));
+                response.setContentType("application/json");
+                response.getWriter().write(
+                        "{\"error\":\"Too many requests. Please try again in " + result.resetInSeconds() + " seconds.\"}"
+                );
+                return false;
+            }
+
+            if (permit != null) {
+                request.setAttribute(PERMIT_ATTRIBUTE, permit);
+            }
+            admitted = true;
+            return true;
+        } finally {
+            if (!admitted && permit != null) {
+                permit.cancel();
+            }
         }
+    }
 
-        return true;
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof ConcurrencyLimiter.Permit permit) {
+            permit.release();
+        }
     }
 
     private boolean shouldSkipRateLimit(String path) {
@@ -128,55 +222,37 @@ public class RateLimitInterceptor implements HandlerInterceptor {
                 path.startsWith("/actuator");
     }
 
-    private RateLimitConfig findConfig(String method, String path) {
-        // Try exact match first
-        String exactKey = method + ":" + path;
-        if (endpointConfigs.containsKey(exactKey)) {
-            return endpointConfigs.get(exactKey);
-        }
-
-        // Try wildcard patterns (e.g., POST:/activities/*/join)
-        for (Map.Entry<String, RateLimitConfig> entry : endpointConfigs.entrySet()) {
-            if (matchesPattern(entry.getKey(), method, path)) {
-                return entry.getValue();
-            }
+    private Route findRoute(HttpServletRequest request, String method, String path) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof String handlerPattern) {
+            return resolvedByPattern
+                    .computeIfAbsent(method, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(handlerPattern, k -> findRoute(method, handlerPattern));
         }
-
-        // Return default config
-        return defaultConfig;
+        // No controller mapping (e.g. 404s): match the raw path, uncached
+        return findRoute(method, path);
     }
 
-    private boolean matchesPattern(String pattern, String method, String path) {
-        String[] parts = pattern.split(":", 2);
-        if (parts.length != 2) return false;
-
-        String patternMethod = parts[0];
-        String patternPath = parts[1];
-
-        if (!patternMethod.equals(method)) return false;
-
-        // Convert wildcard pattern to regex
-        String regex = patternPath
-                .replace("*", "[^/]+")
-                .replace("/", "\\/");
-
-        return path.matches(regex);
+    private Route findRoute(String method, String path) {
+        RateLimitConfig config = routes.find(method, path);
+        return new Route(config != null ? config : defaultConfig, classRoutes.find(method, path));
     }
 
     private String extractIdentifier(HttpServletRequest request) {
-        // Try to get user ID from JWT token
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                if (userId != null) {
-                    return "user:" + userId;
-                }
-            } catch (Exception e) {
-                logger.debug("Could not extract user ID from token: {}", e.getMessage());
+        // Try to get user ID from the JWT the authentication filter already verified
+        Long userId = null;
+        if (request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken verified) {
+            userId = verified.userId();
+        } else {
+            // Paths the filter skips (/auth/**); verify here, the result is cached
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                userId = jwtUtil.verify(authHeader.substring(7)).map(VerifiedToken::userId).orElse(null);
             }
         }
+        if (userId != null) {
+            return "user:" + userId;
+        }
 
         // Fall back to IP address for unauthenticated requests
         String ip = getClientIp(request);
@@ -204,4 +280,7 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         response.setHeader(HEADER_REMAINING, String.valueOf(result.remaining()));
         response.setHeader(HEADER_RESET, String.valueOf(result.resetInSeconds()));
     }
+
+    private record Route(RateLimitConfig config, EndpointClass endpointClass) {
+    }
 }
@@ -0,0 +1,132 @@
+package com.gathr.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limit decisions per bucket, and the identifiers sending the most requests.
+ *
+ * Allowed and denied counts are kept per bucket since startup. Request volume per
+ * bucket and identifier goes into a count-min sketch with a small top-K list on top,
+ * restarted every {@value #INTERVAL_MINUTES} minutes so the list shows who is busy now;
+ * the previous interval is kept for comparison.
+ *
+ * Denials are logged at most once per bucket every {@value #LOG_INTERVAL_SECONDS}
+ * seconds, with the number of denials suppressed in between, so abuse does not turn
+ * into log volume.
+ */
+@Component
+public class RateLimitMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitMetrics.class);
+
+    private static final int INTERVAL_MINUTES = 10;
+    private static final int LOG_INTERVAL_SECONDS = 10;
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int TOP_K = 20;
+
+    private final Map<String, BucketStats> buckets = new ConcurrentHashMap<>();
+
+    private volatile Interval current = new Interval();
+    private volatile Interval previous;
+
+    /**
+     * Record one rate limit decision.
+     */
+    public void record(String bucket, String identifier, boolean allowed, String path) {
+        BucketStats stats = buckets.computeIfAbsent(bucket, k -> new BucketStats());
+        (allowed ? stats.allowed : stats.denied).increment();
+
+        Interval interval = current;
+        String key = bucket + ":" + identifier;
+        interval.heavyHitters.offer(key, interval.sketch.add(key));
+
+        if (!allowed) {
+            logDenied(stats, bucket, identifier, path);
+        }
+    }
+
+    @Scheduled(fixedRate = INTERVAL_MINUTES * 60000) // Every 10 minutes
+    public void rotate() {
+        previous = current;
+        current = new Interval();
+    }
+
+    /**
+     * Per-bucket totals and the busiest identifiers, for the metrics endpoint.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> bucketTotals = new TreeMap<>();
+        buckets.forEach((bucket, stats) -> {
+            Map<String, Object> totals = new HashMap<>();
+            totals.put("allowed", stats.allowed.sum());
+            totals.put("denied", stats.denied.sum());
+            bucketTotals.put(bucket, totals);
+        });
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("buckets", bucketTotals);
+        snapshot.put("topIdentifiers", current.toMap());
+        Interval last = previous;
+        if (last != null) {
+            snapshot.put("previousTopIdentifiers", last.toMap());
+        }
+        return snapshot;
+    }
+
+    private void logDenied(BucketStats stats, String bucket, String identifier, String path) {
+        long now = System.currentTimeMillis();
+        long last = stats.lastLoggedAt.get();
+        if (now - last >= LOG_INTERVAL_SECONDS * 1000L && stats.lastLoggedAt.compareAndSet(last, now)) {
+            logger.warn("Rate limited: bucket={}, identifier={}, path={} ({} more denials in bucket since last log)",
+                    bucket, identifier, path, stats.suppressed.sumThenReset());
+        } else {
+            stats.suppressed.increment();
+        }
+    }
+
+    private static final class BucketStats {
+        final LongAdder allowed = new LongAdder();
+        final LongAdder denied = new LongAdder();
+        final LongAdder suppressed = new LongAdder();
+        final AtomicLong lastLoggedAt = new AtomicLong();
+    }
+
+    private static final class Interval {
+        final Instant startedAt = Instant.now();
+        final CountMinSketch sketch = new CountMinSketch(SKETCH_WIDTH, SKETCH_DEPTH);
+        final HeavyHitters heavyHitters = new HeavyHitters(TOP_K);
+
+        Map<String, Object> toMap() {
+            List<Map<String, Object>> top = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : heavyHitters.top()) {
+                // Bucket names contain no colon; identifiers do (user:42)
+                String key = entry.getKey();
+                int colon = key.indexOf(':');
+                Map<String, Object> row = new HashMap<>();
+                row.put("bucket", key.substring(0, colon));
+                row.put("identifier", key.substring(colon + 1));
+                row.put("requests", entry.getValue());
+                top.add(row);
+            }
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("since", startedAt);
+            map.put("identifiers", top);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.gathr.ratelimit;
+
+/**
+ * Admission lane for the concurrency limiter. Each lane may fill only its share of the
+ * ceiling on requests in flight shared by all endpoint classes, so when the server
+ * saturates the lower lanes are shed first and the headroom above them is left for more
+ * important requests.
+ */
+public enum RequestPriority {
+
+    /**
+     * Joins and confirmations: may use the whole limit.
+     */
+    CRITICAL(1.0),
+
+    /**
+     * Chat and browsing.
+     */
+    NORMAL(0.8),
+
+    /**
+     * Feed refreshes and analytics, which clients can retry or serve from cache.
+     */
+    SHEDDABLE(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * Requests this lane may have in flight under the given overall ceiling.
+     */
+    int admissionLimit(double limit) {
+        return Math.max(1, (int) (limit * share));
+    }
+}
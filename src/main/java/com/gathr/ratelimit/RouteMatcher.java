@@ -0,0 +1,98 @@
+package com.gathr.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint values (rate limit configs, endpoint classes) compiled into one path trie
+ * per HTTP method.
+ *
+ * Patterns are {@code METHOD:/path} with {@code *} standing for exactly one path segment,
+ * e.g. {@code POST:/activities/*}{@code /join}. Lookups walk the path one segment at a
+ * time, preferring a literal segment over a wildcard and backtracking if the literal
+ * branch dead-ends. Instances are immutable; build a new one to change the routes.
+ */
+final class RouteMatcher<T> {
+
+    private final Map<String, Node<T>> roots;
+
+    private RouteMatcher(Map<String, Node<T>> roots) {
+        this.roots = roots;
+    }
+
+    /**
+     * @param patterns {@code METHOD:/path} patterns and their values
+     * @throws IllegalArgumentException on a pattern without a method
+     */
+    static <T> RouteMatcher<T> compile(Map<String, T> patterns) {
+        Map<String, Node<T>> roots = new HashMap<>();
+        patterns.forEach((pattern, value) -> {
+            int colon = pattern.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Rate limit pattern must be METHOD:/path, got " + pattern);
+            }
+            Node<T> node = roots.computeIfAbsent(pattern.substring(0, colon), k -> new Node<>());
+            String path = pattern.substring(colon + 1);
+            for (int start = 0; start < path.length(); ) {
+                int end = segmentEnd(path, start);
+                if (end > start) {
+                    String segment = path.substring(start, end);
+                    node = segment.equals("*")
+                            ? node.wildcard()
+                            : node.literals.computeIfAbsent(segment, k -> new Node<>());
+                }
+                start = end + 1;
+            }
+            node.value = value;
+        });
+        return new RouteMatcher<>(roots);
+    }
+
+    /**
+     * @return the value registered for the route, or null if none matches
+     */
+    T find(String method, String path) {
+        Node<T> root = roots.get(method);
+        return root != null ? match(root, path, 0) : null;
+    }
+
+    private static <T> T match(Node<T> node, String path, int start) {
+        // Empty segments ("//", trailing "/") are skipped
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= path.length()) {
+            return node.value;
+        }
+
+        int end = segmentEnd(path, start);
+        if (!node.literals.isEmpty()) {
+            Node<T> literal = node.literals.get(path.substring(start, end));
+            if (literal != null) {
+                T value = match(literal, path, end);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return node.wildcard != null ? match(node.wildcard, path, end) : null;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int slash = path.indexOf('/', start);
+        return slash < 0 ? path.length() : slash;
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> wildcard;
+        private T value;
+
+        Node<T> wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node<>();
+            }
+            return wildcard;
+        }
+    }
+}
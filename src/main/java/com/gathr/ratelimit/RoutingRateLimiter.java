@@ -0,0 +1,37 @@
+package com.gathr.ratelimit;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatches each bucket to the limiter for its {@link RateLimitAlgorithm}.
+ */
+@Component
+@Primary
+public class RoutingRateLimiter implements RateLimiter {
+
+    private final SlidingWindowRateLimiter slidingWindowRateLimiter;
+    private final GcraRateLimiter gcraRateLimiter;
+
+    public RoutingRateLimiter(SlidingWindowRateLimiter slidingWindowRateLimiter, GcraRateLimiter gcraRateLimiter) {
+        this.slidingWindowRateLimiter = slidingWindowRateLimiter;
+        this.gcraRateLimiter = gcraRateLimiter;
+    }
+
+    @Override
+    public RateLimitResult checkAndRecord(String identifier, RateLimitConfig config) {
+        return limiterFor(config).checkAndRecord(identifier, config);
+    }
+
+    @Override
+    public RateLimitResult check(String identifier, RateLimitConfig config) {
+        return limiterFor(config).check(identifier, config);
+    }
+
+    private RateLimiter limiterFor(RateLimitConfig config) {
+        return switch (config.algorithm()) {
+            case SLIDING_WINDOW -> slidingWindowRateLimiter;
+            case GCRA -> gcraRateLimiter;
+        };
+    }
+}
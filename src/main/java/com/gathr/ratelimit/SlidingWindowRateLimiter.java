@@ -1,13 +1,13 @@
 package com.gathr.ratelimit;
 
 import com.gathr.ratelimit.storage.RateLimitStorage;
+import com.gathr.ratelimit.storage.WindowUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 
 /**
  * Sliding window rate limiter implementation.
@@ -15,6 +15,8 @@ import java.util.List;
  *
  * Algorithm: Count requests in a sliding time window.
  * More accurate than fixed window, prevents burst at window boundaries.
+ * The storage checks and records in one atomic step; how exactly it counts the
+ * window is up to the implementation.
  */
 @Component
 public class SlidingWindowRateLimiter implements RateLimiter {
@@ -30,72 +32,38 @@ public class SlidingWindowRateLimiter implements RateLimiter {
     @Override
     public RateLimitResult checkAndRecord(String identifier, RateLimitConfig config) {
         String key = buildKey(config.bucket(), identifier);
-        Instant now = Instant.now();
-        Instant windowStart = now.minus(Duration.ofMinutes(config.windowMinutes()));
+        WindowUsage usage = storage.acquire(key, Instant.now(),
+                Duration.ofMinutes(config.windowMinutes()), config.maxRequests());
 
-        // Cleanup old entries
-        storage.cleanup(key, windowStart);
-
-        // Get current count
-        List<Instant> requests = storage.getRequestsInWindow(key, windowStart);
-        int currentCount = requests.size();
-
-        if (currentCount >= config.maxRequests()) {
-            long resetSeconds = calculateResetSeconds(requests, config.windowMinutes(), now);
-            logger.warn("Rate limit exceeded: bucket={}, identifier={}, count={}/{}",
-                    config.bucket(), identifier, currentCount, config.maxRequests());
-            return RateLimitResult.denied(resetSeconds, config.maxRequests());
+        if (!usage.admitted()) {
+            logger.debug("Rate limit exceeded: bucket={}, identifier={}, count={}/{}",
+                    config.bucket(), identifier, usage.count(), config.maxRequests());
+            return RateLimitResult.denied(usage.resetInSeconds(), config.maxRequests());
         }
 
-        // Record this request
-        storage.recordRequest(key, now);
-
-        int remaining = config.maxRequests() - currentCount - 1;
-        long resetSeconds = calculateResetSeconds(requests, config.windowMinutes(), now);
+        int remaining = Math.max(0, config.maxRequests() - usage.count());
 
         logger.debug("Rate limit check passed: bucket={}, identifier={}, remaining={}",
                 config.bucket(), identifier, remaining);
 
-        return RateLimitResult.allowed(remaining, resetSeconds, config.maxRequests());
+        return RateLimitResult.allowed(remaining, usage.resetInSeconds(), config.maxRequests());
     }
 
     @Override
     public RateLimitResult check(String identifier, RateLimitConfig config) {
         String key = buildKey(config.bucket(), identifier);
-        Instant now = Instant.now();
-        Instant windowStart = now.minus(Duration.ofMinutes(config.windowMinutes()));
+        WindowUsage usage = storage.peek(key, Instant.now(),
+                Duration.ofMinutes(config.windowMinutes()), config.maxRequests());
 
-        List<Instant> requests = storage.getRequestsInWindow(key, windowStart);
-        int currentCount = requests.size();
-
-        if (currentCount >= config.maxRequests()) {
-            long resetSeconds = calculateResetSeconds(requests, config.windowMinutes(), now);
-            return RateLimitResult.denied(resetSeconds, config.maxRequests());
+        if (usage.count() >= config.maxRequests()) {
+            return RateLimitResult.denied(usage.resetInSeconds(), config.maxRequests());
         }
 
-        int remaining = config.maxRequests() - currentCount;
-        long resetSeconds = calculateResetSeconds(requests, config.windowMinutes(), now);
-
-        return RateLimitResult.allowed(remaining, resetSeconds, config.maxRequests());
+        int remaining = config.maxRequests() - usage.count();
+        return RateLimitResult.allowed(remaining, usage.resetInSeconds(), config.maxRequests());
     }
 
     private String buildKey(String bucket, String identifier) {
         return bucket + ":" + identifier;
     }
-
-    private long calculateResetSeconds(List<Instant> requests, int windowMinutes, Instant now) {
-        if (requests.isEmpty()) {
-            return Duration.ofMinutes(windowMinutes).toSeconds();
-        }
-
-        // Find oldest request in window - that's when first slot opens
-        Instant oldest = requests.stream()
-                .min(Instant::compareTo)
-                .orElse(now);
-
-        Instant resetTime = oldest.plus(Duration.ofMinutes(windowMinutes));
-        long seconds = Duration.between(now, resetTime).toSeconds();
-
-        return Math.max(0, seconds);
-    }
 }
@@ -0,0 +1,140 @@
+package com.gathr.ratelimit.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Key bookkeeping shared by the in-memory storages.
+ *
+ * Keys are only touched when the same caller comes back, so one-off callers (scanners
+ * cycling IPs) would otherwise stay in memory forever. A background sweep drops keys
+ * whose window has fully expired, and a hard cap on the number of keys evicts the
+ * least-used keys as soon as it is exceeded: lowest request count in the current window
+ * first, least recently seen among equals. Evicting a key only forgets its count, so
+ * the cap can make limiting more lenient but never stricter.
+ *
+ * @param <E> per-key entry
+ */
+abstract class BoundedKeyStorage<E> implements RateLimitStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedKeyStorage.class);
+
+    protected final ConcurrentHashMap<String, E> entries = new ConcurrentHashMap<>();
+
+    private final int maxKeys;
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+
+    protected BoundedKeyStorage(int maxKeys) {
+        this.maxKeys = Math.max(1, maxKeys);
+    }
+
+    /**
+     * Requests counted for the entry in its window as of {@code nowMillis}.
+     */
+    protected abstract int frequency(E entry, long nowMillis);
+
+    /**
+     * Approximate time of the entry's most recent request, in epoch millis.
+     */
+    protected abstract long lastSeen(E entry);
+
+    /**
+     * Remove the entry if it is still mapped to the key and, when {@code idleOnly} is set,
+     * nothing in its window remains as of {@code nowMillis}.
+     *
+     * @return whether the entry was removed
+     */
+    protected abstract boolean evict(String key, E entry, long nowMillis, boolean idleOnly);
+
+    /**
+     * Called by implementations after mapping a new key.
+     */
+    protected void keyAdded(long nowMillis) {
+        if (entries.size() > maxKeys && trimming.compareAndSet(false, true)) {
+            try {
+                trim(nowMillis);
+            } finally {
+                trimming.set(false);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    void sweep(long nowMillis) {
+        int removed = 0;
+        for (Map.Entry<String, E> entry : entries.entrySet()) {
+            if (evict(entry.getKey(), entry.getValue(), nowMillis, true)) {
+                removed++;
+            }
+        }
+        idleEvictions.add(removed);
+        if (removed > 0) {
+            logger.debug("Rate limit sweep removed {} idle keys, {} remain", removed, entries.size());
+        }
+        keyAdded(nowMillis);
+    }
+
+    /**
+     * Evict down to 90% of the cap, so the next trim is some way off.
+     */
+    private void trim(long nowMillis) {
+        int target = maxKeys - maxKeys / 10;
+        List<Candidate<E>> candidates = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) ->
+                candidates.add(new Candidate<>(key, entry, frequency(entry, nowMillis), lastSeen(entry))));
+        candidates.sort(Comparator.<Candidate<E>>comparingInt(Candidate::frequency)
+                .thenComparingLong(Candidate::lastSeen));
+
+        // A fixed count rather than the live size, which concurrent inserts keep pushing up
+        int excess = candidates.size() - target;
+        int removed = 0;
+        for (int i = 0; i < candidates.size() && removed < excess; i++) {
+            Candidate<E> candidate = candidates.get(i);
+            if (evict(candidate.key(), candidate.entry(), nowMillis, false)) {
+                removed++;
+            }
+        }
+        capacityEvictions.add(removed);
+        logger.warn("Rate limit key cap of {} exceeded, evicted {} least-used keys", maxKeys, removed);
+    }
+
+    @Override
+    public void clear(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Clear all storage (useful for testing).
+     */
+    public void clearAll() {
+        entries.clear();
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("liveKeys", entries.size());
+        stats.put("maxKeys", maxKeys);
+        stats.put("idleEvictions", idleEvictions.sum());
+        stats.put("capacityEvictions", capacityEvictions.sum());
+        return stats;
+    }
+
+    private record Candidate<E>(String key, E entry, int frequency, long lastSeen) {}
+}
@@ -1,68 +1,142 @@
 package com.gathr.ratelimit.storage;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
- * In-memory implementation of RateLimitStorage using ConcurrentHashMap.
- * Suitable for single-instance deployments.
- * For multi-instance deployments, use RedisRateLimitStorage.
+ * Exact in-memory implementation of RateLimitStorage, keeping every request timestamp
+ * in the window. Suitable for single-instance deployments.
+ *
+ * Memory per key grows with the limit; {@link SlidingWindowCounterRateLimitStorage} is
+ * the default. Enable this one with {@code gathr.ratelimit.storage=exact}.
  */
 @Component
-public class InMemoryRateLimitStorage implements RateLimitStorage {
+@ConditionalOnProperty(name = "gathr.ratelimit.storage", havingValue = "exact")
+public class InMemoryRateLimitStorage extends BoundedKeyStorage<InMemoryRateLimitStorage.Timestamps> {
 
-    private final Map<String, List<Instant>> storage = new ConcurrentHashMap<>();
+    public InMemoryRateLimitStorage(@Value("${gathr.ratelimit.max-keys:100000}") int maxKeys) {
+        super(maxKeys);
+    }
 
     @Override
-    public void recordRequest(String key, Instant timestamp) {
-        storage.compute(key, (k, timestamps) -> {
+    public WindowUsage acquire(String key, Instant now, Duration window, int limit) {
+        Instant windowStart = now.minus(window);
+        WindowUsage[] usage = new WindowUsage[1];
+        boolean[] added = new boolean[1];
+
+        entries.compute(key, (k, timestamps) -> {
             if (timestamps == null) {
-                timestamps = Collections.synchronizedList(new ArrayList<>());
+                timestamps = new Timestamps(window);
+                added[0] = true;
+            }
+            timestamps.evict(windowStart);
+
+            if (timestamps.size() >= limit) {
+                usage[0] = new WindowUsage(false, timestamps.size(), timestamps.secondsUntilOldestExpires(now));
+            } else {
+                timestamps.add(now);
+                usage[0] = new WindowUsage(true, timestamps.size(), timestamps.secondsUntilOldestExpires(now));
             }
-            timestamps.add(timestamp);
             return timestamps;
         });
-    }
-
-    @Override
-    public List<Instant> getRequestsInWindow(String key, Instant windowStart) {
-        List<Instant> timestamps = storage.get(key);
-        if (timestamps == null) {
-            return Collections.emptyList();
-        }
 
-        synchronized (timestamps) {
-            return timestamps.stream()
-                    .filter(ts -> !ts.isBefore(windowStart))
-                    .toList();
+        if (added[0]) {
+            keyAdded(now.toEpochMilli());
         }
+        return usage[0];
     }
 
     @Override
-    public void cleanup(String key, Instant windowStart) {
-        storage.computeIfPresent(key, (k, timestamps) -> {
-            synchronized (timestamps) {
-                timestamps.removeIf(ts -> ts.isBefore(windowStart));
+    public WindowUsage peek(String key, Instant now, Duration window, int limit) {
+        Instant windowStart = now.minus(window);
+        WindowUsage[] usage = { new WindowUsage(false, 0, window.toSeconds()) };
+
+        entries.computeIfPresent(key, (k, timestamps) -> {
+            timestamps.evict(windowStart);
+            if (timestamps.size() == 0) {
+                return null;
             }
-            return timestamps.isEmpty() ? null : timestamps;
+            usage[0] = new WindowUsage(false, timestamps.size(), timestamps.secondsUntilOldestExpires(now));
+            return timestamps;
         });
+        return usage[0];
+    }
+
+    @Override
+    protected int frequency(Timestamps timestamps, long nowMillis) {
+        return timestamps.size();
+    }
+
+    @Override
+    protected long lastSeen(Timestamps timestamps) {
+        return timestamps.lastSeen;
     }
 
     @Override
-    public void clear(String key) {
-        storage.remove(key);
+    protected boolean evict(String key, Timestamps entry, long nowMillis, boolean idleOnly) {
+        Instant now = Instant.ofEpochMilli(nowMillis);
+        boolean[] removed = new boolean[1];
+
+        entries.computeIfPresent(key, (k, timestamps) -> {
+            if (timestamps != entry) {
+                return timestamps;
+            }
+            if (idleOnly) {
+                // Also trims expired timestamps from keys that stay
+                timestamps.evict(now.minus(timestamps.window));
+                if (timestamps.size() > 0) {
+                    return timestamps;
+                }
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
     }
 
     /**
-     * Clear all storage (useful for testing).
+     * Request timestamps of one key, oldest first. Mutated only inside map compute calls;
+     * the size and last-seen fields are published for the eviction scan.
      */
-    public void clearAll() {
-        storage.clear();
+    static final class Timestamps {
+        private final Duration window;
+        private final Deque<Instant> deque = new ArrayDeque<>();
+        private volatile int size;
+        private volatile long lastSeen;
+
+        Timestamps(Duration window) {
+            this.window = window;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(Instant now) {
+            deque.addLast(now);
+            size = deque.size();
+            lastSeen = now.toEpochMilli();
+        }
+
+        void evict(Instant windowStart) {
+            while (!deque.isEmpty() && deque.peekFirst().isBefore(windowStart)) {
+                deque.pollFirst();
+            }
+            size = deque.size();
+        }
+
+        long secondsUntilOldestExpires(Instant now) {
+            Instant oldest = deque.peekFirst();
+            if (oldest == null) {
+                return window.toSeconds();
+            }
+            return Math.max(0, Duration.between(now, oldest.plus(window)).toSeconds());
+        }
     }
 }
@@ -0,0 +1,354 @@
+package com.gathr.ratelimit.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * RateLimitStorage shared by all instances through Postgres, without a round trip per request.
+ *
+ * Limits are sliding window counters kept per fixed window in rate_limit_counters. Nodes
+ * do not record single requests there; they lease a batch of slots (a tenth of the limit
+ * by default) and admit requests from the local lease. When a lease runs half empty the
+ * next one is fetched in the background, so only a key's first request in a window on a
+ * node waits for the database.
+ *
+ * Every leased slot is counted in the database when it is handed out. Nodes together
+ * therefore never admit more than the window allows. The error runs the other way:
+ * slots leased but not spent before the window ends are wasted. A grant never exceeds
+ * half of what is left in the window, so with N nodes a busy key loses at most about
+ * N * lease slots per window, fewer as the window fills. If the database is unreachable,
+ * nodes fall back to enforcing the limit locally. Requests then never wait on it: one
+ * background lease every few seconds probes whether it is back.
+ *
+ * Enable with {@code gathr.ratelimit.storage=postgres}.
+ */
+@Component
+@ConditionalOnProperty(name = "gathr.ratelimit.storage", havingValue = "postgres")
+public class PostgresRateLimitStorage extends BoundedKeyStorage<PostgresRateLimitStorage.Lease> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresRateLimitStorage.class);
+
+    // Grants min(want, half of budget - used, rounded up) slots in one round trip, so nodes
+    // hold less unspent quota as the window fills. The budget is the limit less the previous
+    // window's count weighted by its remaining overlap. SET expressions see the row as it
+    // was, so last_grant is what this statement added.
+    private static final String LEASE_SQL =
+            "WITH prev AS (SELECT COALESCE(MAX(used), 0) AS used FROM rate_limit_counters " +
+            "              WHERE limit_key = ? AND window_index = ?) " +
+            "INSERT INTO rate_limit_counters (limit_key, window_index, budget, used, last_grant, expires_at) " +
+            "SELECT ?, ?, b.budget, LEAST(?, CEIL(b.budget / 2.0)), LEAST(?, CEIL(b.budget / 2.0)), ? " +
+            "FROM (SELECT CAST(GREATEST(0, CEIL(? - prev.used * ?)) AS INTEGER) AS budget FROM prev) b " +
+            "ON CONFLICT (limit_key, window_index) DO UPDATE SET " +
+            "budget = EXCLUDED.budget, " +
+            "used = rate_limit_counters.used + LEAST(?, GREATEST(0, CEIL((EXCLUDED.budget - rate_limit_counters.used) / 2.0))), " +
+            "last_grant = LEAST(?, GREATEST(0, CEIL((EXCLUDED.budget - rate_limit_counters.used) / 2.0))) " +
+            "RETURNING used, last_grant, budget";
+
+    // How long a node enforces limits locally after a failed lease before probing again
+    private static final long DATABASE_RETRY_MILLIS = 5000;
+
+    private static final String CLEANUP_SQL = "DELETE FROM rate_limit_counters WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int leaseDivisor;
+    private final ThreadPoolExecutor refills;
+    private final LongSupplier clock;
+
+    private final AtomicBoolean databaseHealthy = new AtomicBoolean(true);
+    private final AtomicLong databaseRetryAt = new AtomicLong();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder leaseFailures = new LongAdder();
+
+    @Autowired
+    public PostgresRateLimitStorage(
+            JdbcTemplate jdbcTemplate,
+            @Value("${gathr.ratelimit.max-keys:100000}") int maxKeys,
+            @Value("${gathr.ratelimit.lease-divisor:10}") int leaseDivisor,
+            @Value("${gathr.ratelimit.refill-threads:2}") int refillThreads) {
+        this(jdbcTemplate, maxKeys, leaseDivisor, refillPool(refillThreads), System::currentTimeMillis);
+    }
+
+    PostgresRateLimitStorage(JdbcTemplate jdbcTemplate, int maxKeys, int leaseDivisor,
+            ThreadPoolExecutor refills, LongSupplier clock) {
+        super(maxKeys);
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseDivisor = Math.max(1, leaseDivisor);
+        this.refills = refills;
+        this.clock = clock;
+    }
+
+    private static ThreadPoolExecutor refillPool(int refillThreads) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(refillThreads, refillThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), runnable -> {
+                    Thread thread = new Thread(runnable, "rate-limit-refill-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public WindowUsage acquire(String key, Instant now, Duration window, int limit) {
+        long windowMillis = window.toMillis();
+        long nowMillis = now.toEpochMilli();
+        long index = nowMillis / windowMillis;
+
+        Lease lease = entries.get(key);
+        if (lease == null) {
+            Lease created = new Lease(windowMillis);
+            lease = entries.putIfAbsent(key, created);
+            if (lease == null) {
+                lease = created;
+                keyAdded(nowMillis);
+            }
+        }
+
+        synchronized (lease) {
+            lease.roll(index, limit);
+            lease.lastSeen = nowMillis;
+
+            if (lease.available == 0 && nowMillis >= lease.exhaustedUntil) {
+                // While the database is failing, don't hold the lease's lock on a query
+                // that is likely to time out; the refill below probes it instead
+                Grant grant = databaseHealthy.get()
+                        ? fetchLease(key, index, nowMillis, windowMillis, limit)
+                        : localGrant(limit);
+                apply(lease, index, nowMillis, grant);
+            }
+
+            if (lease.available == 0) {
+                return new WindowUsage(false, lease.count(), secondsUntil(lease.exhaustedUntil, nowMillis, windowMillis));
+            }
+
+            lease.available--;
+            lease.used++;
+            if (!lease.refilling && lease.available <= leaseSize(limit) / 2 && nowMillis >= lease.exhaustedUntil
+                    && (databaseHealthy.get() || tryProbe(nowMillis))) {
+                lease.refilling = true;
+                refill(key, lease, index, windowMillis, limit);
+            }
+            return new WindowUsage(true, lease.count(), secondsUntil((index + 1) * windowMillis, nowMillis, windowMillis));
+        }
+    }
+
+    /**
+     * Local view only: this node's last known window count, without a database read.
+     */
+    @Override
+    public WindowUsage peek(String key, Instant now, Duration window, int limit) {
+        Lease lease = entries.get(key);
+        if (lease == null) {
+            return new WindowUsage(false, 0, window.toSeconds());
+        }
+        long windowMillis = window.toMillis();
+        long nowMillis = now.toEpochMilli();
+        synchronized (lease) {
+            lease.roll(nowMillis / windowMillis, limit);
+            return new WindowUsage(false, lease.count(), secondsUntil(lease.exhaustedUntil, nowMillis, windowMillis));
+        }
+    }
+
+    @Override
+    protected int frequency(Lease lease, long nowMillis) {
+        synchronized (lease) {
+            return lease.windowIndex >= nowMillis / lease.windowMillis ? lease.used : 0;
+        }
+    }
+
+    @Override
+    protected long lastSeen(Lease lease) {
+        return lease.lastSeen;
+    }
+
+    @Override
+    protected boolean evict(String key, Lease lease, long nowMillis, boolean idleOnly) {
+        // Leased slots are already counted in the database, so dropping one only wastes them
+        synchronized (lease) {
+            if (idleOnly && lease.windowIndex >= nowMillis / lease.windowMillis - 1) {
+                return false;
+            }
+        }
+        return entries.remove(key, lease);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = super.stats();
+        stats.put("leases", leases.sum());
+        stats.put("leaseFailures", leaseFailures.sum());
+        stats.put("refillsQueued", refills.getQueue().size());
+        stats.put("databaseHealthy", databaseHealthy.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelay = 600000) // Every 10 minutes
+    public void deleteExpiredWindows() {
+        try {
+            int deleted = jdbcTemplate.update(CLEANUP_SQL, Timestamp.from(Instant.now()));
+            logger.debug("Deleted {} expired rate limit windows", deleted);
+        } catch (Exception e) {
+            logger.warn("Failed to delete expired rate limit windows: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refills.shutdown();
+    }
+
+    private void refill(String key, Lease lease, long index, long windowMillis, int limit) {
+        try {
+            refills.execute(() -> {
+                long nowMillis = clock.getAsLong();
+                Grant grant = fetchLease(key, index, nowMillis, windowMillis, limit);
+                synchronized (lease) {
+                    lease.refilling = false;
+                    apply(lease, index, nowMillis, grant);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: the request that empties the lease will fetch one inline
+            lease.refilling = false;
+        }
+    }
+
+    /**
+     * Lease slots for the window, falling back to a local-only grant if the database fails.
+     */
+    private Grant fetchLease(String key, long index, long nowMillis, long windowMillis, int limit) {
+        int want = leaseSize(limit);
+        double previousWeight = 1 - (double) (nowMillis % windowMillis) / windowMillis;
+        Timestamp expiresAt = Timestamp.from(Instant.ofEpochMilli((index + 2) * windowMillis));
+        try {
+            Grant grant = jdbcTemplate.queryForObject(LEASE_SQL,
+                    (rs, rowNum) -> new Grant(rs.getInt(1), rs.getInt(2), rs.getInt(3), false),
+                    key, index - 1, key, index, want, want, expiresAt, limit, previousWeight, want, want);
+            leases.increment();
+            if (databaseHealthy.compareAndSet(false, true)) {
+                logger.info("Rate limit leases from the database resumed");
+            }
+            return grant;
+        } catch (Exception e) {
+            leaseFailures.increment();
+            databaseRetryAt.set(nowMillis + DATABASE_RETRY_MILLIS);
+            if (databaseHealthy.compareAndSet(true, false)) {
+                logger.warn("Rate limit lease failed, enforcing limits per node until the database recovers", e);
+            }
+            return localGrant(limit);
+        }
+    }
+
+    /**
+     * Slots granted without the database, bounded by the limit in {@link #apply}.
+     */
+    private Grant localGrant(int limit) {
+        return new Grant(0, leaseSize(limit), limit, true);
+    }
+
+    /**
+     * Whether this caller may probe the failing database; one probe per retry interval
+     * across all keys.
+     */
+    private boolean tryProbe(long nowMillis) {
+        long retryAt = databaseRetryAt.get();
+        return nowMillis >= retryAt && databaseRetryAt.compareAndSet(retryAt, nowMillis + DATABASE_RETRY_MILLIS);
+    }
+
+    private void apply(Lease lease, long index, long nowMillis, Grant grant) {
+        if (lease.windowIndex != index) {
+            return; // Window rolled while leasing; those slots are spent
+        }
+        if (grant.local()) {
+            lease.available += Math.min(grant.granted(), Math.max(0, lease.limit - lease.used - lease.available));
+        } else {
+            lease.available += grant.granted();
+            lease.globalUsed = grant.used();
+            lease.budget = grant.budget();
+        }
+        if (lease.available == 0) {
+            // Exhausted: the budget only grows as the previous window decays, so wait until
+            // about one lease's worth has been freed before asking again
+            long windowEnd = (index + 1) * lease.windowMillis;
+            long backoff = Math.max(1000, leaseSize(lease.limit) * lease.windowMillis / lease.limit);
+            lease.exhaustedUntil = Math.min(windowEnd, nowMillis + backoff);
+        }
+    }
+
+    private int leaseSize(int limit) {
+        return Math.max(1, limit / leaseDivisor);
+    }
+
+    private static long secondsUntil(long atMillis, long nowMillis, long windowMillis) {
+        long millis = atMillis > nowMillis ? atMillis - nowMillis : windowMillis - nowMillis % windowMillis;
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * @param used    window's leased slots across all nodes, after this grant
+     * @param granted slots added to this node's lease
+     * @param budget  slots the window allows after weighting in the previous one
+     * @param local   granted without the database
+     */
+    private record Grant(int used, int granted, int budget, boolean local) {}
+
+    /**
+     * This node's share of one key's current window. Guarded by its own monitor.
+     */
+    static final class Lease {
+        private final long windowMillis;
+        private long windowIndex = Long.MIN_VALUE;
+        private int limit;
+        private int available;
+        private int used;
+        private int globalUsed;
+        private int budget;
+        private long exhaustedUntil;
+        private boolean refilling;
+        private volatile long lastSeen;
+
+        Lease(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        void roll(long index, int limit) {
+            this.limit = limit;
+            if (windowIndex != index) {
+                windowIndex = index;
+                available = 0;
+                used = 0;
+                globalUsed = 0;
+                budget = limit;
+                exhaustedUntil = 0;
+            }
+        }
+
+        /**
+         * Requests counted in the window: the previous window's weighted share plus every
+         * slot leased so far, less what this node still holds unspent.
+         */
+        int count() {
+            return Math.max(used, limit - budget + globalUsed - available);
+        }
+    }
+}
@@ -1,43 +1,43 @@
 package com.gathr.ratelimit.storage;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.Map;
 
 /**
  * Strategy interface for rate limit storage.
  * Follows Interface Segregation Principle - only storage operations.
  * Implementations can use in-memory, Redis, database, etc.
+ *
+ * Check and record happen in one atomic call, so concurrent requests for the same key
+ * cannot both take the last slot in a window.
  */
 public interface RateLimitStorage {
 
     /**
-     * Record a request timestamp for the given key.
+     * Record a request if fewer than {@code limit} requests are counted in the window
+     * ending at {@code now}.
      *
      * @param key Unique key combining bucket and identifier
-     * @param timestamp When the request occurred
+     * @param now When the request occurred
+     * @param window Length of the sliding window
+     * @param limit Maximum requests allowed in the window
+     * @return Whether the request was admitted, and the window's count afterwards
      */
-    void recordRequest(String key, Instant timestamp);
+    WindowUsage acquire(String key, Instant now, Duration window, int limit);
 
     /**
-     * Get all request timestamps within the specified window.
-     *
-     * @param key Unique key combining bucket and identifier
-     * @param windowStart Start of the time window
-     * @return List of timestamps within the window
+     * Count requests in the window ending at {@code now} without recording one.
      */
-    List<Instant> getRequestsInWindow(String key, Instant windowStart);
+    WindowUsage peek(String key, Instant now, Duration window, int limit);
 
     /**
-     * Remove expired entries older than the window start.
-     * Called periodically to prevent memory leaks.
-     *
-     * @param key Unique key combining bucket and identifier
-     * @param windowStart Entries before this time will be removed
+     * Clear all data for a key (useful for testing).
      */
-    void cleanup(String key, Instant windowStart);
+    void clear(String key);
 
     /**
-     * Clear all data for a key (useful for testing).
+     * Live key count, evictions and similar figures for health endpoints.
      */
-    void clear(String key);
+    Map<String, Object> stats();
 }
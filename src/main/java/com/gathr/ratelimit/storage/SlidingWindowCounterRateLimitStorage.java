@@ -0,0 +1,211 @@
+package com.gathr.ratelimit.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window-counter implementation of RateLimitStorage.
+ *
+ * Time is cut into fixed windows of the configured length. Each key keeps only the request
+ * counts of the current and previous window, and the sliding window is estimated by
+ * weighting the previous count by how much of it still overlaps:
+ * {@code previous * (1 - elapsed / window) + current}.
+ *
+ * Both counts and the window index are packed into a single {@code long}, so every key
+ * costs one fixed-size entry and checks are a CAS loop with no locking. Counts saturate
+ * at {@value #MAX_COUNT}, so limits above that are not supported.
+ *
+ * Evicted entries are first retired by a CAS to a sentinel state, so a request racing
+ * with eviction retries against a fresh entry instead of counting into a dropped one.
+ *
+ * Counts are per instance; {@link PostgresRateLimitStorage} shares them across instances.
+ */
+@Component
+@ConditionalOnProperty(name = "gathr.ratelimit.storage", havingValue = "counter", matchIfMissing = true)
+public class SlidingWindowCounterRateLimitStorage extends BoundedKeyStorage<SlidingWindowCounterRateLimitStorage.Slot> {
+
+    static final int MAX_COUNT = 0xFFFF;
+
+    // Window index -1 never occurs for real timestamps
+    private static final long RETIRED = -1L;
+
+    public SlidingWindowCounterRateLimitStorage(@Value("${gathr.ratelimit.max-keys:100000}") int maxKeys) {
+        super(maxKeys);
+    }
+
+    @Override
+    public WindowUsage acquire(String key, Instant now, Duration window, int limit) {
+        long windowMillis = window.toMillis();
+        long nowMillis = now.toEpochMilli();
+        int index = (int) (nowMillis / windowMillis);
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+
+        Slot slot = slot(key, windowMillis, index, nowMillis);
+        while (true) {
+            long current = slot.get();
+            if (current == RETIRED) {
+                entries.remove(key, slot);
+                slot = slot(key, windowMillis, index, nowMillis);
+                continue;
+            }
+            long rolled = roll(current, index);
+            int previousCount = previousCount(rolled);
+            int currentCount = currentCount(rolled);
+            double estimate = previousCount * (1 - elapsed) + currentCount;
+
+            if (estimate >= limit) {
+                // Rolling forward on a denial is optional; a later CAS redoes it
+                return new WindowUsage(false, (int) Math.ceil(estimate),
+                        secondsUntilBelow(previousCount, currentCount, limit, nowMillis, windowMillis));
+            }
+
+            long next = pack(index, previousCount, Math.min(MAX_COUNT, currentCount + 1));
+            if (slot.compareAndSet(current, next)) {
+                return new WindowUsage(true, (int) Math.ceil(estimate + 1),
+                        secondsUntilRollover(nowMillis, windowMillis));
+            }
+        }
+    }
+
+    @Override
+    public WindowUsage peek(String key, Instant now, Duration window, int limit) {
+        long windowMillis = window.toMillis();
+        long nowMillis = now.toEpochMilli();
+        int index = (int) (nowMillis / windowMillis);
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+
+        Slot slot = entries.get(key);
+        long state = slot != null ? slot.get() : RETIRED;
+        if (state == RETIRED) {
+            return new WindowUsage(false, 0, window.toSeconds());
+        }
+        long rolled = roll(state, index);
+        int previousCount = previousCount(rolled);
+        int currentCount = currentCount(rolled);
+        double estimate = previousCount * (1 - elapsed) + currentCount;
+
+        long reset = estimate >= limit
+                ? secondsUntilBelow(previousCount, currentCount, limit, nowMillis, windowMillis)
+                : secondsUntilRollover(nowMillis, windowMillis);
+        return new WindowUsage(false, (int) Math.ceil(estimate), reset);
+    }
+
+    @Override
+    protected int frequency(Slot slot, long nowMillis) {
+        long state = slot.get();
+        if (state == RETIRED) {
+            return 0;
+        }
+        long rolled = roll(state, (int) (nowMillis / slot.windowMillis));
+        double elapsed = (double) (nowMillis % slot.windowMillis) / slot.windowMillis;
+        return (int) Math.ceil(previousCount(rolled) * (1 - elapsed) + currentCount(rolled));
+    }
+
+    @Override
+    protected long lastSeen(Slot slot) {
+        long state = slot.get();
+        return state == RETIRED ? 0 : (long) windowIndex(state) * slot.windowMillis;
+    }
+
+    @Override
+    protected boolean evict(String key, Slot slot, long nowMillis, boolean idleOnly) {
+        long state = slot.get();
+        if (state == RETIRED) {
+            return false;
+        }
+        // Idle once the stored window is two or more windows back: both counts have expired
+        if (idleOnly && windowIndex(state) >= nowMillis / slot.windowMillis - 1) {
+            return false;
+        }
+        if (!slot.compareAndSet(state, RETIRED)) {
+            return false;
+        }
+        entries.remove(key, slot);
+        return true;
+    }
+
+    private Slot slot(String key, long windowMillis, int index, long nowMillis) {
+        Slot slot = entries.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        Slot created = new Slot(windowMillis, pack(index, 0, 0));
+        slot = entries.putIfAbsent(key, created);
+        if (slot != null) {
+            return slot;
+        }
+        keyAdded(nowMillis);
+        return created;
+    }
+
+    /**
+     * State as seen from window {@code index}: the stored current count becomes the
+     * previous one after one rollover, and both drop to zero after more.
+     */
+    private static long roll(long state, int index) {
+        int stored = windowIndex(state);
+        if (stored == index) {
+            return state;
+        }
+        if (stored == index - 1) {
+            return pack(index, currentCount(state), 0);
+        }
+        return pack(index, 0, 0);
+    }
+
+    /**
+     * Seconds until the estimate drops below the limit, assuming no further requests.
+     */
+    private static long secondsUntilBelow(int previousCount, int currentCount, int limit,
+                                          long nowMillis, long windowMillis) {
+        long windowStart = nowMillis - nowMillis % windowMillis;
+        long at;
+        if (currentCount < limit) {
+            // previous * (1 - f) + current < limit within this window
+            double fraction = 1 - (double) (limit - currentCount) / previousCount;
+            at = windowStart + (long) (fraction * windowMillis) + 1;
+        } else {
+            // current becomes previous next window: current * (1 - f) < limit
+            double fraction = 1 - (double) limit / currentCount;
+            at = windowStart + windowMillis + (long) (fraction * windowMillis) + 1;
+        }
+        return Math.max(1, (at - nowMillis + 999) / 1000);
+    }
+
+    private static long secondsUntilRollover(long nowMillis, long windowMillis) {
+        return (windowMillis - nowMillis % windowMillis + 999) / 1000;
+    }
+
+    private static long pack(int index, int previousCount, int currentCount) {
+        return ((long) index << 32) | ((long) previousCount << 16) | currentCount;
+    }
+
+    private static int windowIndex(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int previousCount(long state) {
+        return (int) (state >>> 16) & MAX_COUNT;
+    }
+
+    private static int currentCount(long state) {
+        return (int) state & MAX_COUNT;
+    }
+
+    /**
+     * Packed state plus the window length it was counted with, which the sweep needs.
+     */
+    static final class Slot extends AtomicLong {
+        private final long windowMillis;
+
+        Slot(long windowMillis, long state) {
+            super(state);
+            this.windowMillis = windowMillis;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gathr.ratelimit.storage;
+
+/**
+ * Outcome of a {@link RateLimitStorage} call.
+ *
+ * @param admitted       whether the request was recorded
+ * @param count          requests counted in the window, including an admitted request
+ * @param resetInSeconds seconds until a slot frees up when denied, or until the window
+ *                       rolls over when admitted
+ */
+public record WindowUsage(
+        boolean admitted,
+        int count,
+        long resetInSeconds
+) {}
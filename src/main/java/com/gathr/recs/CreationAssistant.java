@@ -2,7 +2,7 @@ package com.gathr.recs;
 
 import com.gathr.dto.ActivitySuggestionDto;
 import com.gathr.entity.Activity.ActivityCategory;
-import com.gathr.entity.User;
+import com.gathr.service.user.UserSnapshot;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -18,7 +18,7 @@ public class CreationAssistant {
      * Suggests activities for a user to host based on time of day and day of week.
      * This is a Heuristic V1 implementation.
      */
-    public List<ActivitySuggestionDto> suggestActivities(User user) {
+    public List<ActivitySuggestionDto> suggestActivities(UserSnapshot user) {
         List<ActivitySuggestionDto> suggestions = new ArrayList<>();
         LocalDateTime now = LocalDateTime.now();
         LocalTime time = now.toLocalTime();
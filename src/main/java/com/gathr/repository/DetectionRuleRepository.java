@@ -2,6 +2,7 @@ package com.gathr.repository;
 
 import com.gathr.entity.DetectionRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +11,10 @@ import java.util.List;
 public interface DetectionRuleRepository extends JpaRepository<DetectionRule, Long> {
 
     List<DetectionRule> findByEnabledTrue();
-}
-
 
+    /**
+     * Cheap change marker: [row count, latest updatedAt, sum of revisions].
+     */
+    @Query("SELECT COUNT(r), MAX(r.updatedAt), SUM(r.revision) FROM DetectionRule r")
+    List<Object[]> findVersion();
+}
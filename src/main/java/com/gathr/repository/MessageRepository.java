@@ -1,21 +1,57 @@
 package com.gathr.repository;
 
+import com.gathr.dto.MessageDto;
 import com.gathr.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     
-    @Query("SELECT m FROM Message m " +
-           "LEFT JOIN FETCH m.user " +
-           "LEFT JOIN FETCH m.activity " +
-           "WHERE m.activity.id = :activityId ORDER BY m.createdAt ASC")
-    List<Message> findByActivityIdOrderByCreatedAtAsc(@Param("activityId") Long activityId);
+    String MESSAGE_ROW = "SELECT new com.gathr.dto.MessageDto(m.id, m.activity.id, u.id, u.name, m.text, m.createdAt) " +
+                         "FROM Message m JOIN m.user u ";
+
+    /**
+     * Newest messages of an activity, newest first.
+     */
+    @Query(MESSAGE_ROW +
+           "WHERE m.activity.id = :activityId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageDto> findLatestRows(@Param("activityId") Long activityId, Pageable pageable);
+
+    /**
+     * Messages strictly before the (createdAt, id) cursor, newest first.
+     */
+    @Query(MESSAGE_ROW +
+           "WHERE m.activity.id = :activityId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageDto> findRowsBefore(@Param("activityId") Long activityId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Messages strictly after the (createdAt, id) cursor, oldest first.
+     */
+    @Query(MESSAGE_ROW +
+           "WHERE m.activity.id = :activityId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageDto> findRowsAfter(@Param("activityId") Long activityId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :id AND m.activity.id = :activityId")
+    Optional<LocalDateTime> findCreatedAt(@Param("activityId") Long activityId, @Param("id") Long id);
 
     @Query("SELECT m FROM Message m " +
            "JOIN m.activity a " +
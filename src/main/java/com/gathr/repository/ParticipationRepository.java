@@ -28,6 +28,18 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
             @Param("activityId") Long activityId,
             @Param("status") Participation.ParticipationStatus status);
 
+    @Query("SELECT p.user.id FROM Participation p " +
+           "WHERE p.activity.id = :activityId AND p.status = :status AND p.user.id <> :excludedUserId")
+    List<Long> findUserIdsByActivityIdAndStatusExcluding(
+            @Param("activityId") Long activityId,
+            @Param("status") Participation.ParticipationStatus status,
+            @Param("excludedUserId") Long excludedUserId);
+
+    @Query("SELECT DISTINCT p.user.id FROM Participation p WHERE p.activity.id = :activityId AND p.status IN :statuses")
+    List<Long> findUserIdsByActivityIdAndStatusIn(
+            @Param("activityId") Long activityId,
+            @Param("statuses") List<Participation.ParticipationStatus> statuses);
+
     @Query("SELECT p FROM Participation p JOIN FETCH p.activity WHERE p.user.id = :userId")
     List<Participation> findByUserId(@Param("userId") Long userId);
 
@@ -4,10 +4,12 @@ import com.gathr.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhone(String phone);
-}
 
+    List<User> findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(Long id);
+}
@@ -0,0 +1,25 @@
+package com.gathr.repository;
+
+import com.gathr.entity.UserTrustStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserTrustStatsRepository extends JpaRepository<UserTrustStats, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO user_trust_stats (user_id, updated_at) VALUES (:userId, NOW()) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserTrustStats s WHERE s.userId = :userId")
+    Optional<UserTrustStats> findByUserIdForUpdate(@Param("userId") Long userId);
+}
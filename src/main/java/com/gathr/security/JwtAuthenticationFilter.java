@@ -13,6 +13,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -29,33 +30,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String phone = null;
-        String jwtToken = null;
+        Optional<VerifiedToken> verified = Optional.empty();
         
-        // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
+        // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token.
+        // Signature and expiry are checked once here; later stages read the request attribute.
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                phone = jwtUtil.getPhoneFromToken(jwtToken);
-            } catch (Exception e) {
-                // Token invalid - continue without authentication
-            }
+            verified = jwtUtil.verify(requestTokenHeader.substring(7));
+            verified.ifPresent(token -> request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, token));
         }
         
-        // Once we get the token validate it.
-        if (phone != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwtToken, phone)) {
-                Long userId = jwtUtil.getUserIdFromToken(jwtToken);
-                
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                    new UsernamePasswordAuthenticationToken(
-                        userId, null, Collections.singletonList(new SimpleGrantedAuthority("USER"))
-                    );
-                usernamePasswordAuthenticationToken
-                    .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-            }
+        // Invalid tokens continue without authentication
+        if (verified.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Long userId = verified.get().userId();
+            
+            UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                new UsernamePasswordAuthenticationToken(
+                    userId, null, Collections.singletonList(new SimpleGrantedAuthority("USER"))
+                );
+            usernamePasswordAuthenticationToken
+                .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
         }
         chain.doFilter(request, response);
     }
@@ -1,29 +1,88 @@
 package com.gathr.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once, on first use. {@link #verify} remembers
+ * tokens it has verified, keyed by SHA-256 digest so raw bearer tokens are not kept in
+ * memory, for at most {@code jwt.verified-cache.ttl-seconds} and never past the token's
+ * own expiry. A client sending the same token on every request is verified once per TTL.
+ * Expired entries are swept every minute; when the cache is full, a new token displaces
+ * the soonest-expiring of a few sampled entries.
+ */
 @Component
 public class JwtUtil {
     
+    private static final HexFormat HEX = HexFormat.of();
+    
+    // Entries looked at to pick one to displace when the cache is full
+    private static final int EVICTION_SAMPLE = 8;
+    
+    // MessageDigest is not thread-safe but is cheap to reuse per thread
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    });
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+    
+    @Value("${jwt.verified-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
+    
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+    
+    private final Map<String, CachedToken> verified = new ConcurrentHashMap<>();
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+    
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            p = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = p;
+        }
+        return p;
     }
     
     public String generateToken(Long userId, String phone) {
@@ -43,6 +102,73 @@ public class JwtUtil {
                 .compact();
     }
     
+    /**
+     * Check a token's signature and expiry, reusing an earlier verification of the same
+     * token when there is one.
+     *
+     * @return the token's claims, or empty if it is malformed, forged or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        String digest = HEX.formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        
+        CachedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.isValidAt(now)) {
+                return Optional.of(cached.token);
+            }
+            verified.remove(digest, cached);
+        }
+        
+        Claims claims;
+        try {
+            claims = getAllClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+        VerifiedToken result = new VerifiedToken(
+                claims.get("userId", Long.class), claims.getSubject(), claims.getExpiration().toInstant());
+        remember(digest, new CachedToken(result, now.plusSeconds(cacheTtlSeconds)), now);
+        return Optional.of(result);
+    }
+    
+    private void remember(String digest, CachedToken entry, Instant now) {
+        if (verified.size() >= cacheMaxEntries) {
+            evictSampled();
+        }
+        verified.put(digest, entry);
+    }
+    
+    /**
+     * Drop the soonest-expiring of a few entries. Iteration order of the map is unrelated
+     * to insertion, so the sample is spread across the cache.
+     */
+    private void evictSampled() {
+        Map.Entry<String, CachedToken> victim = null;
+        Iterator<Map.Entry<String, CachedToken>> entries = verified.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<String, CachedToken> candidate = entries.next();
+            if (victim == null || candidate.getValue().validUntil().isBefore(victim.getValue().validUntil())) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            verified.remove(victim.getKey(), victim.getValue());
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void evictExpired() {
+        Instant now = Instant.now();
+        verified.values().removeIf(cached -> !cached.isValidAt(now));
+    }
+    
     public Long getUserIdFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
         return claims.get("userId", Long.class);
@@ -62,9 +188,7 @@ public class JwtUtil {
     }
     
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -75,8 +199,18 @@ public class JwtUtil {
     }
     
     public Boolean validateToken(String token, String phone) {
-        final String tokenPhone = getPhoneFromToken(token);
-        return (tokenPhone.equals(phone) && !isTokenExpired(token));
+        final Claims claims = getAllClaimsFromToken(token);
+        return (claims.getSubject().equals(phone) && !claims.getExpiration().before(new Date()));
+    }
+    
+    private record CachedToken(VerifiedToken token, Instant cachedUntil) {
+        boolean isValidAt(Instant now) {
+            return now.isBefore(validUntil());
+        }
+        
+        Instant validUntil() {
+            return cachedUntil.isBefore(token.expiresAt()) ? cachedUntil : token.expiresAt();
+        }
     }
 }
 
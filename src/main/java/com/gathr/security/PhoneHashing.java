@@ -0,0 +1,59 @@
+package com.gathr.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Normalize and hash phone numbers using the same logic as the mobile client.
+ * Mirrors frontend's normalizePhoneNumber + hashPhoneNumber in contactHashing.ts,
+ * so a user's stored phone hash matches the hashes other users upload from contacts.
+ */
+public final class PhoneHashing {
+
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final HexFormat HEX = HexFormat.of();
+
+    // MessageDigest is not thread-safe but is cheap to reuse per thread
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    });
+
+    private PhoneHashing() {
+    }
+
+    /**
+     * @return hex SHA-256 of the normalized phone, or null for a blank phone
+     */
+    public static String hash(String phone) {
+        if (phone == null || phone.isBlank()) {
+            return null;
+        }
+        String normalized = normalize(phone).toLowerCase().trim();
+        return HEX.formatHex(SHA_256.get().digest(normalized.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static String normalize(String phone) {
+        // Remove all non-digit characters
+        String cleaned = NON_DIGITS.matcher(phone).replaceAll("");
+
+        // If starts with 0, replace with country code (India: +91)
+        if (cleaned.startsWith("0")) {
+            cleaned = "91" + cleaned.substring(1);
+        }
+
+        // If doesn't start with country code and is 10 digits, assume India (+91)
+        if (cleaned.length() == 10) {
+            cleaned = "91" + cleaned;
+        }
+
+        // Ensure it starts with +
+        return "+" + cleaned;
+    }
+}
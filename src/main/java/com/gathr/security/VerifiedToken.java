@@ -0,0 +1,16 @@
+package com.gathr.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. The authentication filter
+ * stores it on the request under {@link #REQUEST_ATTRIBUTE} so later stages don't parse
+ * the token again.
+ */
+public record VerifiedToken(
+        Long userId,
+        String phone,
+        Instant expiresAt
+) {
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+}
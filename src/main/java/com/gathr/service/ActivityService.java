@@ -11,6 +11,10 @@ import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.HubRepository;
 import com.gathr.repository.ParticipationRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.fraud.AbuseCounters;
+import com.gathr.service.fraud.AbuseSignal;
+import com.gathr.service.fraud.RiskTier;
+import com.gathr.service.fraud.RiskTierCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -41,6 +45,8 @@ public class ActivityService {
     private final EventLogService eventLogService;
     private final ActivityMetricsService activityMetricsService;
     private final SocialGraphService socialGraphService;
+    private final AbuseCounters abuseCounters;
+    private final RiskTierCache riskTierCache;
 
     public ActivityService(ActivityRepository activityRepository,
             HubRepository hubRepository,
@@ -49,7 +55,9 @@ public class ActivityService {
             InviteTokenService inviteTokenService,
             EventLogService eventLogService,
             ActivityMetricsService activityMetricsService,
-            SocialGraphService socialGraphService) {
+            SocialGraphService socialGraphService,
+            AbuseCounters abuseCounters,
+            RiskTierCache riskTierCache) {
         this.activityRepository = activityRepository;
         this.hubRepository = hubRepository;
         this.userRepository = userRepository;
@@ -58,6 +66,8 @@ public class ActivityService {
         this.eventLogService = eventLogService;
         this.activityMetricsService = activityMetricsService;
         this.socialGraphService = socialGraphService;
+        this.abuseCounters = abuseCounters;
+        this.riskTierCache = riskTierCache;
     }
 
     @Transactional(readOnly = true)
@@ -97,6 +107,10 @@ public class ActivityService {
 
     @Transactional
     public ActivityDto createActivity(CreateActivityRequest request, Long userId) {
+        if (riskTierCache.isAtLeast(userId, RiskTier.SOFT_BAN)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is restricted from creating activities");
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
 
@@ -140,6 +154,7 @@ public class ActivityService {
         }
 
         activity = activityRepository.save(activity);
+        abuseCounters.record(AbuseSignal.ACTIVITY_CREATED, userId);
 
         // Log event
         Map<String, Object> eventProps = new HashMap<>();
@@ -162,6 +177,10 @@ public class ActivityService {
     @Transactional
     public void joinActivity(Long activityId, Long userId, Participation.ParticipationStatus status,
             String inviteToken) {
+        if (riskTierCache.isAtLeast(userId, RiskTier.RESTRICTED)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is restricted from joining activities");
+        }
+
         Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Activity", activityId));
 
@@ -200,7 +219,7 @@ public class ActivityService {
                             existing.setStatus(status);
                             participationRepository.save(existing);
                             if (status == Participation.ParticipationStatus.CONFIRMED) {
-                                socialGraphService.refreshConnectionsForActivity(activityId);
+                                socialGraphService.recordConfirmation(activityId, userId);
                             }
                         },
                         () -> {
@@ -210,7 +229,7 @@ public class ActivityService {
                             participation.setStatus(status);
                             participationRepository.save(participation);
                             if (status == Participation.ParticipationStatus.CONFIRMED) {
-                                socialGraphService.refreshConnectionsForActivity(activityId);
+                                socialGraphService.recordConfirmation(activityId, userId);
                             }
                         });
 
@@ -252,7 +271,7 @@ public class ActivityService {
         eventProps.put("status", "CONFIRMED");
         eventLogService.log(userId, activityId, "activity_confirmed", eventProps);
 
-        socialGraphService.refreshConnectionsForActivity(activityId);
+        socialGraphService.recordConfirmation(activityId, userId);
     }
 
     /**
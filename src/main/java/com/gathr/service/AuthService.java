@@ -8,6 +8,7 @@ import com.gathr.entity.User;
 import com.gathr.exception.InvalidRequestException;
 import com.gathr.repository.UserRepository;
 import com.gathr.security.JwtUtil;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,11 +28,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final OtpService otpService;
+    private final ContactMatchService contactMatchService;
+    private final UserSnapshotCache userSnapshots;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, OtpService otpService) {
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, OtpService otpService,
+            ContactMatchService contactMatchService, UserSnapshotCache userSnapshots) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.otpService = otpService;
+        this.contactMatchService = contactMatchService;
+        this.userSnapshots = userSnapshots;
     }
 
     public void startOtp(AuthRequest request) {
@@ -65,6 +71,7 @@ public class AuthService {
             if (!user.getVerified()) {
                 user.setVerified(true);
                 userRepository.save(user);
+                userSnapshots.invalidate(user.getId());
             }
         } else {
             // Create new user with phone number as name (can be updated later)
@@ -73,6 +80,9 @@ public class AuthService {
             user.setName(request.getPhone()); // Default name
             user.setVerified(true);
             user = userRepository.save(user);
+
+            // Link to everyone who already has this number in their contacts
+            contactMatchService.linkRegisteredUser(user.getId(), user.getPhoneHash());
         }
 
         // Generate JWT token
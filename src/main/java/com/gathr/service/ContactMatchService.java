@@ -0,0 +1,113 @@
+package com.gathr.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the contact_matches edge table (user A has registered user B in contacts).
+ *
+ * Edges are added from both ends: when A uploads hashes that match existing users, and
+ * when B registers with a phone whose hash was uploaded earlier. Readers then count or
+ * look up edges by primary key instead of shipping hash sets to the database.
+ */
+@Service
+public class ContactMatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactMatchService.class);
+
+    private static final String LINK_UPLOADED_SQL =
+            "INSERT INTO contact_matches (user_id, contact_user_id) " +
+            "SELECT ?, u.id FROM users u " +
+            "WHERE u.phone_hash = ANY (?) AND u.id <> ? " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String LINK_REGISTERED_SQL =
+            "INSERT INTO contact_matches (user_id, contact_user_id) " +
+            "SELECT DISTINCT c.user_id, ? FROM contact_hashes c " +
+            "WHERE c.phone_hash = ? AND c.user_id <> ? " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String LINK_ALL_SQL =
+            "INSERT INTO contact_matches (user_id, contact_user_id) " +
+            "SELECT DISTINCT c.user_id, u.id FROM contact_hashes c " +
+            "JOIN users u ON u.phone_hash = c.phone_hash " +
+            "WHERE u.id <> c.user_id " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContactMatchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add edges from a user to every registered user among a batch of just-uploaded hashes.
+     */
+    @Transactional
+    public int linkUploadedHashes(Long userId, List<String> hashes) {
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(LINK_UPLOADED_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("varchar", hashes.toArray()));
+            ps.setLong(3, userId);
+            return ps;
+        });
+    }
+
+    /**
+     * Add edges to a newly registered user from everyone who already uploaded their number.
+     */
+    @Transactional
+    public int linkRegisteredUser(Long userId, String phoneHash) {
+        if (phoneHash == null) {
+            return 0;
+        }
+        return jdbcTemplate.update(LINK_REGISTERED_SQL, userId, phoneHash, userId);
+    }
+
+    /**
+     * Re-derive all missing edges, e.g. after phone hashes were backfilled.
+     */
+    @Transactional
+    public int linkAll() {
+        int added = jdbcTemplate.update(LINK_ALL_SQL);
+        logger.info("Linked {} contact matches", added);
+        return added;
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> findContactUserIds(Long userId) {
+        Set<Long> ids = new HashSet<>();
+        jdbcTemplate.query("SELECT contact_user_id FROM contact_matches WHERE user_id = ?",
+                rs -> {
+                    ids.add(rs.getLong(1));
+                }, userId);
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public long countContactUsers(Long userId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM contact_matches WHERE user_id = ?", Long.class, userId);
+        return count != null ? count : 0L;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isContact(Long userId, Long contactUserId) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM contact_matches WHERE user_id = ? AND contact_user_id = ?)",
+                Boolean.class, userId, contactUserId);
+        return Boolean.TRUE.equals(exists);
+    }
+}
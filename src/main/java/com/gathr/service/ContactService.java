@@ -1,73 +1,271 @@
 package com.gathr.service;
 
-import com.gathr.repository.ContactHashRepository;
-import com.gathr.entity.ContactHash;
 import com.gathr.entity.User;
+import com.gathr.exception.InvalidRequestException;
+import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.user.UserSnapshotCache;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
+/**
+ * Contact hash uploads.
+ *
+ * Hashes are written in JDBC batches of {@link #BATCH_SIZE}, each batch in its own short
+ * transaction, and duplicates are dropped by the (user_id, phone_hash) unique constraint
+ * rather than by loading the user's existing hashes. Large address books can be sent as
+ * several chunks sharing an uploadId; progress across chunks is kept in memory, for at
+ * most {@link #MAX_UPLOADS_PER_USER} uploads per user. A chunk sent twice is stored again
+ * (harmlessly) but counted once.
+ */
 @Service
 public class ContactService {
 
-    private final ContactHashRepository contactHashRepository;
+    static final int BATCH_SIZE = 500;
+
+    static final long UPLOAD_PROGRESS_TTL_MILLIS = 60 * 60_000L;
+
+    static final int MAX_UPLOADS_PER_USER = 5;
+
+    private static final String INSERT_HASH_SQL =
+            "INSERT INTO contact_hashes (user_id, phone_hash, hash_algo, created_at) VALUES (?, ?, 'sha256', ?) " +
+            "ON CONFLICT (user_id, phone_hash) DO NOTHING";
+
     private final UserRepository userRepository;
     private final EventLogService eventLogService;
+    private final ContactMatchService contactMatchService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserSnapshotCache userSnapshots;
+    private final LongSupplier clock;
+
+    // userId -> uploadId -> progress of a chunked upload
+    private final Map<Long, Map<String, UploadProgress>> uploads = new ConcurrentHashMap<>();
 
-    public ContactService(ContactHashRepository contactHashRepository, UserRepository userRepository,
-            EventLogService eventLogService) {
-        this.contactHashRepository = contactHashRepository;
+    @Autowired
+    public ContactService(UserRepository userRepository, EventLogService eventLogService,
+            ContactMatchService contactMatchService, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, UserSnapshotCache userSnapshots) {
+        this(userRepository, eventLogService, contactMatchService, jdbcTemplate, transactionManager,
+                userSnapshots, System::currentTimeMillis);
+    }
+
+    ContactService(UserRepository userRepository, EventLogService eventLogService,
+            ContactMatchService contactMatchService, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, UserSnapshotCache userSnapshots,
+            LongSupplier clock) {
         this.userRepository = userRepository;
         this.eventLogService = eventLogService;
+        this.contactMatchService = contactMatchService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userSnapshots = userSnapshots;
+        this.clock = clock;
     }
 
-    @Transactional
     public Map<String, Object> uploadContacts(Long userId, List<String> hashes) {
+        return uploadContacts(userId, hashes, null, null, null);
+    }
+
+    /**
+     * Store one request's worth of contact hashes.
+     *
+     * @param uploadId    client-chosen id shared by all chunks of one upload, or null for a single request
+     * @param chunkIndex  zero-based index of this chunk
+     * @param totalChunks number of chunks the client will send
+     * @throws InvalidRequestException if the chunk is out of range or the user has too many
+     *         uploads in progress
+     */
+    public Map<String, Object> uploadContacts(Long userId, List<String> hashes,
+            String uploadId, Integer chunkIndex, Integer totalChunks) {
+        if (chunkIndex != null && totalChunks != null && chunkIndex >= totalChunks) {
+            throw new InvalidRequestException("chunkIndex must be less than totalChunks");
+        }
+        UploadProgress progress = uploadId != null ? trackUpload(userId, uploadId) : null;
+        if (progress != null) {
+            progress.validate(chunkIndex, totalChunks);
+        }
+
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
 
         // 1. Mark user as opted-in
         if (!Boolean.TRUE.equals(user.getContactsOptIn())) {
             user.setContactsOptIn(true);
             userRepository.save(user);
+            userSnapshots.invalidate(userId);
         }
 
-        // 2. Filter existing hashes to avoid duplicates (or rely on ON CONFLICT IGNORE
-        // if using native query,
-        // but JPA batch save is easier for MVP if volume isn't huge)
-        // For MVP, we'll just delete existing and re-insert or ignore duplicates.
-        // Let's try a simple approach: fetch existing, filter, save new.
+        // 2. Insert in batches; the database drops hashes the user already uploaded
+        Set<String> unique = new LinkedHashSet<>(hashes.size());
+        for (String hash : hashes) {
+            if (hash != null && !hash.isBlank()) {
+                unique.add(hash.trim());
+            }
+        }
 
-        Set<String> existingHashes = contactHashRepository.findByUserId(userId).stream()
-                .map(ContactHash::getPhoneHash)
-                .collect(Collectors.toSet());
+        int inserted = 0;
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (String hash : unique) {
+            batch.add(hash);
+            if (batch.size() == BATCH_SIZE) {
+                inserted += insertBatch(userId, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            inserted += insertBatch(userId, batch);
+        }
 
-        List<ContactHash> newHashes = hashes.stream()
-                .filter(hash -> !existingHashes.contains(hash))
-                .map(hash -> {
-                    ContactHash ch = new ContactHash();
-                    ch.setUserId(userId);
-                    ch.setPhoneHash(hash);
-                    ch.setHashAlgo("sha256");
-                    return ch;
-                })
-                .collect(Collectors.toList());
+        // 3. Log event
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("count", hashes.size());
+        payload.put("new", inserted);
+        if (uploadId != null) {
+            payload.put("uploadId", uploadId);
+            payload.put("chunk", chunkIndex);
+        }
+        eventLogService.log(userId, "upload_contacts", payload);
 
-        if (!newHashes.isEmpty()) {
-            contactHashRepository.saveAll(newHashes);
+        Map<String, Object> response = new HashMap<>();
+        response.put("processed", hashes.size());
+        response.put("new", inserted);
+        response.put("mutualsCount", contactMatchService.countContactUsers(userId));
+        if (progress != null) {
+            progress.record(chunkIndex, totalChunks, hashes.size(), inserted, clock.getAsLong());
+            response.putAll(progress.toMap(uploadId));
         }
+        return response;
+    }
 
-        // 3. Log event
-        eventLogService.log(userId, "upload_contacts", Map.of("count", hashes.size(), "new", newHashes.size()));
+    /**
+     * Progress of a chunked upload started by this user.
+     */
+    public Map<String, Object> getUploadProgress(Long userId, String uploadId) {
+        Map<String, UploadProgress> userUploads = uploads.get(userId);
+        UploadProgress progress = userUploads != null ? userUploads.get(uploadId) : null;
+        if (progress == null) {
+            throw new ResourceNotFoundException("Contact upload", "uploadId", uploadId);
+        }
+        return progress.toMap(uploadId);
+    }
+
+    @Scheduled(fixedRate = 900000) // Every 15 minutes
+    public void evictStaleUploads() {
+        long cutoff = clock.getAsLong() - UPLOAD_PROGRESS_TTL_MILLIS;
+        for (Long userId : uploads.keySet()) {
+            uploads.computeIfPresent(userId, (id, userUploads) -> {
+                userUploads.values().removeIf(progress -> progress.updatedAt() < cutoff);
+                return userUploads.isEmpty() ? null : userUploads;
+            });
+        }
+    }
+
+    private UploadProgress trackUpload(Long userId, String uploadId) {
+        // A user's uploads are only changed inside compute, which serializes them
+        return uploads.compute(userId, (id, userUploads) -> {
+            if (userUploads == null) {
+                userUploads = new ConcurrentHashMap<>();
+            }
+            if (!userUploads.containsKey(uploadId) && userUploads.size() >= MAX_UPLOADS_PER_USER) {
+                // Finished uploads only remain for progress queries; make room from those
+                userUploads.values().removeIf(UploadProgress::isComplete);
+                if (userUploads.size() >= MAX_UPLOADS_PER_USER) {
+                    throw new InvalidRequestException("Too many contact uploads in progress");
+                }
+            }
+            userUploads.computeIfAbsent(uploadId, k -> new UploadProgress(clock.getAsLong()));
+            return userUploads;
+        }).get(uploadId);
+    }
+
+    private int insertBatch(Long userId, List<String> batch) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_HASH_SQL, batch, batch.size(), (ps, hash) -> {
+                ps.setLong(1, userId);
+                ps.setString(2, hash);
+                ps.setTimestamp(3, now);
+            });
+            int rows = 0;
+            for (int[] group : counts) {
+                for (int count : group) {
+                    rows += Math.max(count, 0); // SUCCESS_NO_INFO is negative
+                }
+            }
+            contactMatchService.linkUploadedHashes(userId, batch);
+            return rows;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private static final class UploadProgress {
+        private final Set<Integer> chunksReceived = new LinkedHashSet<>();
+        private Integer totalChunks;
+        private long processed;
+        private long inserted;
+        private long updatedAt;
+
+        UploadProgress(long now) {
+            this.updatedAt = now;
+        }
+
+        synchronized void validate(Integer chunkIndex, Integer totalChunks) {
+            if (totalChunks != null && this.totalChunks != null && !totalChunks.equals(this.totalChunks)) {
+                throw new InvalidRequestException("totalChunks does not match earlier chunks of this upload");
+            }
+            Integer total = totalChunks != null ? totalChunks : this.totalChunks;
+            if (chunkIndex != null && total != null && chunkIndex >= total) {
+                throw new InvalidRequestException("chunkIndex must be less than totalChunks");
+            }
+        }
+
+        synchronized void record(Integer chunkIndex, Integer totalChunks, int processed, int inserted, long now) {
+            if (totalChunks != null) {
+                this.totalChunks = totalChunks;
+            }
+            this.updatedAt = now;
+            // A retried chunk was already counted
+            if (chunkIndex != null && !chunksReceived.add(chunkIndex)) {
+                return;
+            }
+            this.processed += processed;
+            this.inserted += inserted;
+        }
 
-        return Map.of(
-                "processed", hashes.size(),
-                "new", newHashes.size());
+        synchronized boolean isComplete() {
+            return totalChunks != null && chunksReceived.size() >= totalChunks;
+        }
+
+        synchronized long updatedAt() {
+            return updatedAt;
+        }
+
+        synchronized Map<String, Object> toMap(String uploadId) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("uploadId", uploadId);
+            map.put("chunksReceived", chunksReceived.size());
+            map.put("totalChunks", totalChunks);
+            map.put("totalProcessed", processed);
+            map.put("totalNew", inserted);
+            map.put("complete", isComplete());
+            return map;
+        }
     }
 }
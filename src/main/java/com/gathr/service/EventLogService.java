@@ -36,7 +36,7 @@ public class EventLogService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void log(Long userId, Long activityId, String eventType, Map<String, Object> payload) {
         try {
-            String payloadJson = objectMapper.writeValueAsString(payload);
+            String payloadJson = toPayloadJson(payload);
 
             String sql = "INSERT INTO event_logs (user_id, event_type, event_time, payload, created_at) VALUES (?, ?, ?, ?::jsonb, ?)";
 
@@ -56,6 +56,14 @@ public class EventLogService {
         }
     }
 
+    /**
+     * Serialize a payload the way {@link #log} stores it, for callers that batch their own
+     * event_logs inserts inside a transaction.
+     */
+    public String toPayloadJson(Map<String, Object> payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload);
+    }
+
     // Overload for convenience
     public void log(Long userId, String eventType, Map<String, Object> payload) {
         log(userId, null, eventType, payload);
@@ -4,15 +4,14 @@ import com.gathr.dto.ActivityDto;
 import com.gathr.dto.ScoredActivityDto;
 import com.gathr.entity.Activity;
 import com.gathr.entity.Activity.ActivityCategory;
-import com.gathr.entity.User;
-import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.ParticipationRepository;
-import com.gathr.repository.UserRepository;
 import com.gathr.service.feed.ColdStartType;
 import com.gathr.service.feed.FeedScoringContext;
 import com.gathr.service.feed.FeedScoringEngine;
 import com.gathr.service.feed.LocationContext;
+import com.gathr.service.user.UserSnapshot;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
@@ -41,7 +40,7 @@ public class FeedService {
     private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
 
     private final ActivityRepository activityRepository;
-    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshots;
     private final ActivityService activityService;
     private final ParticipationRepository participationRepository;
     private final FeedScoringEngine feedScoringEngine;
@@ -50,14 +49,14 @@ public class FeedService {
 
     public FeedService(
             ActivityRepository activityRepository,
-            UserRepository userRepository,
+            UserSnapshotCache userSnapshots,
             ActivityService activityService,
             ParticipationRepository participationRepository,
             FeedScoringEngine feedScoringEngine,
             com.gathr.config.TrustScoreProperties properties,
             EventLogService eventLogService) {
         this.activityRepository = activityRepository;
-        this.userRepository = userRepository;
+        this.userSnapshots = userSnapshots;
         this.activityService = activityService;
         this.participationRepository = participationRepository;
         this.feedScoringEngine = feedScoringEngine;
@@ -70,8 +69,7 @@ public class FeedService {
             +
             "(#date == null ? T(java.time.LocalDate).now() : #date).toString(), #limit)", condition = "#limit <= 50")
     public FeedComputationResult getFeedForUser(Long userId, Long hubId, LocalDate date, int limit) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        UserSnapshot user = userSnapshots.require(userId);
 
         Long resolvedHubId = resolveHubId(user, hubId);
         if (resolvedHubId == null) {
@@ -127,7 +125,7 @@ public class FeedService {
     }
 
     private List<ScoredActivityDto> computePersonalizedFeed(
-            User user,
+            UserSnapshot user,
             Long userId,
             Long hubId,
             LocalDate targetDate,
@@ -290,12 +288,8 @@ public class FeedService {
         }
     }
 
-    private List<String> getInterestList(User user) {
-        String[] interests = user.getInterests();
-        if (interests == null || interests.length == 0) {
-            return List.of();
-        }
-        return List.of(interests);
+    private List<String> getInterestList(UserSnapshot user) {
+        return user.interests();
     }
 
     private int computeSpotsRemaining(ActivityDto dto) {
@@ -308,27 +302,27 @@ public class FeedService {
         return Math.max(spotsLeft, 0);
     }
 
-    private Long resolveHubId(User user, Long hubId) {
+    private Long resolveHubId(UserSnapshot user, Long hubId) {
         if (hubId != null) {
             return hubId;
         }
-        if (user.getHomeHub() != null) {
-            return user.getHomeHub().getId();
+        if (user.homeHubId() != null) {
+            return user.homeHubId();
         }
         // Temporary fallback to Cyberhub
         return 1L;
     }
 
-    private LocationContext resolveLocationContext(User user) {
+    private LocationContext resolveLocationContext(UserSnapshot user) {
         Double lat = null;
         Double lon = null;
 
-        if (user.getLatitude() != null && user.getLongitude() != null) {
-            lat = user.getLatitude().doubleValue();
-            lon = user.getLongitude().doubleValue();
-        } else if (user.getHomeLatitude() != null && user.getHomeLongitude() != null) {
-            lat = user.getHomeLatitude().doubleValue();
-            lon = user.getHomeLongitude().doubleValue();
+        if (user.latitude() != null && user.longitude() != null) {
+            lat = user.latitude().doubleValue();
+            lon = user.longitude().doubleValue();
+        } else if (user.homeLatitude() != null && user.homeLongitude() != null) {
+            lat = user.homeLatitude().doubleValue();
+            lon = user.homeLongitude().doubleValue();
         }
 
         return new LocationContext(lat, lon);
@@ -348,9 +342,9 @@ public class FeedService {
         return counts;
     }
 
-    private int resolvePreferredStartHour(User user, Long userId) {
-        if (user.getPreferredStartHour() != null) {
-            return clampHour(user.getPreferredStartHour());
+    private int resolvePreferredStartHour(UserSnapshot user, Long userId) {
+        if (user.preferredStartHour() != null) {
+            return clampHour(user.preferredStartHour());
         }
         Double avgHour = participationRepository.findAverageStartHourForUser(userId);
         if (avgHour != null) {
@@ -468,10 +462,10 @@ public class FeedService {
         return !hasAvailability(scoredActivityDto.getActivity());
     }
 
-    private ColdStartType detectColdStartType(User user, Long hubId) {
-        Long userId = user.getId();
+    private ColdStartType detectColdStartType(UserSnapshot user, Long hubId) {
+        Long userId = user.id();
         long totalParticipations = participationRepository.countByUserId(userId);
-        boolean hasInterests = user.getInterests() != null && user.getInterests().length > 0;
+        boolean hasInterests = user.hasInterests();
 
         if (totalParticipations == 0) {
             return hasInterests ? ColdStartType.NEW_USER_WITH_INTERESTS : ColdStartType.NEW_USER_NO_INTERESTS;
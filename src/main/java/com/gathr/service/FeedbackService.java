@@ -10,6 +10,9 @@ import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.FeedbackRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.fraud.AbuseSignal;
+import com.gathr.service.fraud.AbuseSignalEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,15 +30,21 @@ public class FeedbackService {
     private final ActivityRepository activityRepository;
     private final UserRepository userRepository;
     private final EventLogService eventLogService;
+    private final TrustScoreService trustScoreService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public FeedbackService(FeedbackRepository feedbackRepository,
                           ActivityRepository activityRepository,
                           UserRepository userRepository,
-                          EventLogService eventLogService) {
+                          EventLogService eventLogService,
+                          TrustScoreService trustScoreService,
+                          ApplicationEventPublisher eventPublisher) {
         this.feedbackRepository = feedbackRepository;
         this.activityRepository = activityRepository;
         this.userRepository = userRepository;
         this.eventLogService = eventLogService;
+        this.trustScoreService = trustScoreService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -65,6 +74,11 @@ public class FeedbackService {
         feedback.setComments(request.getComments());
 
         feedback = feedbackRepository.save(feedback);
+        trustScoreService.recordFeedback(userId, Boolean.TRUE.equals(feedback.getDidMeet()),
+                feedback.getExperienceRating());
+        if (Boolean.FALSE.equals(feedback.getDidMeet())) {
+            eventPublisher.publishEvent(new AbuseSignalEvent(userId, AbuseSignal.NO_SHOW));
+        }
 
         // Log event
         Map<String, Object> eventProps = new HashMap<>();
@@ -10,12 +10,26 @@ import com.gathr.repository.ParticipationRepository;
 import com.gathr.repository.ReportRepository;
 import com.gathr.repository.UserRepository;
 import com.gathr.repository.UserRiskScoreRepository;
+import com.gathr.service.fraud.AbuseCounters;
+import com.gathr.service.fraud.AbuseSignal;
+import com.gathr.service.fraud.DetectionRuleEngine;
+import com.gathr.service.fraud.FraudBatchEvaluator;
+import com.gathr.service.fraud.RiskFeature;
+import com.gathr.service.fraud.RiskFeatures;
+import com.gathr.service.fraud.RiskScoring;
+import com.gathr.service.fraud.RiskTier;
+import com.gathr.service.fraud.RiskTierCache;
+import com.gathr.service.fraud.RuleCategory;
+import com.gathr.service.fraud.RuleEvaluation;
+import com.gathr.service.user.UserSnapshot;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -30,7 +44,12 @@ import java.util.Optional;
  * 2. SPAM_ACTIVITY - Creating too many activities in short time
  * 3. SERIAL_NO_SHOW - Users who repeatedly don't show up
  * 4. HARASSMENT - Multiple reports from different users
- * 5. COORDINATED_ABUSE - Ring detection (future)
+ * 5. COORDINATED_ABUSE - Ring detection (nightly, see RingDetectionJob)
+ *
+ * Built-in scores come from {@link RiskScoring}; enabled detection_rules add their risk
+ * deltas on top through the compiled {@link DetectionRuleEngine}. Real-time threshold checks
+ * consult the in-memory {@link AbuseCounters} first and query only when a threshold may
+ * have been reached.
  *
  * Actions:
  * - WARN: Add to risk score
@@ -48,8 +67,6 @@ public class FraudDetectionService {
     private static final int DISTINCT_REPORTERS_FOR_AUTO_BAN = 5;
     private static final int NO_SHOW_THRESHOLD = 3;
     private static final int SPAM_ACTIVITY_THRESHOLD = 5; // activities per day
-    private static final int RISK_SCORE_SOFT_BAN = 50;
-    private static final int RISK_SCORE_AUTO_BAN = 80;
 
     private final UserRepository userRepository;
     private final ReportRepository reportRepository;
@@ -58,6 +75,11 @@ public class FraudDetectionService {
     private final ParticipationRepository participationRepository;
     private final UserRiskScoreRepository userRiskScoreRepository;
     private final EventLogService eventLogService;
+    private final FraudBatchEvaluator fraudBatchEvaluator;
+    private final DetectionRuleEngine detectionRuleEngine;
+    private final AbuseCounters abuseCounters;
+    private final RiskTierCache riskTierCache;
+    private final UserSnapshotCache userSnapshots;
 
     public FraudDetectionService(
             UserRepository userRepository,
@@ -66,7 +88,12 @@ public class FraudDetectionService {
             FeedbackRepository feedbackRepository,
             ParticipationRepository participationRepository,
             UserRiskScoreRepository userRiskScoreRepository,
-            EventLogService eventLogService) {
+            EventLogService eventLogService,
+            FraudBatchEvaluator fraudBatchEvaluator,
+            DetectionRuleEngine detectionRuleEngine,
+            AbuseCounters abuseCounters,
+            RiskTierCache riskTierCache,
+            UserSnapshotCache userSnapshots) {
         this.userRepository = userRepository;
         this.reportRepository = reportRepository;
         this.activityRepository = activityRepository;
@@ -74,6 +101,11 @@ public class FraudDetectionService {
         this.participationRepository = participationRepository;
         this.userRiskScoreRepository = userRiskScoreRepository;
         this.eventLogService = eventLogService;
+        this.fraudBatchEvaluator = fraudBatchEvaluator;
+        this.detectionRuleEngine = detectionRuleEngine;
+        this.abuseCounters = abuseCounters;
+        this.riskTierCache = riskTierCache;
+        this.userSnapshots = userSnapshots;
     }
 
     /**
@@ -86,21 +118,26 @@ public class FraudDetectionService {
      */
     @Transactional
     public FraudEvaluationResult evaluateUser(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
+        UserSnapshot user = userSnapshots.get(userId).orElse(null);
         if (user == null) {
             return new FraudEvaluationResult(userId, 0, "USER_NOT_FOUND", false);
         }
 
-        if (Boolean.TRUE.equals(user.getIsBanned())) {
+        if (user.banned()) {
             return new FraudEvaluationResult(userId, 100, "ALREADY_BANNED", false);
         }
 
-        UserRiskScore riskScore = getOrCreateRiskScore(user);
+        UserRiskScore riskScore = getOrCreateRiskScore(userId);
 
-        // Evaluate each risk category
-        int reportScore = evaluateReportRisk(userId);
-        int behaviorScore = evaluateBehaviorRisk(userId);
-        int coordinationScore = 0; // Future: ring detection
+        // Evaluate each risk category; base score belongs to signup evaluation
+        RiskFeatures features = collectFeatures(user)
+                .set(RiskFeature.RING_SCORE, safe(riskScore.getRingScore()));
+        RuleEvaluation rules = detectionRuleEngine.evaluate(features);
+        int reportScore = evaluateReportRisk(features) + rules.delta(RuleCategory.HARASSMENT);
+        int behaviorScore = evaluateBehaviorRisk(features)
+                + rules.delta(RuleCategory.SPAM) + rules.delta(RuleCategory.SERIAL_NO_SHOW);
+        // Ring score is owned by the nightly ring detection job and kept as is
+        int coordinationScore = safe(riskScore.getRingScore()) + rules.delta(RuleCategory.COORDINATION);
 
         // Update risk scores
         riskScore.setReportScore(reportScore);
@@ -110,13 +147,14 @@ public class FraudDetectionService {
         int totalScore = safe(riskScore.getBaseScore()) + reportScore + behaviorScore + coordinationScore;
         riskScore.setTotalScore(totalScore);
         userRiskScoreRepository.save(riskScore);
+        riskTierCache.update(userId, totalScore);
 
         // Determine action
         String action = determineAction(totalScore, userId);
-        boolean actionTaken = executeAction(action, user, totalScore);
+        boolean actionTaken = executeAction(action, userId, totalScore);
 
         // Log evaluation
-        logEvaluation(userId, totalScore, action, actionTaken);
+        logEvaluation(userId, totalScore, action, actionTaken, rules.matchedRules());
 
         return new FraudEvaluationResult(userId, totalScore, action, actionTaken);
     }
@@ -126,19 +164,20 @@ public class FraudDetectionService {
      */
     @Transactional
     public boolean checkActivityCreationAllowed(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null || Boolean.TRUE.equals(user.getIsBanned())) {
+        if (userSnapshots.get(userId).isEmpty()) {
             return false;
         }
 
-        // Check if user is throttled
-        UserRiskScore riskScore = userRiskScoreRepository.findById(userId).orElse(null);
-        if (riskScore != null && riskScore.getTotalScore() >= RISK_SCORE_SOFT_BAN) {
+        // Banned and soft-banned users, from the in-memory risk tier
+        if (riskTierCache.isAtLeast(userId, RiskTier.SOFT_BAN)) {
             logger.warn("User {} is soft-banned, blocking activity creation", userId);
             return false;
         }
 
-        // Check spam rate
+        // Check spam rate, confirming with the database only when the counter may be over
+        if (!abuseCounters.mayReach(AbuseSignal.ACTIVITY_CREATED, userId, SPAM_ACTIVITY_THRESHOLD)) {
+            return true;
+        }
         LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
         int recentActivities = activityRepository.countByCreatedByIdAndCreatedAtAfter(userId, oneDayAgo);
 
@@ -157,6 +196,13 @@ public class FraudDetectionService {
      */
     @Transactional
     public void onReportSubmitted(Long targetUserId) {
+        // Distinct reporters never exceed reports, so below both thresholds neither action applies
+        int threshold = Math.min(REPORTS_FOR_AUTO_REVIEW, DISTINCT_REPORTERS_FOR_AUTO_BAN);
+        if (!abuseCounters.mayReach(AbuseSignal.REPORT_RECEIVED, targetUserId, threshold)) {
+            evaluateUser(targetUserId);
+            return;
+        }
+
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
 
         long recentReports = reportRepository.countRecentReportsByUserId(targetUserId, sevenDaysAgo);
@@ -178,8 +224,10 @@ public class FraudDetectionService {
                 logger.warn("Auto-banning user {} due to {} distinct reporters", targetUserId, distinctReporters);
                 user.setIsBanned(true);
                 userRepository.save(user);
+                riskTierCache.markBanned(targetUserId);
+                userSnapshots.invalidate(targetUserId);
 
-                logEvaluation(targetUserId, 100, "AUTO_BAN", true);
+                logEvaluation(targetUserId, 100, "AUTO_BAN", true, List.of());
             }
         } else {
             // Re-evaluate risk
@@ -203,79 +251,53 @@ public class FraudDetectionService {
 
     /**
      * Scheduled job to re-evaluate high-risk users daily.
+     * Runs set-based in {@link FraudBatchEvaluator} rather than one evaluateUser per user.
      */
     @Scheduled(cron = "0 0 3 * * *") // 3 AM daily
-    @Transactional
     public void dailyRiskEvaluation() {
-        logger.info("Starting daily risk evaluation");
-
-        List<UserRiskScore> highRiskUsers = userRiskScoreRepository.findByTotalScoreGreaterThan(30);
-
-        for (UserRiskScore riskScore : highRiskUsers) {
-            try {
-                evaluateUser(riskScore.getUserId());
-            } catch (Exception e) {
-                logger.error("Failed to evaluate user {}", riskScore.getUserId(), e);
-            }
-        }
-
-        logger.info("Daily risk evaluation completed for {} users", highRiskUsers.size());
+        fraudBatchEvaluator.evaluateAbove(RiskScoring.RISK_SCORE_WARN);
     }
 
     // --- Private helper methods ---
 
-    private int evaluateReportRisk(Long userId) {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long recentReports = reportRepository.countRecentReportsByUserId(userId, thirtyDaysAgo);
-        long distinctReporters = reportRepository.countDistinctReportersByUserId(userId, thirtyDaysAgo);
-
-        int score = 0;
-
-        // Base score from report count
-        score += (int) Math.min(recentReports * 5, 25);
-
-        // Bonus for distinct reporters (more concerning)
-        if (distinctReporters >= 3) {
-            score += 15;
-        } else if (distinctReporters >= 2) {
-            score += 10;
+    private RiskFeatures collectFeatures(UserSnapshot user) {
+        Long userId = user.id();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime reportsSince = now.minusDays(RiskScoring.REPORT_WINDOW_DAYS);
+        LocalDateTime activitiesSince = now.minusDays(RiskScoring.ACTIVITY_WINDOW_DAYS);
+
+        RiskFeatures features = new RiskFeatures()
+                .set(RiskFeature.HAS_CONTACTS, user.contactsOptIn())
+                .set(RiskFeature.REPORTS_30D, reportRepository.countRecentReportsByUserId(userId, reportsSince))
+                .set(RiskFeature.DISTINCT_REPORTERS_30D,
+                        reportRepository.countDistinctReportersByUserId(userId, reportsSince))
+                .set(RiskFeature.ACTIVITIES_24H,
+                        activityRepository.countByCreatedByIdAndCreatedAtAfter(userId, activitiesSince))
+                .attendance(feedbackRepository.countShowUpsByUserId(userId),
+                        feedbackRepository.countNoShowsByUserId(userId));
+        if (user.createdAt() != null) {
+            features.set(RiskFeature.ACCOUNT_AGE_DAYS, Duration.between(user.createdAt(), now).toHours() / 24.0);
         }
-
-        return score;
+        return features;
     }
 
-    private int evaluateBehaviorRisk(Long userId) {
-        int score = 0;
-
-        // No-show rate
-        int showUps = feedbackRepository.countShowUpsByUserId(userId);
-        int noShows = feedbackRepository.countNoShowsByUserId(userId);
-        int totalMeetings = showUps + noShows;
-
-        if (totalMeetings >= 3) {
-            double noShowRate = (double) noShows / totalMeetings;
-            if (noShowRate > 0.5) {
-                score += 20; // Very unreliable
-            } else if (noShowRate > 0.3) {
-                score += 10; // Somewhat unreliable
-            }
-        }
-
-        // Activity creation spam (checked elsewhere but factor into overall)
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        int recentActivities = activityRepository.countByCreatedByIdAndCreatedAtAfter(userId, oneDayAgo);
-        if (recentActivities > 3) {
-            score += 5;
-        }
+    private int evaluateReportRisk(RiskFeatures features) {
+        return RiskScoring.reportScore(
+                (long) features.get(RiskFeature.REPORTS_30D),
+                (long) features.get(RiskFeature.DISTINCT_REPORTERS_30D));
+    }
 
-        return score;
+    private int evaluateBehaviorRisk(RiskFeatures features) {
+        return RiskScoring.behaviorScore(
+                (int) features.get(RiskFeature.SHOW_UPS),
+                (int) features.get(RiskFeature.NO_SHOWS),
+                (int) features.get(RiskFeature.ACTIVITIES_24H));
     }
 
     private void addBehaviorRisk(Long userId, int delta, String reason) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) return;
+        if (userSnapshots.get(userId).isEmpty()) return;
 
-        UserRiskScore riskScore = getOrCreateRiskScore(user);
+        UserRiskScore riskScore = getOrCreateRiskScore(userId);
         int newBehaviorScore = safe(riskScore.getBehaviorScore()) + delta;
         riskScore.setBehaviorScore(newBehaviorScore);
 
@@ -284,6 +306,7 @@ public class FraudDetectionService {
         riskScore.setTotalScore(total);
 
         userRiskScoreRepository.save(riskScore);
+        riskTierCache.update(userId, total);
 
         Map<String, Object> props = new HashMap<>();
         props.put("delta", delta);
@@ -293,32 +316,29 @@ public class FraudDetectionService {
     }
 
     private String determineAction(int totalScore, Long userId) {
-        if (totalScore >= RISK_SCORE_AUTO_BAN) {
-            return "BAN";
-        } else if (totalScore >= RISK_SCORE_SOFT_BAN) {
-            return "SOFT_BAN";
-        } else if (totalScore >= 30) {
-            return "WARN";
-        }
-        return "NONE";
+        return RiskScoring.action(totalScore);
     }
 
-    private boolean executeAction(String action, User user, int totalScore) {
+    private boolean executeAction(String action, Long userId, int totalScore) {
         switch (action) {
             case "BAN":
-                if (!Boolean.TRUE.equals(user.getIsBanned())) {
+                // The only action that writes the user, so the only one loading the entity
+                User user = userRepository.findById(userId).orElse(null);
+                if (user != null && !Boolean.TRUE.equals(user.getIsBanned())) {
                     user.setIsBanned(true);
                     userRepository.save(user);
-                    logger.warn("User {} auto-banned with risk score {}", user.getId(), totalScore);
+                    riskTierCache.markBanned(userId);
+                    userSnapshots.invalidate(userId);
+                    logger.warn("User {} auto-banned with risk score {}", userId, totalScore);
                     return true;
                 }
                 break;
             case "SOFT_BAN":
                 // Soft ban is enforced via risk score check, no user field change needed
-                logger.info("User {} soft-banned with risk score {}", user.getId(), totalScore);
+                logger.info("User {} soft-banned with risk score {}", userId, totalScore);
                 return true;
             case "WARN":
-                logger.info("User {} warned with risk score {}", user.getId(), totalScore);
+                logger.info("User {} warned with risk score {}", userId, totalScore);
                 return true;
             default:
                 break;
@@ -333,20 +353,24 @@ public class FraudDetectionService {
         logger.info("User {} flagged for review: {}", userId, reason);
     }
 
-    private void logEvaluation(Long userId, int totalScore, String action, boolean actionTaken) {
+    private void logEvaluation(Long userId, int totalScore, String action, boolean actionTaken,
+                               List<String> matchedRules) {
         Map<String, Object> props = new HashMap<>();
         props.put("totalScore", totalScore);
         props.put("action", action);
         props.put("actionTaken", actionTaken);
+        if (!matchedRules.isEmpty()) {
+            props.put("matchedRules", matchedRules);
+        }
         eventLogService.log(userId, null, "fraud_evaluation", props);
     }
 
-    private UserRiskScore getOrCreateRiskScore(User user) {
-        return userRiskScoreRepository.findById(user.getId())
+    private UserRiskScore getOrCreateRiskScore(Long userId) {
+        return userRiskScoreRepository.findById(userId)
                 .orElseGet(() -> {
                     UserRiskScore rs = new UserRiskScore();
-                    rs.setUser(user);
-                    rs.setUserId(user.getId());
+                    rs.setUser(userRepository.getReferenceById(userId));
+                    rs.setUserId(userId);
                     return userRiskScoreRepository.save(rs);
                 });
     }
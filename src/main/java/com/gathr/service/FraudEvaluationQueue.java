@@ -0,0 +1,202 @@
+package com.gathr.service;
+
+import com.gathr.service.fraud.AbuseSignal;
+import com.gathr.service.fraud.AbuseSignalEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debounced, asynchronous fraud evaluation.
+ *
+ * Abuse signals are picked up after their transaction commits and held per user for the
+ * debounce window; every signal for that user arriving in the window joins the same
+ * pending evaluation. When the window closes the evaluation runs once on a small bounded
+ * pool, so a burst of reports against one user costs one evaluation and none of it runs
+ * on the request thread.
+ */
+@Component
+public class FraudEvaluationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(FraudEvaluationQueue.class);
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final FraudDetectionService fraudDetectionService;
+    private final long debounceMillis;
+
+    // Fires debounce timers only; evaluations run on the worker pool
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public FraudEvaluationQueue(
+            FraudDetectionService fraudDetectionService,
+            @Value("${gathr.fraud.queue.debounce-ms:5000}") long debounceMillis,
+            @Value("${gathr.fraud.queue.threads:2}") int threads,
+            @Value("${gathr.fraud.queue.capacity:1000}") int capacity) {
+        this.fraudDetectionService = fraudDetectionService;
+        this.debounceMillis = debounceMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(named("fraud-debounce"));
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), named("fraud-eval"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAbuseSignal(AbuseSignalEvent event) {
+        enqueue(event.userId(), event.signal());
+    }
+
+    /**
+     * Request an evaluation of {@code userId}, merged with any already pending.
+     */
+    public void enqueue(Long userId, AbuseSignal signal) {
+        if (userId == null) {
+            return;
+        }
+        received.incrementAndGet();
+
+        boolean[] created = new boolean[1];
+        pending.compute(userId, (k, existing) -> {
+            Pending p = existing;
+            if (p == null) {
+                p = new Pending(System.currentTimeMillis());
+                created[0] = true;
+            } else {
+                coalesced.incrementAndGet();
+            }
+            p.signals.add(signal);
+            return p;
+        });
+
+        if (created[0]) {
+            scheduler.schedule(() -> dispatch(userId), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queue depth and lag, for health reporting.
+     */
+    public Map<String, Object> stats() {
+        long done = completed.get() + failed.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingUsers", pending.size());
+        stats.put("queued", workers.getQueue().size());
+        stats.put("running", workers.getActiveCount());
+        stats.put("received", received.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("avgLagMs", done > 0 ? totalLagMillis.get() / done : 0);
+        stats.put("maxLagMs", maxLagMillis.get());
+        return stats;
+    }
+
+    /**
+     * Stop taking signals, let queued evaluations finish for a few seconds and log how many
+     * were dropped. Dropped users are evaluated again on their next signal.
+     */
+    @PreDestroy
+    public void shutdown() {
+        // Each unfired timer is a user whose evaluation never reached the pool
+        int dropped = scheduler.shutdownNow().size();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                dropped += workers.shutdownNow().size();
+            }
+        } catch (InterruptedException e) {
+            dropped += workers.shutdownNow().size();
+            Thread.currentThread().interrupt();
+        }
+        if (dropped > 0) {
+            logger.warn("Dropped {} pending fraud evaluations on shutdown", dropped);
+        }
+    }
+
+    private void dispatch(Long userId) {
+        try {
+            workers.execute(() -> evaluate(userId));
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: keep the pending entry and try again after another window
+            rejected.incrementAndGet();
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(() -> dispatch(userId), debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void evaluate(Long userId) {
+        // Signals arriving from here on start a new pending evaluation
+        Pending p = pending.remove(userId);
+        if (p == null) {
+            return;
+        }
+
+        long lag = System.currentTimeMillis() - p.firstSignalAt;
+        totalLagMillis.addAndGet(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+
+        try {
+            Set<AbuseSignal> signals = p.signals;
+            if (signals.contains(AbuseSignal.NO_SHOW)) {
+                fraudDetectionService.onNoShowReported(userId);
+            }
+            if (signals.contains(AbuseSignal.REPORT_RECEIVED)) {
+                fraudDetectionService.onReportSubmitted(userId);
+            } else if (!signals.contains(AbuseSignal.NO_SHOW)) {
+                fraudDetectionService.evaluateUser(userId);
+            }
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.error("Fraud evaluation failed for user {}", userId, e);
+        }
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Pending {
+        final long firstSignalAt;
+        // Only mutated inside pending.compute, read after pending.remove
+        final Set<AbuseSignal> signals = EnumSet.noneOf(AbuseSignal.class);
+
+        Pending(long firstSignalAt) {
+            this.firstSignalAt = firstSignalAt;
+        }
+    }
+}
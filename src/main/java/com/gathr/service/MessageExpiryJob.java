@@ -2,6 +2,7 @@ package com.gathr.service;
 
 import com.gathr.entity.Message;
 import com.gathr.repository.MessageRepository;
+import com.gathr.service.chat.RecentMessageBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -10,6 +11,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class MessageExpiryJob {
@@ -17,9 +20,11 @@ public class MessageExpiryJob {
     private static final Logger logger = LoggerFactory.getLogger(MessageExpiryJob.class);
 
     private final MessageRepository messageRepository;
+    private final RecentMessageBuffer recentMessages;
 
-    public MessageExpiryJob(MessageRepository messageRepository) {
+    public MessageExpiryJob(MessageRepository messageRepository, RecentMessageBuffer recentMessages) {
         this.messageRepository = messageRepository;
+        this.recentMessages = recentMessages;
     }
 
     /**
@@ -44,6 +49,12 @@ public class MessageExpiryJob {
         if (!expiredMessages.isEmpty()) {
             logger.info("Deleting {} expired messages", expiredMessages.size());
             messageRepository.deleteAll(expiredMessages);
+
+            // Buffered chats must not keep serving the deleted messages
+            Set<Long> activityIds = expiredMessages.stream()
+                    .map(message -> message.getActivity().getId())
+                    .collect(Collectors.toSet());
+            activityIds.forEach(recentMessages::evict);
             logger.info("Successfully deleted {} expired messages", expiredMessages.size());
         } else {
             logger.debug("No expired messages to delete");
@@ -5,45 +5,108 @@ import com.gathr.dto.MessageDto;
 import com.gathr.entity.Activity;
 import com.gathr.entity.Message;
 import com.gathr.entity.User;
+import com.gathr.exception.InvalidRequestException;
+import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.MessageRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.chat.RecentMessageBuffer;
+import com.gathr.service.fraud.RiskTier;
+import com.gathr.service.fraud.RiskTierCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 public class MessageService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final MessageRepository messageRepository;
     private final ActivityRepository activityRepository;
     private final UserRepository userRepository;
     private final EventLogService eventLogService;
+    private final RiskTierCache riskTierCache;
+    private final RecentMessageBuffer recentMessages;
     
     public MessageService(MessageRepository messageRepository,
                          ActivityRepository activityRepository,
                          UserRepository userRepository,
-                         EventLogService eventLogService) {
+                         EventLogService eventLogService,
+                         RiskTierCache riskTierCache,
+                         RecentMessageBuffer recentMessages) {
         this.messageRepository = messageRepository;
         this.activityRepository = activityRepository;
         this.userRepository = userRepository;
         this.eventLogService = eventLogService;
+        this.riskTierCache = riskTierCache;
+        this.recentMessages = recentMessages;
     }
     
+    /**
+     * One page of an activity's chat history, oldest first.
+     *
+     * With no cursor, returns the newest {@code limit} messages. {@code beforeId} pages
+     * back through older messages and {@code afterId} forward through newer ones; either
+     * way the page is the {@code limit} messages closest to the cursor. Pages seek on
+     * (created_at, id), so cost does not grow with how far back the client has scrolled.
+     * The newest page and pages after a recent cursor come from {@link RecentMessageBuffer}
+     * when it holds them.
+     *
+     * @throws InvalidRequestException if both cursors are given
+     * @throws ResourceNotFoundException if the cursor is not a message of this activity
+     */
     @Transactional(readOnly = true)
-    public List<MessageDto> getMessagesByActivity(Long activityId) {
-        List<Message> messages = messageRepository.findByActivityIdOrderByCreatedAtAsc(activityId);
-        return messages.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<MessageDto> getMessagesByActivity(Long activityId, Long beforeId, Long afterId, int limit) {
+        if (beforeId != null && afterId != null) {
+            throw new InvalidRequestException("Specify at most one of before and after");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize);
+        
+        if (afterId != null) {
+            Optional<List<MessageDto>> buffered = recentMessages.after(activityId, afterId, pageSize);
+            if (buffered.isPresent()) {
+                return buffered.get();
+            }
+            return messageRepository.findRowsAfter(activityId, cursorCreatedAt(activityId, afterId), afterId, page);
+        }
+        if (beforeId == null) {
+            Optional<List<MessageDto>> buffered = recentMessages.latest(activityId, pageSize);
+            if (buffered.isPresent()) {
+                return buffered.get();
+            }
+        }
+        List<MessageDto> newestFirst = beforeId != null
+                ? messageRepository.findRowsBefore(activityId, cursorCreatedAt(activityId, beforeId), beforeId, page)
+                : messageRepository.findLatestRows(activityId, page);
+        List<MessageDto> messages = new ArrayList<>(newestFirst);
+        Collections.reverse(messages);
+        return messages;
+    }
+    
+    private LocalDateTime cursorCreatedAt(Long activityId, Long messageId) {
+        return messageRepository.findCreatedAt(activityId, messageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Message", messageId));
     }
     
     @Transactional
     public MessageDto createMessage(Long activityId, Long userId, CreateMessageRequest request) {
+        if (riskTierCache.isAtLeast(userId, RiskTier.RESTRICTED)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is restricted from messaging");
+        }
+
         Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new com.gathr.exception.ResourceNotFoundException("Activity", activityId));
 
@@ -63,7 +126,9 @@ public class MessageService {
         eventProps.put("textLength", message.getText().length());
         eventLogService.log(userId, activityId, "message_sent", eventProps);
 
-        return convertToDto(message);
+        MessageDto dto = convertToDto(message);
+        recentMessages.record(dto);
+        return dto;
     }
     
     private MessageDto convertToDto(Message message) {
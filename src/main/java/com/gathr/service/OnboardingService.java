@@ -7,6 +7,7 @@ import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.HubRepository;
 import com.gathr.repository.NotificationPreferenceRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -30,16 +31,19 @@ public class OnboardingService {
     private final HubRepository hubRepository;
     private final NotificationPreferenceRepository notificationPreferenceRepository;
     private final EventLogService eventLogService;
+    private final UserSnapshotCache userSnapshots;
 
     public OnboardingService(
             UserRepository userRepository,
             HubRepository hubRepository,
             NotificationPreferenceRepository notificationPreferenceRepository,
-            EventLogService eventLogService) {
+            EventLogService eventLogService,
+            UserSnapshotCache userSnapshots) {
         this.userRepository = userRepository;
         this.hubRepository = hubRepository;
         this.notificationPreferenceRepository = notificationPreferenceRepository;
         this.eventLogService = eventLogService;
+        this.userSnapshots = userSnapshots;
     }
 
     /**
@@ -82,6 +86,7 @@ public class OnboardingService {
         user.setOnboardingCompleted(true);
 
         user = userRepository.save(user);
+        userSnapshots.invalidate(userId);
 
         // Create default notification preferences with user's interests
         createDefaultNotificationPreferences(user);
@@ -113,6 +118,7 @@ public class OnboardingService {
         }
 
         user = userRepository.save(user);
+        userSnapshots.invalidate(userId);
 
         eventLogService.log(userId, "location_updated", java.util.Map.of(
                 "latitude", latitude,
@@ -176,6 +182,7 @@ public class OnboardingService {
 
         user.setHomeHub(hub);
         user = userRepository.save(user);
+        userSnapshots.invalidate(userId);
 
         eventLogService.log(userId, "home_hub_set", java.util.Map.of("hubId", hubId));
 
@@ -192,6 +199,7 @@ public class OnboardingService {
 
         user.setInterests(interests);
         user = userRepository.save(user);
+        userSnapshots.invalidate(userId);
 
         // Also update notification preferences
         notificationPreferenceRepository.findByUserId(userId).ifPresent(prefs -> {
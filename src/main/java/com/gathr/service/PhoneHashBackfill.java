@@ -0,0 +1,60 @@
+package com.gathr.service;
+
+import com.gathr.entity.User;
+import com.gathr.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills users.phone_hash for accounts created before it was stored at signup.
+ * New users get it from {@link User#setPhone}, so this is a no-op once caught up.
+ * contact_matches is then linked on every run, not only when hashes were filled,
+ * so a run that stopped between the two steps is completed by the next one.
+ */
+@Component
+public class PhoneHashBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhoneHashBackfill.class);
+
+    private final UserRepository userRepository;
+    private final ContactMatchService contactMatchService;
+
+    public PhoneHashBackfill(UserRepository userRepository, ContactMatchService contactMatchService) {
+        this.userRepository = userRepository;
+        this.contactMatchService = contactMatchService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0L;
+        int updated = 0;
+        try {
+            List<User> batch;
+            do {
+                batch = userRepository.findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(lastId);
+                for (User user : batch) {
+                    user.setPhone(user.getPhone());
+                    lastId = user.getId();
+                }
+                userRepository.saveAll(batch);
+                updated += batch.size();
+            } while (!batch.isEmpty());
+        } catch (Exception e) {
+            logger.error("Phone hash backfill stopped after {} users", updated, e);
+            return;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled phone hashes for {} users", updated);
+        }
+        try {
+            contactMatchService.linkAll();
+        } catch (Exception e) {
+            logger.error("Failed to link contact matches", e);
+        }
+    }
+}
@@ -7,9 +7,14 @@ import com.gathr.repository.ReportRepository;
 import com.gathr.repository.UserRepository;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.exception.ResourceNotFoundException;
+import com.gathr.service.fraud.AbuseCounters;
+import com.gathr.service.fraud.AbuseSignal;
+import com.gathr.service.fraud.AbuseSignalEvent;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +33,10 @@ public class ReportService {
     private final UserRepository userRepository;
     private final ActivityRepository activityRepository;
     private final EventLogService eventLogService;
+    private final TrustScoreService trustScoreService;
+    private final AbuseCounters abuseCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserSnapshotCache userSnapshots;
     private final WebClient webClient;
     private final String slackWebhookUrl;
 
@@ -36,12 +45,20 @@ public class ReportService {
             UserRepository userRepository,
             ActivityRepository activityRepository,
             EventLogService eventLogService,
+            TrustScoreService trustScoreService,
+            AbuseCounters abuseCounters,
+            ApplicationEventPublisher eventPublisher,
+            UserSnapshotCache userSnapshots,
             WebClient.Builder webClientBuilder,
             @Value("${slack.webhook.url:}") String slackWebhookUrl) {
         this.reportRepository = reportRepository;
         this.userRepository = userRepository;
         this.activityRepository = activityRepository;
         this.eventLogService = eventLogService;
+        this.trustScoreService = trustScoreService;
+        this.abuseCounters = abuseCounters;
+        this.eventPublisher = eventPublisher;
+        this.userSnapshots = userSnapshots;
         this.webClient = webClientBuilder.build();
         this.slackWebhookUrl = slackWebhookUrl;
     }
@@ -68,6 +85,10 @@ public class ReportService {
         report.setStatus("OPEN");
 
         report = reportRepository.save(report);
+        trustScoreService.recordReport(targetUserId);
+        abuseCounters.record(AbuseSignal.REPORT_RECEIVED, targetUserId);
+        // Fraud scoring runs after commit on FraudEvaluationQueue, debounced per user
+        eventPublisher.publishEvent(new AbuseSignalEvent(targetUserId, AbuseSignal.REPORT_RECEIVED));
 
         // Auto-suspend logic: Check if target user has >= 2 unique reporters
         // We can do this synchronously for MVP or async. Sync is safer for immediate
@@ -85,6 +106,7 @@ public class ReportService {
             // just manual for now.
             // Let's just set status to SUSPENDED.
             userRepository.save(targetUser);
+            userSnapshots.invalidate(targetUserId);
 
             // Log suspension
             eventLogService.log(targetUserId, "user_suspended", Map.of("reason", "auto_suspend_report_threshold"));
@@ -1,21 +1,21 @@
 package com.gathr.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gathr.entity.DetectionRule;
 import com.gathr.entity.User;
 import com.gathr.entity.UserRiskScore;
 import com.gathr.exception.ResourceNotFoundException;
-import com.gathr.repository.DetectionRuleRepository;
 import com.gathr.repository.UserRepository;
 import com.gathr.repository.UserRiskScoreRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.gathr.service.fraud.DetectionRuleEngine;
+import com.gathr.service.fraud.RiskFeature;
+import com.gathr.service.fraud.RiskFeatures;
+import com.gathr.service.fraud.RiskTier;
+import com.gathr.service.fraud.RiskTierCache;
+import com.gathr.service.fraud.RuleCategory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 /**
  * Minimal rule-based risk scoring service.
@@ -26,21 +26,21 @@ import java.util.List;
 @Service
 public class RiskScoreService {
 
-    private static final Logger logger = LoggerFactory.getLogger(RiskScoreService.class);
-
     private final UserRepository userRepository;
-    private final DetectionRuleRepository detectionRuleRepository;
     private final UserRiskScoreRepository userRiskScoreRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DetectionRuleEngine detectionRuleEngine;
+    private final RiskTierCache riskTierCache;
 
     public RiskScoreService(
             UserRepository userRepository,
-            DetectionRuleRepository detectionRuleRepository,
-            UserRiskScoreRepository userRiskScoreRepository
+            UserRiskScoreRepository userRiskScoreRepository,
+            DetectionRuleEngine detectionRuleEngine,
+            RiskTierCache riskTierCache
     ) {
         this.userRepository = userRepository;
-        this.detectionRuleRepository = detectionRuleRepository;
         this.userRiskScoreRepository = userRiskScoreRepository;
+        this.detectionRuleEngine = detectionRuleEngine;
+        this.riskTierCache = riskTierCache;
     }
 
     @Transactional
@@ -56,36 +56,19 @@ public class RiskScoreService {
                     return rs;
                 });
 
-        int base = 0;
-        List<DetectionRule> rules = detectionRuleRepository.findByEnabledTrue();
-
-        for (DetectionRule rule : rules) {
-            if (!"FAKE_ACCOUNT".equalsIgnoreCase(rule.getCategory())) {
-                continue;
-            }
-
-            try {
-                JsonNode params = objectMapper.readTree(rule.getConditionParams());
-                switch (rule.getConditionType()) {
-                    case "NO_CONTACTS":
-                        if (!hasContacts) {
-                            base += rule.getRiskDelta();
-                        }
-                        break;
-                    case "IP_PLACEHOLDER":
-                        // Placeholder rule type for future IP-based checks
-                        break;
-                    default:
-                        break;
-                }
-            } catch (IOException e) {
-                logger.warn("Failed to parse condition params for rule {}: {}", rule.getName(), e.getMessage());
-            }
-        }
+        RiskFeatures features = new RiskFeatures()
+                .set(RiskFeature.HAS_CONTACTS, hasContacts)
+                .set(RiskFeature.ACCOUNT_AGE_DAYS, accountAgeDays(user));
+
+        // Fake-account rules are compiled once by the engine; no rule rows or JSON are read here
+        int base = detectionRuleEngine.evaluate(features, RuleCategory.FAKE_ACCOUNT)
+                .delta(RuleCategory.FAKE_ACCOUNT);
 
         riskScore.setBaseScore(base);
         recomputeTotal(riskScore);
-        return userRiskScoreRepository.save(riskScore);
+        UserRiskScore saved = userRiskScoreRepository.save(riskScore);
+        riskTierCache.update(userId, saved.getTotalScore());
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -96,8 +79,7 @@ public class RiskScoreService {
     }
 
     public boolean isRestricted(Long userId) {
-        int score = getTotalRiskScore(userId);
-        return score >= 70;
+        return riskTierCache.isAtLeast(userId, RiskTier.RESTRICTED);
     }
 
     private void recomputeTotal(UserRiskScore riskScore) {
@@ -111,6 +93,13 @@ public class RiskScoreService {
     private int safe(Integer value) {
         return value != null ? value : 0;
     }
+
+    private double accountAgeDays(User user) {
+        if (user.getCreatedAt() == null) {
+            return 0;
+        }
+        return Duration.between(user.getCreatedAt(), LocalDateTime.now()).toHours() / 24.0;
+    }
 }
 
 
@@ -3,24 +3,24 @@ package com.gathr.service;
 import com.gathr.entity.Participation;
 import com.gathr.entity.SocialConnection;
 import com.gathr.entity.SocialConnection.ConnectionType;
-import com.gathr.entity.User;
-import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.ParticipationRepository;
 import com.gathr.repository.SocialConnectionRepository;
-import com.gathr.repository.UserPhoneHashRepository;
-import com.gathr.repository.UserRepository;
+import com.gathr.service.graph.FriendSuggestion;
+import com.gathr.service.graph.SocialConnectionsChangedEvent;
+import com.gathr.service.graph.SocialGraphIndex;
+import com.gathr.service.user.UserSnapshotCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Social graph helper service.
@@ -30,209 +30,157 @@ import java.util.Set;
  *
  * Definition (approximate):
  * A participant is counted as a "mutual" for viewer if the viewer has that participant's
- * phone number in their uploaded contacts (after normalization + hashing).
+ * phone number in their uploaded contacts, i.e. a contact_matches edge exists from the
+ * viewer to the participant.
  */
 @Service
 public class SocialGraphService {
 
-    private final UserRepository userRepository;
-    private final UserPhoneHashRepository userPhoneHashRepository;
+    private static final double STRENGTH_INCREMENT = 0.1;
+
+    private static final List<Participation.ParticipationStatus> MUTUAL_STATUSES = List.of(
+            Participation.ParticipationStatus.INTERESTED, Participation.ParticipationStatus.CONFIRMED);
+
+    private static final String CLAIM_LEDGER_SQL =
+            "INSERT INTO social_connection_ledger (activity_id, user_id, applied_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (activity_id, user_id) DO NOTHING";
+
+    private static final String UPSERT_CONNECTION_SQL =
+            "INSERT INTO social_connections " +
+            "(source_user_id, target_user_id, connection_type, strength, interaction_count, last_interacted_at) " +
+            "VALUES (?, ?, ?, ?, 1, ?) " +
+            "ON CONFLICT (source_user_id, target_user_id, connection_type) DO UPDATE SET " +
+            "interaction_count = social_connections.interaction_count + 1, " +
+            "strength = LEAST(1.0, social_connections.strength + ?), " +
+            "last_interacted_at = EXCLUDED.last_interacted_at";
+
+    private static final String SUGGESTIONS_SQL =
+            "SELECT candidate_user_id, score, shared_connections FROM friend_suggestions " +
+            "WHERE user_id = ? ORDER BY rank LIMIT ?";
+
+    private final UserSnapshotCache userSnapshots;
+    private final ContactMatchService contactMatchService;
     private final ParticipationRepository participationRepository;
     private final SocialConnectionRepository socialConnectionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SocialGraphIndex socialGraphIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SocialGraphService(
-            UserRepository userRepository,
-            UserPhoneHashRepository userPhoneHashRepository,
+            UserSnapshotCache userSnapshots,
+            ContactMatchService contactMatchService,
             ParticipationRepository participationRepository,
-            SocialConnectionRepository socialConnectionRepository
+            SocialConnectionRepository socialConnectionRepository,
+            JdbcTemplate jdbcTemplate,
+            SocialGraphIndex socialGraphIndex,
+            ApplicationEventPublisher eventPublisher
     ) {
-        this.userRepository = userRepository;
-        this.userPhoneHashRepository = userPhoneHashRepository;
+        this.userSnapshots = userSnapshots;
+        this.contactMatchService = contactMatchService;
         this.participationRepository = participationRepository;
         this.socialConnectionRepository = socialConnectionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.socialGraphIndex = socialGraphIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Approximate how many participants in the activity are in the viewer's contacts.
+     * Both sides are resolved to user ids, so no phone is normalized or hashed here.
      */
     @Transactional(readOnly = true)
     public int getMutualCountForActivity(Long viewerUserId, Long activityId) {
-        userRepository.findById(viewerUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", viewerUserId));
+        userSnapshots.require(viewerUserId);
 
-        // Hashes of viewer's contacts (uploaded from device)
-        Set<String> viewerContactHashes = userPhoneHashRepository.findPhoneHashesByUserId(viewerUserId);
-        if (viewerContactHashes.isEmpty()) {
+        // Registered users among the viewer's uploaded contacts
+        Set<Long> contactUserIds = contactMatchService.findContactUserIds(viewerUserId);
+        if (contactUserIds.isEmpty()) {
             return 0;
         }
 
-        // Participants (INTERESTED or CONFIRMED) with user eagerly loaded
-        List<Participation> interested = participationRepository.findByActivityIdAndStatus(
-                activityId, Participation.ParticipationStatus.INTERESTED);
-        List<Participation> confirmed = participationRepository.findByActivityIdAndStatus(
-                activityId, Participation.ParticipationStatus.CONFIRMED);
+        List<Long> participantIds = participationRepository.findUserIdsByActivityIdAndStatusIn(
+                activityId, MUTUAL_STATUSES);
 
-        Set<Long> countedUserIds = new HashSet<>();
         int mutuals = 0;
-
-        for (Participation p : concat(interested, confirmed)) {
-            User participant = p.getUser();
-            if (participant == null) {
-                continue;
-            }
-
-            Long participantId = participant.getId();
-            if (participantId == null || participantId.equals(viewerUserId)) {
-                continue;
-            }
-
-            if (countedUserIds.contains(participantId)) {
-                continue;
-            }
-
-            String phone = participant.getPhone();
-            if (phone == null || phone.isBlank()) {
-                continue;
-            }
-
-            String phoneHash = hashPhoneNumber(phone);
-            if (viewerContactHashes.contains(phoneHash)) {
+        for (Long participantId : participantIds) {
+            if (!participantId.equals(viewerUserId) && contactUserIds.contains(participantId)) {
                 mutuals++;
-                countedUserIds.add(participantId);
             }
         }
-
         return mutuals;
     }
 
-    private List<Participation> concat(List<Participation> a, List<Participation> b) {
-        return new java.util.ArrayList<Participation>() {{
-            addAll(a);
-            addAll(b);
-        }};
-    }
-
     /**
-     * Normalize and hash a phone number using the same logic as the mobile client.
-     * Mirrors frontend's normalizePhoneNumber + hashPhoneNumber in contactHashing.ts.
+     * Number of registered users in the user's uploaded contacts, read from contact_matches.
      */
-    String hashPhoneNumber(String phone) {
-        String normalized = normalizePhoneNumber(phone);
-        return sha256Hex(normalized.toLowerCase().trim());
-    }
-
-    String normalizePhoneNumber(String phone) {
-        // Remove all non-digit characters
-        String cleaned = phone.replaceAll("\\D", "");
-
-        // If starts with 0, replace with country code (India: +91)
-        if (cleaned.startsWith("0")) {
-            cleaned = "91" + cleaned.substring(1);
-        }
-
-        // If doesn't start with country code and is 10 digits, assume India (+91)
-        if (cleaned.length() == 10) {
-            cleaned = "91" + cleaned;
-        }
-
-        // Ensure it starts with +
-        if (!cleaned.startsWith("+")) {
-            cleaned = "+" + cleaned;
-        }
-
-        return cleaned;
-    }
-
-    private String sha256Hex(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder(2 * hash.length);
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
-        }
-    }
-
     @Transactional(readOnly = true)
     public long countApproximateMutualConnections(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        userSnapshots.require(userId);
 
-        Set<String> hashes = userPhoneHashRepository.findPhoneHashesByUserId(userId);
-        if (hashes.isEmpty()) {
-            return 0L;
-        }
-        Long matches = userPhoneHashRepository.countMutualUsers(hashes);
-        if (matches == null) {
-            return 0L;
-        }
-        // Subtract one to exclude the current user's own uploads from the count
-        return Math.max(0L, matches - 1);
+        return contactMatchService.countContactUsers(userId);
     }
 
+    /**
+     * Apply a single user's confirmation to the social graph.
+     *
+     * Only edges between the newly confirmed user and the other confirmed participants
+     * are created or strengthened, in both directions, with one batched upsert. The
+     * (activity, user) ledger row makes the call idempotent: confirming again, or a
+     * retried request, leaves existing edges untouched.
+     */
     @Transactional
-    public void refreshConnectionsForActivity(Long activityId) {
-        List<Participation> confirmed = participationRepository.findByActivityIdAndStatus(
-                activityId, Participation.ParticipationStatus.CONFIRMED);
-        List<User> participants = confirmed.stream()
-                .map(Participation::getUser)
-                .filter(user -> user != null && user.getId() != null)
-                .distinct()
-                .toList();
-
-        for (int i = 0; i < participants.size(); i++) {
-            for (int j = i + 1; j < participants.size(); j++) {
-                User first = participants.get(i);
-                User second = participants.get(j);
-                upsertConnection(first, second, ConnectionType.ATTENDED_TOGETHER);
-                upsertConnection(second, first, ConnectionType.ATTENDED_TOGETHER);
-            }
+    public void recordConfirmation(Long activityId, Long userId) {
+        int claimed = jdbcTemplate.update(CLAIM_LEDGER_SQL, activityId, userId, Timestamp.valueOf(LocalDateTime.now()));
+        if (claimed == 0) {
+            return; // Already applied for this activity
         }
-    }
 
-    @Transactional(readOnly = true)
-    public List<User> findFriendsOfFriends(Long userId, int maxDepth) {
-        User root = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        List<Long> partnerIds = participationRepository.findUserIdsByActivityIdAndStatusExcluding(
+                activityId, Participation.ParticipationStatus.CONFIRMED, userId);
+        if (partnerIds.isEmpty()) {
+            return;
+        }
 
-        if (maxDepth < 1) {
-            return List.of();
+        // Both directions per partner, ordered by (source, target) so concurrent
+        // confirmations on the same activity lock rows in the same order.
+        List<long[]> edges = new ArrayList<>(partnerIds.size() * 2);
+        for (Long partnerId : new TreeSet<>(partnerIds)) {
+            edges.add(new long[] { userId, partnerId });
+            edges.add(new long[] { partnerId, userId });
         }
+        edges.sort(Comparator.<long[]>comparingLong(e -> e[0]).thenComparingLong(e -> e[1]));
 
-        Set<Long> visited = new HashSet<>();
-        List<User> suggestions = new ArrayList<>();
-        ArrayDeque<NodeDepth> queue = new ArrayDeque<>();
-        queue.add(new NodeDepth(root.getId(), 0));
-        visited.add(root.getId());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_CONNECTION_SQL, edges, edges.size(), (ps, edge) -> {
+            ps.setLong(1, edge[0]);
+            ps.setLong(2, edge[1]);
+            ps.setString(3, ConnectionType.ATTENDED_TOGETHER.name());
+            ps.setDouble(4, STRENGTH_INCREMENT);
+            ps.setTimestamp(5, now);
+            ps.setDouble(6, STRENGTH_INCREMENT);
+        });
 
-        while (!queue.isEmpty()) {
-            NodeDepth current = queue.poll();
-            if (current.depth() >= maxDepth) {
-                continue;
-            }
+        eventPublisher.publishEvent(new SocialConnectionsChangedEvent(userId, partnerIds, STRENGTH_INCREMENT));
+    }
 
-            List<SocialConnection> neighbors = socialConnectionRepository.findBySourceUserId(current.userId());
-            for (SocialConnection connection : neighbors) {
-                Long targetId = connection.getTargetUser().getId();
-                if (targetId == null || visited.contains(targetId)) {
-                    continue;
-                }
-                visited.add(targetId);
-                if (current.depth() + 1 > 0) {
-                    suggestions.add(connection.getTargetUser());
-                }
-                queue.offer(new NodeDepth(targetId, current.depth() + 1));
-            }
-        }
+    /**
+     * Top 2-hop connection candidates ranked by shared-connection strength.
+     * Served from the in-memory {@link SocialGraphIndex}; no queries are issued.
+     */
+    public List<FriendSuggestion> findFriendsOfFriends(Long userId, int limit) {
+        return socialGraphIndex.friendsOfFriends(userId, limit);
+    }
 
+    /**
+     * "People you may know", precomputed nightly by {@code FriendSuggestionJob}.
+     * Candidates the user has connected with since the last run are dropped.
+     */
+    @Transactional(readOnly = true)
+    public List<FriendSuggestion> getPeopleYouMayKnow(Long userId, int limit) {
+        List<FriendSuggestion> suggestions = jdbcTemplate.query(SUGGESTIONS_SQL,
+                (rs, rowNum) -> new FriendSuggestion(rs.getLong(1), rs.getDouble(2), rs.getInt(3)),
+                userId, limit);
+        suggestions.removeIf(s -> socialGraphIndex.strength(userId, s.userId()) > 0);
         return suggestions;
     }
 
@@ -242,14 +190,12 @@ public class SocialGraphService {
             return 1.0;
         }
 
-        userRepository.findById(sourceUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", sourceUserId));
-        User target = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", targetUserId));
+        userSnapshots.require(sourceUserId);
+        userSnapshots.require(targetUserId);
 
         double strength = 0.0;
         strength += getConnectionStrength(sourceUserId, targetUserId, ConnectionType.ATTENDED_TOGETHER);
-        if (isInContactList(sourceUserId, target)) {
+        if (isInContactList(sourceUserId, targetUserId)) {
             strength += 0.3;
         }
         return Math.min(1.0, strength);
@@ -261,43 +207,10 @@ public class SocialGraphService {
                 .orElse(0.0);
     }
 
-    private boolean isInContactList(Long sourceUserId, User potentialContact) {
-        if (potentialContact.getPhone() == null || potentialContact.getPhone().isBlank()) {
-            return false;
-        }
-        Set<String> hashes = userPhoneHashRepository.findPhoneHashesByUserId(sourceUserId);
-        if (hashes.isEmpty()) {
-            return false;
-        }
-        String contactHash = hashPhoneNumber(potentialContact.getPhone());
-        return hashes.contains(contactHash);
+    private boolean isInContactList(Long sourceUserId, Long potentialContactId) {
+        return contactMatchService.isContact(sourceUserId, potentialContactId);
     }
 
-    private void upsertConnection(User source, User target, ConnectionType type) {
-        if (source.getId().equals(target.getId())) {
-            return;
-        }
-
-        SocialConnection connection = socialConnectionRepository
-                .findBySourceUserIdAndTargetUserIdAndType(source.getId(), target.getId(), type)
-                .orElseGet(() -> {
-                    SocialConnection sc = new SocialConnection();
-                    sc.setSourceUser(source);
-                    sc.setTargetUser(target);
-                    sc.setType(type);
-                    sc.setStrength(0.0);
-                    sc.setInteractionCount(0);
-                    return sc;
-                });
-
-        connection.setInteractionCount(connection.getInteractionCount() + 1);
-        connection.setStrength(Math.min(1.0, connection.getStrength() + 0.1));
-        connection.setLastInteractedAt(LocalDateTime.now());
-        socialConnectionRepository.save(connection);
-    }
-
-    private record NodeDepth(Long userId, int depth) {
-    }
 }
 
 
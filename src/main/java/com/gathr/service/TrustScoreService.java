@@ -1,17 +1,16 @@
 package com.gathr.service;
 
 import com.gathr.dto.TrustScoreDto;
-import com.gathr.entity.User;
-import com.gathr.exception.ResourceNotFoundException;
-import com.gathr.repository.FeedbackRepository;
-import com.gathr.repository.ParticipationRepository;
-import com.gathr.repository.ReportRepository;
-import com.gathr.repository.UserRepository;
+import com.gathr.entity.UserTrustStats;
+import com.gathr.repository.UserTrustStatsRepository;
+import com.gathr.service.user.UserSnapshot;
+import com.gathr.service.user.UserSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
@@ -28,53 +27,39 @@ import java.time.temporal.ChronoUnit;
  * 6. Activity volume bonus (consistent activity over time)
  * 7. Account age factor (newer accounts have lower ceiling)
  *
+ * Inputs come from user_trust_stats, which FeedbackService and ReportService update
+ * in their own transactions, so scoring is a primary-key read with no aggregation.
+ *
  * Time Decay: Negative signals decay slower than positive signals
  * - Positive signals (show-ups): 50% decay per 90 days
  * - Negative signals (no-shows): 25% decay per 90 days
  * - Reports: 10% decay per 30 days (very slow)
+ * Each signal is an exponentially decayed running sum with its own timestamp, so every
+ * event decays from when it happened without rescanning history.
  */
 @Service
 public class TrustScoreService {
 
     private static final Logger logger = LoggerFactory.getLogger(TrustScoreService.class);
 
-    private final FeedbackRepository feedbackRepository;
-    private final ReportRepository reportRepository;
-    private final UserRepository userRepository;
-    private final ParticipationRepository participationRepository;
+    private final UserTrustStatsRepository trustStatsRepository;
+    private final UserSnapshotCache userSnapshots;
     private final com.gathr.config.TrustScoreProperties properties;
 
     public TrustScoreService(
-            FeedbackRepository feedbackRepository,
-            ReportRepository reportRepository,
-            UserRepository userRepository,
-            ParticipationRepository participationRepository,
+            UserTrustStatsRepository trustStatsRepository,
+            UserSnapshotCache userSnapshots,
             com.gathr.config.TrustScoreProperties properties) {
-        this.feedbackRepository = feedbackRepository;
-        this.reportRepository = reportRepository;
-        this.userRepository = userRepository;
-        this.participationRepository = participationRepository;
+        this.trustStatsRepository = trustStatsRepository;
+        this.userSnapshots = userSnapshots;
         this.properties = properties;
     }
 
     @Transactional(readOnly = true)
     public TrustScoreDto calculateTrustScore(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
-
-        // Get raw stats
-        int showUps = feedbackRepository.countShowUpsByUserId(userId);
-        int noShows = feedbackRepository.countNoShowsByUserId(userId);
-        Double averageRating = feedbackRepository.averageRatingByUserId(userId);
-        int reportsAgainst = reportRepository.countByTargetUserId(userId);
-
-        // Calculate enhanced trust score
-        double score = calculateEnhancedScore(user, showUps, noShows, averageRating, reportsAgainst);
-
-        // Clamp to valid range
-        int finalScore = (int) Math.max(properties.getMinScore(), Math.min(properties.getMaxScore(), score));
-
-        return TrustScoreDto.calculate(userId, showUps, noShows, averageRating, reportsAgainst, finalScore);
+        TrustScoreBreakdown breakdown = calculateDetailedTrustScore(userId);
+        return TrustScoreDto.calculate(userId, breakdown.showUps(), breakdown.noShows(),
+                breakdown.averageRating(), breakdown.reportsAgainst(), breakdown.finalScore());
     }
 
     /**
@@ -83,25 +68,28 @@ public class TrustScoreService {
      */
     @Transactional(readOnly = true)
     public TrustScoreBreakdown calculateDetailedTrustScore(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
-
-        // Get raw stats
-        int showUps = feedbackRepository.countShowUpsByUserId(userId);
-        int noShows = feedbackRepository.countNoShowsByUserId(userId);
-        Double averageRating = feedbackRepository.averageRatingByUserId(userId);
-        int reportsAgainst = reportRepository.countByTargetUserId(userId);
-
-        // Get recent stats (last 30 days)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        int recentReports = (int) reportRepository.countRecentReportsByUserId(userId, thirtyDaysAgo);
-
-        // Calculate time-decayed values
-        double decayedShowUpBonus = calculateDecayedPositive(showUps, properties.getShowUpBonus(), user.getCreatedAt());
-        double decayedNoShowPenalty = calculateDecayedNegative(noShows, properties.getNoShowPenalty(),
-                user.getCreatedAt());
+        UserSnapshot user = userSnapshots.require(userId);
+
+        // Raw stats, maintained on feedback and report writes
+        UserTrustStats stats = trustStatsRepository.findById(userId)
+                .orElseGet(() -> new UserTrustStats(userId));
+        int showUps = stats.getShowUps();
+        int noShows = stats.getNoShows();
+        Double averageRating = stats.averageRating();
+        int reportsAgainst = stats.getReportsTotal();
+
+        // Decay each running sum from its last update to now
+        LocalDateTime now = LocalDateTime.now();
+        double decayedShowUpBonus = properties.getShowUpBonus() * decay(
+                stats.getShowUpsDecayed(), stats.getShowUpsDecayedAt(), now,
+                properties.getPositiveDecayFactor(), properties.getPositiveDecayPeriodDays());
+        double decayedNoShowPenalty = properties.getNoShowPenalty() * decay(
+                stats.getNoShowsDecayed(), stats.getNoShowsDecayedAt(), now,
+                properties.getNegativeDecayFactor(), properties.getNegativeDecayPeriodDays());
         double ratingBonus = averageRating != null ? averageRating * properties.getRatingMultiplier() : 0;
-        double decayedReportPenalty = calculateDecayedReports(reportsAgainst, recentReports);
+        double decayedReportPenalty = properties.getReportPenalty() * decay(
+                stats.getReportsDecayed(), stats.getReportsDecayedAt(), now,
+                properties.getReportDecayFactor(), properties.getReportDecayPeriodDays());
 
         // Activity volume bonus
         int totalActivities = showUps + noShows;
@@ -118,7 +106,7 @@ public class TrustScoreService {
                 + volumeBonus;
 
         // Apply account age factor
-        double ageFactor = calculateAccountAgeFactor(user.getCreatedAt());
+        double ageFactor = calculateAccountAgeFactor(user.createdAt());
         double adjustedScore = rawScore * ageFactor;
 
         // Clamp to valid range
@@ -142,96 +130,65 @@ public class TrustScoreService {
                 trustLevel);
     }
 
-    private double calculateEnhancedScore(User user, int showUps, int noShows, Double averageRating,
-            int reportsAgainst) {
-        // Get recent stats for weighted decay
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        int recentReports = (int) reportRepository.countRecentReportsByUserId(user.getId(), thirtyDaysAgo);
-
-        // Calculate time-decayed values
-        double decayedShowUpBonus = calculateDecayedPositive(showUps, properties.getShowUpBonus(), user.getCreatedAt());
-        double decayedNoShowPenalty = calculateDecayedNegative(noShows, properties.getNoShowPenalty(),
-                user.getCreatedAt());
-        double ratingBonus = averageRating != null ? averageRating * properties.getRatingMultiplier() : 0;
-        double decayedReportPenalty = calculateDecayedReports(reportsAgainst, recentReports);
-
-        // Activity volume bonus
-        int totalActivities = showUps + noShows;
-        double volumeBonus = Math.max(0,
-                (totalActivities - properties.getActivityVolumeThreshold()) * properties.getActivityVolumeBonus());
-        volumeBonus = Math.min(volumeBonus, 20); // Cap at +20
-
-        // Calculate raw score
-        double rawScore = properties.getBaseScore()
-                + decayedShowUpBonus
-                - decayedNoShowPenalty
-                + ratingBonus
-                - decayedReportPenalty
-                + volumeBonus;
-
-        // Apply account age factor
-        double ageFactor = calculateAccountAgeFactor(user.getCreatedAt());
-
-        return rawScore * ageFactor;
-    }
-
     /**
-     * Calculate decayed positive signals (show-ups).
-     * Positive signals decay faster to encourage continued good behavior.
+     * Fold a newly submitted feedback into the user's trust stats.
+     * Joins the caller's transaction so stats and feedback commit together.
      */
-    private double calculateDecayedPositive(int count, double baseValue, LocalDateTime accountCreated) {
-        if (count <= 0)
-            return 0;
-
-        // Simple approximation: assume events are distributed over account lifetime
-        long accountAgeDays = ChronoUnit.DAYS.between(accountCreated, LocalDateTime.now());
-        if (accountAgeDays <= 0)
-            accountAgeDays = 1;
-
-        // Calculate decay factor based on average age of events
-        double avgEventAgeDays = accountAgeDays / 2.0; // Assume average event is halfway through account life
-        double decayPeriods = avgEventAgeDays / properties.getPositiveDecayPeriodDays();
-        double decayMultiplier = Math.pow(properties.getPositiveDecayFactor(), decayPeriods);
-
-        return count * baseValue * decayMultiplier;
+    @Transactional
+    public void recordFeedback(Long userId, boolean didMeet, Integer rating) {
+        UserTrustStats stats = lockStats(userId);
+        LocalDateTime now = LocalDateTime.now();
+        if (didMeet) {
+            stats.setShowUps(stats.getShowUps() + 1);
+            stats.setShowUpsDecayed(1 + decay(stats.getShowUpsDecayed(), stats.getShowUpsDecayedAt(), now,
+                    properties.getPositiveDecayFactor(), properties.getPositiveDecayPeriodDays()));
+            stats.setShowUpsDecayedAt(now);
+        } else {
+            stats.setNoShows(stats.getNoShows() + 1);
+            stats.setNoShowsDecayed(1 + decay(stats.getNoShowsDecayed(), stats.getNoShowsDecayedAt(), now,
+                    properties.getNegativeDecayFactor(), properties.getNegativeDecayPeriodDays()));
+            stats.setNoShowsDecayedAt(now);
+        }
+        if (rating != null) {
+            stats.setRatingSum(stats.getRatingSum() + rating);
+            stats.setRatingCount(stats.getRatingCount() + 1);
+        }
     }
 
     /**
-     * Calculate decayed negative signals (no-shows).
-     * Negative signals decay slower to maintain accountability.
+     * Fold a newly created report into the target user's trust stats.
+     * Joins the caller's transaction so stats and report commit together.
      */
-    private double calculateDecayedNegative(int count, double baseValue, LocalDateTime accountCreated) {
-        if (count <= 0)
-            return 0;
-
-        long accountAgeDays = ChronoUnit.DAYS.between(accountCreated, LocalDateTime.now());
-        if (accountAgeDays <= 0)
-            accountAgeDays = 1;
-
-        double avgEventAgeDays = accountAgeDays / 2.0;
-        double decayPeriods = avgEventAgeDays / properties.getNegativeDecayPeriodDays();
-        double decayMultiplier = Math.pow(properties.getNegativeDecayFactor(), decayPeriods);
+    @Transactional
+    public void recordReport(Long targetUserId) {
+        UserTrustStats stats = lockStats(targetUserId);
+        LocalDateTime now = LocalDateTime.now();
+        stats.setReportsTotal(stats.getReportsTotal() + 1);
+        stats.setReportsDecayed(1 + decay(stats.getReportsDecayed(), stats.getReportsDecayedAt(), now,
+                properties.getReportDecayFactor(), properties.getReportDecayPeriodDays()));
+        stats.setReportsDecayedAt(now);
+    }
 
-        return count * baseValue * decayMultiplier;
+    private UserTrustStats lockStats(Long userId) {
+        // Create the row race-free on first use, then lock it for the increment
+        trustStatsRepository.insertIfAbsent(userId);
+        return trustStatsRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Trust stats missing for user " + userId));
     }
 
     /**
-     * Calculate decayed report penalty.
-     * Recent reports weighted more heavily.
+     * Decay a running sum from {@code since} to {@code now}: it is multiplied by
+     * {@code factorPerPeriod} for every {@code periodDays} elapsed, fractionally.
+     * Because decay is multiplicative, decaying the sum equals decaying each event
+     * by its own age, so one stored value per signal gives exact per-event decay.
      */
-    private double calculateDecayedReports(int totalReports, int recentReports) {
-        if (totalReports <= 0)
-            return 0;
-
-        int olderReports = totalReports - recentReports;
-
-        // Recent reports: full penalty
-        double recentPenalty = recentReports * properties.getReportPenalty();
-
-        // Older reports: decayed penalty
-        double olderPenalty = olderReports * properties.getReportPenalty() * properties.getReportDecayFactor();
-
-        return recentPenalty + olderPenalty;
+    static double decay(double value, LocalDateTime since, LocalDateTime now, double factorPerPeriod,
+            int periodDays) {
+        if (value == 0 || since == null || periodDays <= 0) {
+            return value;
+        }
+        double elapsedDays = Math.max(0, Duration.between(since, now).getSeconds()) / 86400.0;
+        return value * Math.pow(factorPerPeriod, elapsedDays / periodDays);
     }
 
     /**
@@ -0,0 +1,307 @@
+package com.gathr.service.chat;
+
+import com.gathr.dto.MessageDto;
+import com.gathr.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The last few messages of each active chat, so reconnecting clients can catch up
+ * without a query.
+ *
+ * A chat's buffer is created by its first message after being idle and holds up to
+ * {@code gathr.chat.buffer.size} messages in (createdAt, id) order. The first read seeds
+ * it with the newest messages from the database; after that it holds every message this
+ * instance committed at or after its oldest entry, so a cursor found in the buffer can be
+ * served from it. Reads whose cursor has fallen out of the buffer return empty and go to
+ * the database. Buffers with no new message for {@code gathr.chat.buffer.idle-minutes}
+ * are dropped, as are buffers whose messages were deleted ({@link #evict}).
+ *
+ * Buffers are per instance and only see messages sent through that instance, so they are
+ * only complete when one instance handles all chat writes, as the simple broker that
+ * delivers the messages already requires. They are off unless
+ * {@code gathr.chat.buffer.single-instance} is set, and every read then goes to the
+ * database.
+ */
+@Component
+public class RecentMessageBuffer {
+
+    private static final Comparator<MessageDto> ORDER =
+            Comparator.comparing(MessageDto::getCreatedAt).thenComparing(MessageDto::getId);
+
+    private final MessageRepository messageRepository;
+    private final int capacity;
+    private final int maxChats;
+    private final long idleMillis;
+    private final boolean singleInstance;
+    private final LongSupplier clock;
+
+    private final Map<Long, ChatBuffer> chats = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder seeds = new LongAdder();
+
+    @Autowired
+    public RecentMessageBuffer(
+            MessageRepository messageRepository,
+            @Value("${gathr.chat.buffer.size:100}") int capacity,
+            @Value("${gathr.chat.buffer.max-chats:5000}") int maxChats,
+            @Value("${gathr.chat.buffer.idle-minutes:30}") long idleMinutes,
+            @Value("${gathr.chat.buffer.single-instance:false}") boolean singleInstance) {
+        this(messageRepository, capacity, maxChats, idleMinutes, singleInstance, System::currentTimeMillis);
+    }
+
+    RecentMessageBuffer(MessageRepository messageRepository, int capacity, int maxChats,
+            long idleMinutes, boolean singleInstance, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Chat buffer size must be positive");
+        }
+        this.messageRepository = messageRepository;
+        this.capacity = capacity;
+        this.maxChats = maxChats;
+        this.idleMillis = Duration.ofMinutes(idleMinutes).toMillis();
+        this.singleInstance = singleInstance;
+        this.clock = clock;
+    }
+
+    /**
+     * Buffer a message once the transaction that saved it commits.
+     */
+    public void record(MessageDto message) {
+        if (!singleInstance) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(message);
+                }
+            });
+        } else {
+            append(message);
+        }
+    }
+
+    /**
+     * Up to {@code limit} messages after the given one, oldest first.
+     *
+     * @return empty if the cursor is not buffered and the caller must query the database
+     */
+    public Optional<List<MessageDto>> after(Long activityId, Long afterId, int limit) {
+        ChatBuffer chat = chats.get(activityId);
+        List<MessageDto> messages = null;
+        if (chat != null) {
+            synchronized (chat) {
+                if (chat.usable()) {
+                    int cursor = chat.indexOf(afterId);
+                    if (cursor >= 0) {
+                        messages = chat.slice(cursor + 1, Math.min(chat.size, cursor + 1 + limit));
+                    }
+                }
+            }
+        }
+        return served(messages);
+    }
+
+    /**
+     * The newest {@code limit} messages, oldest first.
+     *
+     * @return empty if the buffer cannot vouch for holding all of them
+     */
+    public Optional<List<MessageDto>> latest(Long activityId, int limit) {
+        ChatBuffer chat = chats.get(activityId);
+        List<MessageDto> messages = null;
+        if (chat != null) {
+            synchronized (chat) {
+                if (chat.usable() && (chat.size >= limit || chat.complete)) {
+                    messages = chat.slice(Math.max(0, chat.size - limit), chat.size);
+                }
+            }
+        }
+        return served(messages);
+    }
+
+    /**
+     * Drop the chat's buffer, now and again once the current transaction completes. Call
+     * when deleting any of its messages, so a read between the two cannot re-seed it with
+     * rows that are about to go.
+     */
+    public void evict(Long activityId) {
+        retire(activityId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    retire(activityId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        chats.forEach((activityId, chat) -> {
+            synchronized (chat) {
+                if (now - chat.lastUsedAt >= idleMillis) {
+                    chat.retired = true;
+                    chats.remove(activityId, chat);
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("chats", chats.size());
+        stats.put("maxChats", maxChats);
+        stats.put("capacity", capacity);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("seeds", seeds.sum());
+        return stats;
+    }
+
+    private void retire(Long activityId) {
+        ChatBuffer chat = chats.remove(activityId);
+        if (chat != null) {
+            synchronized (chat) {
+                chat.retired = true;
+            }
+        }
+    }
+
+    private void append(MessageDto message) {
+        Long activityId = message.getActivityId();
+        ChatBuffer chat = chats.get(activityId);
+        if (chat == null) {
+            if (chats.size() >= maxChats) {
+                return;
+            }
+            chat = chats.computeIfAbsent(activityId, ChatBuffer::new);
+        }
+        synchronized (chat) {
+            // A retired buffer is out of the map; the next one seeds from the database,
+            // where this message already is
+            if (!chat.retired) {
+                chat.add(message);
+                chat.lastUsedAt = clock.getAsLong();
+            }
+        }
+    }
+
+    private Optional<List<MessageDto>> served(List<MessageDto> messages) {
+        if (messages == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(messages);
+    }
+
+    /**
+     * Ring of messages sorted by {@link #ORDER}. Guarded by its own monitor.
+     */
+    private final class ChatBuffer {
+        final Long activityId;
+        final MessageDto[] ring = new MessageDto[capacity];
+        int head;
+        int size;
+        boolean seeded;
+        // Holds the chat's whole history, so any page of it can be served
+        boolean complete;
+        boolean retired;
+        // Time of the last message appended; reads don't keep a buffer alive
+        long lastUsedAt = clock.getAsLong();
+
+        ChatBuffer(Long activityId) {
+            this.activityId = activityId;
+        }
+
+        boolean usable() {
+            if (retired) {
+                return false;
+            }
+            if (!seeded) {
+                // Runs after the buffer is in the map, so every message committed before
+                // this query is in its result and every later one is appended
+                List<MessageDto> newest = messageRepository.findLatestRows(activityId, PageRequest.of(0, capacity));
+                complete = newest.size() < capacity;
+                newest.forEach(this::add);
+                seeded = true;
+                seeds.increment();
+            }
+            return true;
+        }
+
+        void add(MessageDto message) {
+            // By id: a row read back from the database has a coarser createdAt than the
+            // copy recorded on send
+            if (indexOf(message.getId()) >= 0) {
+                return;
+            }
+            int pos = size;
+            while (pos > 0 && ORDER.compare(get(pos - 1), message) > 0) {
+                pos--;
+            }
+            if (size == capacity) {
+                // Drop the oldest; a message older than all of them falls below the
+                // buffer's range instead
+                complete = false;
+                if (pos == 0) {
+                    return;
+                }
+                head = (head + 1) % capacity;
+                size--;
+                pos--;
+            }
+            for (int i = size; i > pos; i--) {
+                set(i, get(i - 1));
+            }
+            set(pos, message);
+            size++;
+        }
+
+        int indexOf(Long messageId) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (get(i).getId().equals(messageId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        List<MessageDto> slice(int from, int to) {
+            List<MessageDto> messages = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                messages.add(get(i));
+            }
+            return messages;
+        }
+
+        private MessageDto get(int i) {
+            return ring[(head + i) % capacity];
+        }
+
+        private void set(int i, MessageDto message) {
+            ring[(head + i) % capacity] = message;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gathr.service.fraud;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sliding-window abuse counters per user, for real-time checks.
+ *
+ * Counts are seeded from the database at startup and incremented by the services that
+ * create activities and reports. On a single instance they are upper bounds: an event is
+ * counted even if its transaction later rolls back, and buckets round the window
+ * outwards. A count below a threshold then proves the database count is too, and only
+ * counts at or above it need confirming with a query.
+ *
+ * An instance only sees the events it handled, so with several instances a low local
+ * count proves nothing. The counters are therefore off unless
+ * {@code gathr.fraud.abuse-counters.single-instance} is set, and {@link #mayReach} always
+ * sends the caller to the database.
+ */
+@Component
+public class AbuseCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbuseCounters.class);
+
+    // Counted signals; the no-show rule is over a user's lifetime, which no window bounds
+    private static final Map<AbuseSignal, String> SEED_SQL = new EnumMap<>(Map.of(
+            AbuseSignal.ACTIVITY_CREATED,
+            "SELECT created_by, date_trunc('hour', created_at), COUNT(*) FROM activities " +
+            "WHERE created_at >= ? AND created_by IS NOT NULL GROUP BY 1, 2",
+            AbuseSignal.REPORT_RECEIVED,
+            "SELECT target_user_id, date_trunc('hour', created_at), COUNT(*) FROM reports " +
+            "WHERE created_at >= ? AND target_user_id IS NOT NULL GROUP BY 1, 2"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean singleInstance;
+    private final Map<AbuseSignal, Map<Long, SlidingWindowCounter>> counters = new EnumMap<>(AbuseSignal.class);
+    private volatile boolean seeded;
+
+    public AbuseCounters(JdbcTemplate jdbcTemplate,
+            @Value("${gathr.fraud.abuse-counters.single-instance:false}") boolean singleInstance) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.singleInstance = singleInstance;
+        for (AbuseSignal signal : SEED_SQL.keySet()) {
+            counters.put(signal, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!singleInstance) {
+            logger.info("Abuse counters disabled; set gathr.fraud.abuse-counters.single-instance on single-instance deployments");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (AbuseSignal signal : SEED_SQL.keySet()) {
+                Timestamp since = Timestamp.valueOf(now.minus(signal.window()));
+                jdbcTemplate.query(SEED_SQL.get(signal), rs -> {
+                    add(signal, rs.getLong(1), rs.getTimestamp(2).getTime(), rs.getInt(3));
+                }, since);
+            }
+            seeded = true;
+            logger.info("Seeded abuse counters in {} ms", System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Failed to seed abuse counters, real-time checks will query the database", e);
+        }
+    }
+
+    public void record(AbuseSignal signal, Long userId) {
+        if (singleInstance && userId != null && counters.containsKey(signal)) {
+            add(signal, userId, System.currentTimeMillis(), 1);
+        }
+    }
+
+    /**
+     * Upper bound on the events this instance saw for the user within the signal's window.
+     */
+    public int count(AbuseSignal signal, Long userId) {
+        Map<Long, SlidingWindowCounter> byUser = counters.get(signal);
+        SlidingWindowCounter counter = byUser != null ? byUser.get(userId) : null;
+        return counter != null ? counter.count(System.currentTimeMillis()) : 0;
+    }
+
+    /**
+     * Whether the user's count may have reached {@code threshold}. True means the caller
+     * should confirm against the database. False is definitive, and only ever returned on
+     * a single instance once the counters have been seeded.
+     */
+    public boolean mayReach(AbuseSignal signal, Long userId, int threshold) {
+        return !seeded || count(signal, userId) >= threshold;
+    }
+
+    /**
+     * Drop counters whose window no longer holds any events.
+     */
+    @Scheduled(fixedDelay = 600000) // Every 10 minutes
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Map<Long, SlidingWindowCounter> byUser : counters.values()) {
+            // Per-key compute so a concurrent add never lands on a counter being dropped
+            for (Long userId : byUser.keySet()) {
+                byUser.computeIfPresent(userId, (k, counter) -> counter.count(now) == 0 ? null : counter);
+            }
+        }
+    }
+
+    private void add(AbuseSignal signal, long userId, long timeMillis, int n) {
+        counters.get(signal).compute(userId, (k, counter) -> {
+            SlidingWindowCounter target = counter != null ? counter : signal.newCounter();
+            target.add(timeMillis, n);
+            return target;
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.gathr.service.fraud;
+
+import java.time.Duration;
+
+/**
+ * Per-user abuse events. Those with a window are counted in memory by {@link AbuseCounters}.
+ */
+public enum AbuseSignal {
+    ACTIVITY_CREATED(Duration.ofDays(RiskScoring.ACTIVITY_WINDOW_DAYS), 24), // hourly buckets
+    REPORT_RECEIVED(Duration.ofDays(7), 28),                                 // 6-hour buckets
+    NO_SHOW(null, 0);                                                        // lifetime rule; not counted
+
+    private final Duration window;
+    private final int buckets;
+
+    AbuseSignal(Duration window, int buckets) {
+        this.window = window;
+        this.buckets = buckets;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(window, buckets);
+    }
+}
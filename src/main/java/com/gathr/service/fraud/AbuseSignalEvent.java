@@ -0,0 +1,10 @@
+package com.gathr.service.fraud;
+
+/**
+ * Published when an abuse signal is recorded against {@code userId}, so the user's fraud
+ * risk can be re-evaluated once the triggering transaction has committed.
+ */
+public record AbuseSignalEvent(
+        Long userId,
+        AbuseSignal signal
+) {}
@@ -0,0 +1,13 @@
+package com.gathr.service.fraud;
+
+/**
+ * A detection_rules row compiled for evaluation.
+ */
+record CompiledRule(
+        Long id,
+        String name,
+        RuleCategory category,
+        int riskDelta,
+        String action,
+        RulePredicate predicate
+) {}
@@ -0,0 +1,112 @@
+package com.gathr.service.fraud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Locale;
+
+/**
+ * Compiles a rule's condition_type + condition_params into a {@link RulePredicate} tree.
+ *
+ * Supported condition types:
+ * - NO_CONTACTS: user has not uploaded contacts
+ * - IP_PLACEHOLDER: never matches (reserved for IP-based checks)
+ * - THRESHOLD: {"feature": "REPORTS_30D", "op": ">=", "value": 3}
+ * - ALL / ANY: {"conditions": [ {"type": "THRESHOLD", ...}, ... ]}
+ * - NOT: {"condition": {"type": ..., ...}}
+ *
+ * Nested conditions name their type in a "type" field. Invalid definitions fail here,
+ * once, instead of on every evaluation.
+ */
+final class DetectionRuleCompiler {
+
+    private DetectionRuleCompiler() {
+    }
+
+    static RulePredicate compile(String conditionType, JsonNode params) {
+        String type = conditionType != null ? conditionType.trim().toUpperCase(Locale.ROOT) : "";
+        return switch (type) {
+            case "NO_CONTACTS" -> features -> features.get(RiskFeature.HAS_CONTACTS) == 0;
+            case "IP_PLACEHOLDER" -> RulePredicate.NEVER;
+            case "THRESHOLD" -> threshold(params);
+            case "ALL" -> all(children(params));
+            case "ANY" -> any(children(params));
+            case "NOT" -> not(compileNode(required(params, "condition")));
+            default -> throw new IllegalArgumentException("Unknown condition type: " + conditionType);
+        };
+    }
+
+    private static RulePredicate compileNode(JsonNode node) {
+        return compile(required(node, "type").asText(), node);
+    }
+
+    private static RulePredicate threshold(JsonNode params) {
+        RiskFeature feature;
+        try {
+            feature = RiskFeature.valueOf(required(params, "feature").asText().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown feature: " + params.get("feature").asText(), e);
+        }
+        JsonNode valueNode = required(params, "value");
+        if (!valueNode.isNumber()) {
+            throw new IllegalArgumentException("Threshold value must be numeric");
+        }
+        double value = valueNode.asDouble();
+        String op = params.path("op").asText(">=");
+
+        return switch (op) {
+            case ">" -> features -> features.get(feature) > value;
+            case ">=" -> features -> features.get(feature) >= value;
+            case "<" -> features -> features.get(feature) < value;
+            case "<=" -> features -> features.get(feature) <= value;
+            case "==" -> features -> features.get(feature) == value;
+            case "!=" -> features -> features.get(feature) != value;
+            default -> throw new IllegalArgumentException("Unknown operator: " + op);
+        };
+    }
+
+    private static RulePredicate[] children(JsonNode params) {
+        JsonNode conditions = required(params, "conditions");
+        if (!conditions.isArray() || conditions.isEmpty()) {
+            throw new IllegalArgumentException("'conditions' must be a non-empty array");
+        }
+        RulePredicate[] predicates = new RulePredicate[conditions.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = compileNode(conditions.get(i));
+        }
+        return predicates;
+    }
+
+    private static RulePredicate all(RulePredicate[] predicates) {
+        return features -> {
+            for (RulePredicate predicate : predicates) {
+                if (!predicate.test(features)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static RulePredicate any(RulePredicate[] predicates) {
+        return features -> {
+            for (RulePredicate predicate : predicates) {
+                if (predicate.test(features)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static RulePredicate not(RulePredicate predicate) {
+        return features -> !predicate.test(features);
+    }
+
+    private static JsonNode required(JsonNode node, String field) {
+        JsonNode value = node != null ? node.get(field) : null;
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("Missing '" + field + "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,158 @@
+package com.gathr.service.fraud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gathr.entity.DetectionRule;
+import com.gathr.repository.DetectionRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * In-memory detection rule engine.
+ *
+ * Enabled detection_rules rows are compiled once into predicate trees over a
+ * {@link RiskFeatures} vector and swapped in as an immutable snapshot. A poll on the
+ * table's row count, latest updated_at and sum of per-row revisions recompiles them
+ * when rules change, so evaluation never touches the database or parses JSON.
+ */
+@Component
+public class DetectionRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectionRuleEngine.class);
+
+    private final DetectionRuleRepository detectionRuleRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile String loadedVersion;
+
+    public DetectionRuleEngine(DetectionRuleRepository detectionRuleRepository, ObjectMapper objectMapper) {
+        this.detectionRuleRepository = detectionRuleRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // loadedVersion stays unset, so the next poll retries
+            logger.error("Failed to load detection rules; no rules apply until the next poll succeeds", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void reloadIfChanged() {
+        try {
+            if (!Objects.equals(loadedVersion, currentVersion())) {
+                reload();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to check detection rules for changes", e);
+        }
+    }
+
+    /**
+     * Recompile all enabled rules. Rules that fail to compile are skipped and logged;
+     * the rest still take effect.
+     */
+    public synchronized void reload() {
+        // Read the marker first so a change made while loading triggers another reload
+        String version = currentVersion();
+        List<CompiledRule> compiled = new ArrayList<>();
+
+        for (DetectionRule rule : detectionRuleRepository.findByEnabledTrue()) {
+            RuleCategory category = RuleCategory.parse(rule.getCategory());
+            if (category == null) {
+                logger.warn("Skipping rule {}: unknown category {}", rule.getName(), rule.getCategory());
+                continue;
+            }
+            try {
+                JsonNode params = rule.getConditionParams() != null
+                        ? objectMapper.readTree(rule.getConditionParams())
+                        : null;
+                RulePredicate predicate = DetectionRuleCompiler.compile(rule.getConditionType(), params);
+                int delta = rule.getRiskDelta() != null ? rule.getRiskDelta() : 0;
+                compiled.add(new CompiledRule(rule.getId(), rule.getName(), category, delta, rule.getAction(), predicate));
+            } catch (Exception e) {
+                logger.warn("Skipping rule {}: {}", rule.getName(), e.getMessage());
+            }
+        }
+
+        snapshot = new Snapshot(compiled.toArray(new CompiledRule[0]));
+        loadedVersion = version;
+        logger.info("Compiled {} detection rules", compiled.size());
+    }
+
+    /**
+     * Run every compiled rule.
+     */
+    public RuleEvaluation evaluate(RiskFeatures features) {
+        return evaluate(snapshot.all, features);
+    }
+
+    /**
+     * Run only the rules of one category.
+     */
+    public RuleEvaluation evaluate(RiskFeatures features, RuleCategory category) {
+        return evaluate(snapshot.byCategory[category.ordinal()], features);
+    }
+
+    public int ruleCount() {
+        return snapshot.all.length;
+    }
+
+    private static RuleEvaluation evaluate(CompiledRule[] rules, RiskFeatures features) {
+        int[] deltas = new int[RuleCategory.VALUES.length];
+        List<String> matched = null;
+        for (CompiledRule rule : rules) {
+            if (rule.predicate().test(features)) {
+                deltas[rule.category().ordinal()] += rule.riskDelta();
+                if (matched == null) {
+                    matched = new ArrayList<>(2);
+                }
+                matched.add(rule.name());
+            }
+        }
+        return new RuleEvaluation(deltas, matched != null ? matched : List.of());
+    }
+
+    private String currentVersion() {
+        List<Object[]> rows = detectionRuleRepository.findVersion();
+        if (rows.isEmpty()) {
+            return "0";
+        }
+        Object[] row = rows.get(0);
+        return row[0] + "|" + row[1] + "|" + row[2];
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new CompiledRule[0]);
+
+        final CompiledRule[] all;
+        final CompiledRule[][] byCategory;
+
+        Snapshot(CompiledRule[] all) {
+            this.all = all;
+            this.byCategory = new CompiledRule[RuleCategory.VALUES.length][];
+            for (RuleCategory category : RuleCategory.VALUES) {
+                List<CompiledRule> rules = new ArrayList<>();
+                for (CompiledRule rule : all) {
+                    if (rule.category() == category) {
+                        rules.add(rule);
+                    }
+                }
+                byCategory[category.ordinal()] = rules.toArray(new CompiledRule[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.gathr.service.fraud;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.gathr.service.EventLogService;
+import com.gathr.service.user.UserSnapshotCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set-based re-evaluation of many users' fraud risk.
+ *
+ * All scored features for every candidate are read with one statement of grouped
+ * subqueries. Candidates are then scored with {@link RiskScoring} plus the compiled
+ * detection rules of {@link DetectionRuleEngine} in parallel chunks, and
+ * each chunk writes its risk scores, bans and evaluation events with JDBC batches in its
+ * own short transaction. A failed chunk is logged and leaves the other chunks' results in
+ * place.
+ */
+@Component
+public class FraudBatchEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FraudBatchEvaluator.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String FEATURES_SQL =
+            "SELECT rs.user_id, rs.base_score, rs.ring_score, " +
+            "COALESCE(r.recent_reports, 0), COALESCE(r.distinct_reporters, 0), " +
+            "COALESCE(ts.show_ups, 0), COALESCE(ts.no_shows, 0), COALESCE(a.recent_activities, 0), " +
+            "COALESCE(u.contacts_opt_in, false), u.created_at " +
+            "FROM user_risk_scores rs " +
+            "JOIN users u ON u.id = rs.user_id AND u.is_banned = false " +
+            "LEFT JOIN user_trust_stats ts ON ts.user_id = rs.user_id " +
+            "LEFT JOIN (SELECT target_user_id, COUNT(*) AS recent_reports, " +
+            "                  COUNT(DISTINCT reporter_id) AS distinct_reporters " +
+            "           FROM reports WHERE created_at >= ? GROUP BY target_user_id) r " +
+            "       ON r.target_user_id = rs.user_id " +
+            "LEFT JOIN (SELECT created_by, COUNT(*) AS recent_activities " +
+            "           FROM activities WHERE created_at >= ? GROUP BY created_by) a " +
+            "       ON a.created_by = rs.user_id " +
+            "WHERE rs.total_score > ? " +
+            "ORDER BY rs.user_id";
+
+    private static final String UPDATE_SCORE_SQL =
+            "UPDATE user_risk_scores SET report_score = ?, behavior_score = ?, coordination_score = ?, " +
+            "total_score = ?, updated_at = ? " +
+            "WHERE user_id = ?";
+
+    private static final String BAN_SQL =
+            "UPDATE users SET is_banned = true WHERE id = ? AND is_banned = false";
+
+    private static final String EVENT_SQL =
+            "INSERT INTO event_logs (user_id, event_type, event_time, payload, created_at) " +
+            "VALUES (?, 'fraud_evaluation', ?, ?::jsonb, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DetectionRuleEngine detectionRuleEngine;
+    private final RiskTierCache riskTierCache;
+    private final UserSnapshotCache userSnapshots;
+    private final EventLogService eventLogService;
+    private final int parallelism;
+
+    public FraudBatchEvaluator(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DetectionRuleEngine detectionRuleEngine,
+            RiskTierCache riskTierCache,
+            UserSnapshotCache userSnapshots,
+            EventLogService eventLogService,
+            @Value("${gathr.fraud.batch-parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.detectionRuleEngine = detectionRuleEngine;
+        this.riskTierCache = riskTierCache;
+        this.userSnapshots = userSnapshots;
+        this.eventLogService = eventLogService;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Re-score every non-banned user whose total risk score is above {@code threshold}.
+     *
+     * @return number of users evaluated
+     */
+    public int evaluateAbove(int threshold) {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Features> candidates = new ArrayList<>();
+        jdbcTemplate.query(FEATURES_SQL, rs -> {
+            Timestamp createdAt = rs.getTimestamp(10);
+            candidates.add(new Features(
+                    rs.getLong(1), rs.getInt(2), rs.getInt(3),
+                    rs.getLong(4), rs.getLong(5),
+                    rs.getInt(6), rs.getInt(7), rs.getInt(8),
+                    rs.getBoolean(9), createdAt != null ? createdAt.toLocalDateTime() : null));
+        },
+                Timestamp.valueOf(now.minusDays(RiskScoring.REPORT_WINDOW_DAYS)),
+                Timestamp.valueOf(now.minusDays(RiskScoring.ACTIVITY_WINDOW_DAYS)),
+                threshold);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        int banned = 0;
+        int failedChunks = 0;
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int from = 0; from < candidates.size(); from += CHUNK_SIZE) {
+                List<Features> chunk = candidates.subList(from, Math.min(from + CHUNK_SIZE, candidates.size()));
+                futures.add(executor.submit(() -> writeChunk(chunk, now)));
+            }
+            for (Future<Integer> future : futures) {
+                try {
+                    banned += future.get();
+                } catch (Exception e) {
+                    failedChunks++;
+                    logger.error("Fraud batch chunk failed", e);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        logger.info("Daily risk evaluation completed for {} users ({} banned, {} failed chunks) in {} ms",
+                candidates.size(), banned, failedChunks, System.currentTimeMillis() - started);
+        return candidates.size();
+    }
+
+    /**
+     * Score and persist one chunk.
+     *
+     * @return number of users banned
+     */
+    private int writeChunk(List<Features> chunk, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        List<Object[]> scores = new ArrayList<>(chunk.size());
+        List<Object[]> bans = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>(chunk.size());
+        Map<Long, Integer> totals = new HashMap<>();
+        List<Long> banned = new ArrayList<>();
+
+        for (Features f : chunk) {
+            RuleEvaluation rules = detectionRuleEngine.evaluate(f.toRiskFeatures(now));
+            int reportScore = RiskScoring.reportScore(f.recentReports(), f.distinctReporters())
+                    + rules.delta(RuleCategory.HARASSMENT);
+            int behaviorScore = RiskScoring.behaviorScore(f.showUps(), f.noShows(), f.recentActivities())
+                    + rules.delta(RuleCategory.SPAM) + rules.delta(RuleCategory.SERIAL_NO_SHOW);
+            int coordinationScore = f.ringScore() + rules.delta(RuleCategory.COORDINATION);
+            int totalScore = f.baseScore() + reportScore + behaviorScore + coordinationScore;
+            String action = RiskScoring.action(totalScore);
+
+            scores.add(new Object[] { reportScore, behaviorScore, coordinationScore, totalScore, at, f.userId() });
+            totals.put(f.userId(), totalScore);
+            if ("BAN".equals(action)) {
+                bans.add(new Object[] { f.userId() });
+                banned.add(f.userId());
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("totalScore", totalScore);
+            payload.put("action", action);
+            payload.put("actionTaken", !"NONE".equals(action));
+            if (!rules.matchedRules().isEmpty()) {
+                payload.put("matchedRules", rules.matchedRules());
+            }
+            events.add(new Object[] { f.userId(), at, toJson(payload), at });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, scores);
+            if (!bans.isEmpty()) {
+                jdbcTemplate.batchUpdate(BAN_SQL, bans);
+            }
+            jdbcTemplate.batchUpdate(EVENT_SQL, events);
+        });
+        riskTierCache.updateAll(totals, banned);
+        banned.forEach(userSnapshots::invalidate);
+
+        if (!bans.isEmpty()) {
+            logger.warn("Auto-banned {} users in daily risk evaluation", bans.size());
+        }
+        return bans.size();
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return eventLogService.toPayloadJson(payload);
+        } catch (JsonProcessingException e) {
+            // Only numbers, strings and a string list; cannot happen in practice
+            throw new IllegalStateException("Failed to serialize fraud evaluation payload", e);
+        }
+    }
+
+    private record Features(
+            long userId,
+            int baseScore,
+            int ringScore,
+            long recentReports,
+            long distinctReporters,
+            int showUps,
+            int noShows,
+            int recentActivities,
+            boolean hasContacts,
+            LocalDateTime createdAt
+    ) {
+        RiskFeatures toRiskFeatures(LocalDateTime now) {
+            RiskFeatures features = new RiskFeatures()
+                    .set(RiskFeature.HAS_CONTACTS, hasContacts)
+                    .set(RiskFeature.REPORTS_30D, recentReports)
+                    .set(RiskFeature.DISTINCT_REPORTERS_30D, distinctReporters)
+                    .set(RiskFeature.ACTIVITIES_24H, recentActivities)
+                    .set(RiskFeature.RING_SCORE, ringScore)
+                    .attendance(showUps, noShows);
+            if (createdAt != null) {
+                features.set(RiskFeature.ACCOUNT_AGE_DAYS, Duration.between(createdAt, now).toHours() / 24.0);
+            }
+            return features;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.gathr.service.fraud;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly coordinated-abuse ring detection.
+ *
+ * Links users who repeatedly attend the same activities or who uploaded many of the same
+ * contact hashes, finds dense clusters in that graph with {@link RingDetector}, and scores
+ * their members with {@link RiskScoring#coordinationScore}. Clusters whose members
+ * reported the same user together score higher. Scores are written to
+ * user_risk_scores.ring_score and folded into coordination_score and total_score.
+ */
+@Component
+public class RingDetectionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingDetectionJob.class);
+
+    private static final int CO_PARTICIPATION_WINDOW_DAYS = 90;
+    private static final int MIN_SHARED_ACTIVITIES = 2;
+    private static final int MIN_SHARED_CONTACTS = 5;
+    // Hashes in more address books than this are common contacts, not a shared device
+    private static final int MAX_HASH_UPLOADERS = 50;
+    private static final int MAX_ITERATIONS = 20;
+
+    private static final String CO_PARTICIPATION_SQL =
+            "SELECT p1.user_id, p2.user_id, COUNT(*) FROM participations p1 " +
+            "JOIN participations p2 ON p2.activity_id = p1.activity_id AND p2.user_id > p1.user_id " +
+            "WHERE p1.status = 'CONFIRMED' AND p2.status = 'CONFIRMED' AND p1.joined_ts >= ? " +
+            "GROUP BY p1.user_id, p2.user_id HAVING COUNT(*) >= ?";
+
+    private static final String SHARED_CONTACTS_SQL =
+            "WITH shared AS (SELECT phone_hash FROM contact_hashes GROUP BY phone_hash " +
+            "                HAVING COUNT(*) BETWEEN 2 AND ?) " +
+            "SELECT a.user_id, b.user_id, COUNT(*) FROM shared s " +
+            "JOIN contact_hashes a ON a.phone_hash = s.phone_hash " +
+            "JOIN contact_hashes b ON b.phone_hash = s.phone_hash AND b.user_id > a.user_id " +
+            "GROUP BY a.user_id, b.user_id HAVING COUNT(*) >= ?";
+
+    private static final String REPORTS_SQL =
+            "SELECT DISTINCT reporter_id, target_user_id FROM reports " +
+            "WHERE created_at >= ? AND reporter_id IS NOT NULL AND target_user_id IS NOT NULL";
+
+    // Take the previous run's ring scores back out of coordination and total
+    private static final String RESET_SQL =
+            "UPDATE user_risk_scores SET coordination_score = coordination_score - ring_score, " +
+            "total_score = total_score - ring_score, ring_score = 0, updated_at = ? " +
+            "WHERE ring_score <> 0";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_risk_scores (user_id, ring_score, coordination_score, total_score, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET ring_score = EXCLUDED.ring_score, " +
+            "coordination_score = user_risk_scores.coordination_score + EXCLUDED.ring_score, " +
+            "total_score = user_risk_scores.total_score + EXCLUDED.ring_score, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RiskTierCache riskTierCache;
+
+    public RingDetectionJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            RiskTierCache riskTierCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.riskTierCache = riskTierCache;
+    }
+
+    @Scheduled(cron = "0 30 2 * * *") // 2:30 AM daily, ahead of the 3 AM risk re-evaluation
+    public void detectRings() {
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Integer> scores = score(load(now), now);
+            write(scores, now);
+            // Totals were adjusted in SQL, so refresh tiers from the table
+            riskTierCache.reload();
+            logger.info("Ring detection scored {} users in {} ms", scores.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Ring detection failed", e);
+        }
+    }
+
+    private RingDetector load(LocalDateTime now) {
+        RingDetector.Builder builder = RingDetector.builder(1 << 16);
+
+        jdbcTemplate.query(CO_PARTICIPATION_SQL, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+        }, Timestamp.valueOf(now.minusDays(CO_PARTICIPATION_WINDOW_DAYS)), MIN_SHARED_ACTIVITIES);
+
+        jdbcTemplate.query(SHARED_CONTACTS_SQL, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), (float) rs.getInt(3) / MIN_SHARED_CONTACTS);
+        }, MAX_HASH_UPLOADERS, MIN_SHARED_CONTACTS);
+
+        return builder.build();
+    }
+
+    /**
+     * @return coordination score per flagged user
+     */
+    private Map<Long, Integer> score(RingDetector graph, LocalDateTime now) {
+        int[] labels = graph.communities(RiskScoring.RING_MIN_SIZE, MAX_ITERATIONS);
+        RingDetector.CommunityStats stats = graph.stats(labels);
+
+        // Co-reporting only counts within clusters that are already dense
+        Map<Integer, Map<Long, Integer>> reportsByCluster = new HashMap<>();
+        jdbcTemplate.query(REPORTS_SQL, rs -> {
+            int reporter = graph.nodeOf(rs.getLong(1));
+            if (reporter >= 0 && isCandidate(labels[reporter], stats)) {
+                reportsByCluster.computeIfAbsent(labels[reporter], k -> new HashMap<>())
+                        .merge(rs.getLong(2), 1, Integer::sum);
+            }
+        }, Timestamp.valueOf(now.minusDays(RiskScoring.REPORT_WINDOW_DAYS)));
+
+        Map<Integer, Integer> maxCoReporters = new HashMap<>();
+        reportsByCluster.forEach((label, targets) -> {
+            int max = 0;
+            for (Map.Entry<Long, Integer> entry : targets.entrySet()) {
+                // Members reporting each other are not a ring targeting an outsider
+                int target = graph.nodeOf(entry.getKey());
+                if (target < 0 || labels[target] != label) {
+                    max = Math.max(max, entry.getValue());
+                }
+            }
+            maxCoReporters.put(label, max);
+        });
+
+        Map<Long, Integer> scores = new HashMap<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int label = labels[node];
+            if (!isCandidate(label, stats)) {
+                continue;
+            }
+            int score = RiskScoring.coordinationScore(stats.size(label), stats.density(label),
+                    maxCoReporters.getOrDefault(label, 0));
+            if (score > 0) {
+                scores.put(graph.userId(node), score);
+            }
+        }
+
+        int clusters = 0;
+        for (int label = 0; label < graph.nodeCount(); label++) {
+            if (isCandidate(label, stats)) {
+                clusters++;
+            }
+        }
+        logger.info("Ring detection: {} users, {} links, {} dense clusters",
+                graph.nodeCount(), graph.edgeCount(), clusters);
+        return scores;
+    }
+
+    private static boolean isCandidate(int label, RingDetector.CommunityStats stats) {
+        return label >= 0
+                && stats.size(label) >= RiskScoring.RING_MIN_SIZE
+                && stats.density(label) >= RiskScoring.RING_MIN_DENSITY;
+    }
+
+    private void write(Map<Long, Integer> scores, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            int score = entry.getValue();
+            rows.add(new Object[] { entry.getKey(), score, score, score, at });
+        }
+
+        // One transaction, so readers never see a mix of old and new ring scores
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(RESET_SQL, at);
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            }
+        });
+    }
+}
@@ -0,0 +1,335 @@
+package com.gathr.service.fraud;
+
+import java.util.Arrays;
+
+/**
+ * Dense-cluster detection over an undirected, weighted user graph held in primitive arrays.
+ *
+ * Users are mapped to dense node indices and edges stored CSR-style in both directions,
+ * with parallel edges between the same pair merged. Union-find splits the graph into
+ * connected components so that components too small to hold a ring are skipped, and
+ * label propagation then splits the rest into densely linked communities.
+ */
+final class RingDetector {
+
+    private final long[] userIds; // sorted, indexed by node
+    private final int[] offsets;  // node -> first edge, length nodeCount + 1
+    private final int[] targets;
+    private final float[] weights;
+
+    private RingDetector(long[] userIds, int[] offsets, int[] targets, float[] weights) {
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    static Builder builder(int expectedEdges) {
+        return new Builder(expectedEdges);
+    }
+
+    int nodeCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Number of distinct linked pairs.
+     */
+    int edgeCount() {
+        return targets.length / 2;
+    }
+
+    long userId(int node) {
+        return userIds[node];
+    }
+
+    /**
+     * @return node index of the user, or -1 if the user has no edges
+     */
+    int nodeOf(long userId) {
+        int node = Arrays.binarySearch(userIds, userId);
+        return node >= 0 ? node : -1;
+    }
+
+    /**
+     * Connected components by union-find with path halving and union by size.
+     *
+     * @return representative node per node
+     */
+    int[] components() {
+        int n = userIds.length;
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (u < v) {
+                    int a = find(parent, u);
+                    int b = find(parent, v);
+                    if (a != b) {
+                        if (size[a] < size[b]) {
+                            int t = a;
+                            a = b;
+                            b = t;
+                        }
+                        parent[b] = a;
+                        size[a] += size[b];
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            parent[i] = find(parent, i);
+        }
+        return parent;
+    }
+
+    /**
+     * Weighted label propagation. Each node starts with its own label and repeatedly takes
+     * the label carrying the most edge weight among its neighbours, keeping its current
+     * label on ties and otherwise preferring the smallest, until no label changes.
+     *
+     * @param minSize       components with fewer nodes are not labelled
+     * @param maxIterations upper bound on passes over the nodes
+     * @return community label per node (a node index), or -1 for skipped nodes
+     */
+    int[] communities(int minSize, int maxIterations) {
+        int n = userIds.length;
+        int[] component = components();
+        int[] componentSize = new int[n];
+        for (int i = 0; i < n; i++) {
+            componentSize[component[i]]++;
+        }
+
+        int[] labels = new int[n];
+        int maxDegree = 0;
+        for (int i = 0; i < n; i++) {
+            labels[i] = componentSize[component[i]] >= minSize ? i : -1;
+            maxDegree = Math.max(maxDegree, offsets[i + 1] - offsets[i]);
+        }
+
+        // Per-label weight accumulator, reset after each node via the touched list
+        float[] score = new float[n];
+        int[] touched = new int[maxDegree];
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            boolean changed = false;
+            for (int u = 0; u < n; u++) {
+                if (labels[u] < 0) {
+                    continue;
+                }
+
+                int touchedCount = 0;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int label = labels[targets[e]];
+                    if (score[label] == 0f) {
+                        touched[touchedCount++] = label;
+                    }
+                    score[label] += weights[e];
+                }
+
+                int current = labels[u];
+                int best = current;
+                float bestScore = score[current];
+                for (int i = 0; i < touchedCount; i++) {
+                    int label = touched[i];
+                    float s = score[label];
+                    if (s > bestScore || (s == bestScore && label < best && best != current)) {
+                        best = label;
+                        bestScore = s;
+                    }
+                    score[label] = 0f;
+                }
+
+                if (best != current) {
+                    labels[u] = best;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Size and internal link count of every community.
+     */
+    CommunityStats stats(int[] labels) {
+        int n = userIds.length;
+        int[] sizes = new int[n];
+        int[] internalEdges = new int[n];
+        for (int u = 0; u < n; u++) {
+            int label = labels[u];
+            if (label < 0) {
+                continue;
+            }
+            sizes[label]++;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (u < v && labels[v] == label) {
+                    internalEdges[label]++;
+                }
+            }
+        }
+        return new CommunityStats(sizes, internalEdges);
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Per-label community statistics, indexed by label.
+     */
+    record CommunityStats(int[] sizes, int[] internalEdges) {
+
+        int size(int label) {
+            return sizes[label];
+        }
+
+        /**
+         * Fraction of member pairs that are directly linked.
+         */
+        double density(int label) {
+            long size = sizes[label];
+            return size < 2 ? 0 : internalEdges[label] / (size * (size - 1) / 2.0);
+        }
+    }
+
+    static final class Builder {
+        private long[] sources;
+        private long[] destinations;
+        private float[] edgeWeights;
+        private int size;
+
+        private Builder(int expectedEdges) {
+            int capacity = Math.max(16, expectedEdges);
+            sources = new long[capacity];
+            destinations = new long[capacity];
+            edgeWeights = new float[capacity];
+        }
+
+        /**
+         * Add an undirected link. Self-links and non-positive weights are ignored; repeated
+         * links between the same pair are summed.
+         */
+        Builder add(long a, long b, float weight) {
+            if (a == b || weight <= 0f) {
+                return this;
+            }
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+            sources[size] = a;
+            destinations[size] = b;
+            edgeWeights[size] = weight;
+            size++;
+            return this;
+        }
+
+        RingDetector build() {
+            // Dense node ids: sorted distinct user ids
+            long[] ids = new long[size * 2];
+            System.arraycopy(sources, 0, ids, 0, size);
+            System.arraycopy(destinations, 0, ids, size, size);
+            Arrays.sort(ids);
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (n == 0 || ids[i] != ids[n - 1]) {
+                    ids[n++] = ids[i];
+                }
+            }
+            ids = Arrays.copyOf(ids, n);
+
+            // Both directions of every link, bucketed by source
+            int[] from = new int[size];
+            int[] to = new int[size];
+            int[] degree = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                from[i] = Arrays.binarySearch(ids, sources[i]);
+                to[i] = Arrays.binarySearch(ids, destinations[i]);
+                degree[from[i]]++;
+                degree[to[i]]++;
+            }
+            int[] start = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                start[i + 1] = start[i] + degree[i];
+            }
+            int[] cursor = Arrays.copyOf(start, n);
+            int[] rawTargets = new int[size * 2];
+            float[] rawWeights = new float[size * 2];
+            for (int i = 0; i < size; i++) {
+                rawTargets[cursor[from[i]]] = to[i];
+                rawWeights[cursor[from[i]]++] = edgeWeights[i];
+                rawTargets[cursor[to[i]]] = from[i];
+                rawWeights[cursor[to[i]]++] = edgeWeights[i];
+            }
+
+            // Sort each row by target and merge parallel links
+            int[] offsets = new int[n + 1];
+            int out = 0;
+            for (int u = 0; u < n; u++) {
+                int rowStart = start[u];
+                int rowEnd = start[u + 1];
+                sortRow(rawTargets, rawWeights, rowStart, rowEnd);
+                offsets[u] = out;
+                for (int e = rowStart; e < rowEnd; e++) {
+                    if (out > offsets[u] && rawTargets[out - 1] == rawTargets[e]) {
+                        rawWeights[out - 1] += rawWeights[e];
+                    } else {
+                        rawTargets[out] = rawTargets[e];
+                        rawWeights[out] = rawWeights[e];
+                        out++;
+                    }
+                }
+            }
+            offsets[n] = out;
+
+            return new RingDetector(ids, offsets,
+                    Arrays.copyOf(rawTargets, out), Arrays.copyOf(rawWeights, out));
+        }
+
+        private static void sortRow(int[] targets, float[] weights, int from, int to) {
+            if (to - from > 16) {
+                // Hubs: pack (target, weight bits) so a primitive sort orders by target
+                long[] packed = new long[to - from];
+                for (int i = from; i < to; i++) {
+                    packed[i - from] = ((long) targets[i] << 32) | (Float.floatToRawIntBits(weights[i]) & 0xFFFFFFFFL);
+                }
+                Arrays.sort(packed);
+                for (int i = from; i < to; i++) {
+                    targets[i] = (int) (packed[i - from] >>> 32);
+                    weights[i] = Float.intBitsToFloat((int) packed[i - from]);
+                }
+                return;
+            }
+            for (int i = from + 1; i < to; i++) {
+                int target = targets[i];
+                float weight = weights[i];
+                int j = i - 1;
+                while (j >= from && targets[j] > target) {
+                    targets[j + 1] = targets[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                targets[j + 1] = target;
+                weights[j + 1] = weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.gathr.service.fraud;
+
+/**
+ * Named slots of a {@link RiskFeatures} vector. Detection rules refer to these by name.
+ */
+public enum RiskFeature {
+    HAS_CONTACTS,
+    ACCOUNT_AGE_DAYS,
+    REPORTS_30D,
+    DISTINCT_REPORTERS_30D,
+    SHOW_UPS,
+    NO_SHOWS,
+    NO_SHOW_RATE,
+    ACTIVITIES_24H,
+    RING_SCORE;
+
+    static final RiskFeature[] VALUES = values();
+}
@@ -0,0 +1,33 @@
+package com.gathr.service.fraud;
+
+/**
+ * Typed feature vector evaluated by {@link DetectionRuleEngine}.
+ * Booleans are stored as 0/1; unset features read as 0.
+ */
+public final class RiskFeatures {
+
+    private final double[] values = new double[RiskFeature.VALUES.length];
+
+    public RiskFeatures set(RiskFeature feature, double value) {
+        values[feature.ordinal()] = value;
+        return this;
+    }
+
+    public RiskFeatures set(RiskFeature feature, boolean value) {
+        return set(feature, value ? 1 : 0);
+    }
+
+    /**
+     * Set show-ups, no-shows and the derived no-show rate together.
+     */
+    public RiskFeatures attendance(int showUps, int noShows) {
+        int total = showUps + noShows;
+        set(RiskFeature.SHOW_UPS, showUps);
+        set(RiskFeature.NO_SHOWS, noShows);
+        return set(RiskFeature.NO_SHOW_RATE, total > 0 ? (double) noShows / total : 0);
+    }
+
+    public double get(RiskFeature feature) {
+        return values[feature.ordinal()];
+    }
+}
@@ -0,0 +1,103 @@
+package com.gathr.service.fraud;
+
+/**
+ * Risk scoring rules shared by the real-time evaluation in FraudDetectionService and
+ * the daily batch evaluator, so both paths score a user identically.
+ */
+public final class RiskScoring {
+
+    public static final int RISK_SCORE_WARN = 30;
+    public static final int RISK_SCORE_SOFT_BAN = 50;
+    public static final int RISK_SCORE_RESTRICTED = 70;
+    public static final int RISK_SCORE_AUTO_BAN = 80;
+
+    // Look-back windows for the scored features
+    public static final int REPORT_WINDOW_DAYS = 30;
+    public static final int ACTIVITY_WINDOW_DAYS = 1;
+
+    // Smallest and sparsest cluster the ring detection job scores; looser limits match
+    // ordinary paths and stars of three or four users in a sparse graph
+    public static final int RING_MIN_SIZE = 4;
+    public static final double RING_MIN_DENSITY = 2.0 / 3;
+
+    private RiskScoring() {
+    }
+
+    /**
+     * Score from reports received within {@link #REPORT_WINDOW_DAYS}.
+     */
+    public static int reportScore(long recentReports, long distinctReporters) {
+        int score = 0;
+
+        // Base score from report count
+        score += (int) Math.min(recentReports * 5, 25);
+
+        // Bonus for distinct reporters (more concerning)
+        if (distinctReporters >= 3) {
+            score += 15;
+        } else if (distinctReporters >= 2) {
+            score += 10;
+        }
+
+        return score;
+    }
+
+    /**
+     * Score from no-show rate and activities created within {@link #ACTIVITY_WINDOW_DAYS}.
+     */
+    public static int behaviorScore(int showUps, int noShows, int recentActivities) {
+        int score = 0;
+
+        // No-show rate
+        int totalMeetings = showUps + noShows;
+        if (totalMeetings >= 3) {
+            double noShowRate = (double) noShows / totalMeetings;
+            if (noShowRate > 0.5) {
+                score += 20; // Very unreliable
+            } else if (noShowRate > 0.3) {
+                score += 10; // Somewhat unreliable
+            }
+        }
+
+        // Activity creation spam (checked elsewhere but factor into overall)
+        if (recentActivities > 3) {
+            score += 5;
+        }
+
+        return score;
+    }
+
+    /**
+     * Score for a member of a cluster found by ring detection.
+     *
+     * @param ringSize       members in the cluster
+     * @param density        fraction of member pairs directly linked
+     * @param maxCoReporters most members who reported the same user within {@link #REPORT_WINDOW_DAYS}
+     */
+    public static int coordinationScore(int ringSize, double density, int maxCoReporters) {
+        if (ringSize < RING_MIN_SIZE || density < RING_MIN_DENSITY) {
+            return 0;
+        }
+
+        // Dense cluster on its own is only a weak signal (friends meet repeatedly too)
+        int score = (int) Math.round(20 * density);
+
+        // Cluster reporting the same user together
+        if (maxCoReporters >= 3) {
+            score += 20;
+        }
+
+        return Math.min(score, 40);
+    }
+
+    public static String action(int totalScore) {
+        if (totalScore >= RISK_SCORE_AUTO_BAN) {
+            return "BAN";
+        } else if (totalScore >= RISK_SCORE_SOFT_BAN) {
+            return "SOFT_BAN";
+        } else if (totalScore >= RISK_SCORE_WARN) {
+            return "WARN";
+        }
+        return "NONE";
+    }
+}
@@ -0,0 +1,29 @@
+package com.gathr.service.fraud;
+
+/**
+ * Coarse risk level used to gate actions on the request path, ordered by severity.
+ */
+public enum RiskTier {
+    NONE,
+    WARN,       // total score >= RISK_SCORE_WARN
+    SOFT_BAN,   // total score >= RISK_SCORE_SOFT_BAN: no new activities
+    RESTRICTED, // total score >= RISK_SCORE_RESTRICTED: no joining or messaging
+    BAN;        // total score >= RISK_SCORE_AUTO_BAN, or banned
+
+    public static RiskTier of(int totalScore) {
+        if (totalScore >= RiskScoring.RISK_SCORE_AUTO_BAN) {
+            return BAN;
+        } else if (totalScore >= RiskScoring.RISK_SCORE_RESTRICTED) {
+            return RESTRICTED;
+        } else if (totalScore >= RiskScoring.RISK_SCORE_SOFT_BAN) {
+            return SOFT_BAN;
+        } else if (totalScore >= RiskScoring.RISK_SCORE_WARN) {
+            return WARN;
+        }
+        return NONE;
+    }
+
+    public boolean atLeast(RiskTier other) {
+        return compareTo(other) >= 0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.gathr.service.fraud;
+
+import com.gathr.entity.UserRiskScore;
+import com.gathr.repository.UserRepository;
+import com.gathr.repository.UserRiskScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory risk tier per user for request-path gating.
+ *
+ * Only users above {@link RiskTier#NONE} are held, plus the set of banned users, so the
+ * maps stay small and a lookup is a single hash probe. Every risk score or ban write
+ * goes through {@link #update} or {@link #markBanned}, applied once the writing
+ * transaction commits. A periodic reload repairs anything written outside those paths.
+ */
+@Component
+public class RiskTierCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskTierCache.class);
+
+    private static final String LOAD_SCORES_SQL =
+            "SELECT user_id, total_score FROM user_risk_scores WHERE total_score >= ?";
+
+    private static final String LOAD_BANNED_SQL =
+            "SELECT id FROM users WHERE is_banned = true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserRiskScoreRepository userRiskScoreRepository;
+
+    private final Map<Long, RiskTier> tiers = new ConcurrentHashMap<>();
+    private final Set<Long> banned = ConcurrentHashMap.newKeySet();
+    // Users written while a reload was reading, whose fresher entries the reload must keep
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloading;
+    private volatile boolean loaded;
+
+    public RiskTierCache(JdbcTemplate jdbcTemplate, UserRepository userRepository,
+            UserRiskScoreRepository userRiskScoreRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.userRiskScoreRepository = userRiskScoreRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000) // Every 10 minutes
+    public synchronized void reload() {
+        long started = System.currentTimeMillis();
+        try {
+            dirty.clear();
+            reloading = true;
+
+            Map<Long, RiskTier> loadedTiers = new HashMap<>();
+            jdbcTemplate.query(LOAD_SCORES_SQL, rs -> {
+                loadedTiers.put(rs.getLong(1), RiskTier.of(rs.getInt(2)));
+            }, RiskScoring.RISK_SCORE_WARN);
+            Set<Long> loadedBanned = new HashSet<>(jdbcTemplate.queryForList(LOAD_BANNED_SQL, Long.class));
+
+            loadedTiers.forEach((userId, tier) -> {
+                if (!dirty.contains(userId)) {
+                    tiers.put(userId, tier);
+                }
+            });
+            tiers.keySet().removeIf(userId -> !loadedTiers.containsKey(userId) && !dirty.contains(userId));
+            banned.addAll(loadedBanned);
+            banned.removeIf(userId -> !loadedBanned.contains(userId) && !dirty.contains(userId));
+
+            loaded = true;
+            logger.info("Loaded risk tiers: {} elevated, {} banned in {} ms",
+                    tiers.size(), banned.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Failed to load risk tiers, gating will query the database", e);
+        } finally {
+            reloading = false;
+            dirty.clear();
+        }
+    }
+
+    public RiskTier tier(Long userId) {
+        if (userId == null) {
+            return RiskTier.NONE;
+        }
+        if (!loaded) {
+            return lookup(userId);
+        }
+        if (banned.contains(userId)) {
+            return RiskTier.BAN;
+        }
+        RiskTier tier = tiers.get(userId);
+        return tier != null ? tier : RiskTier.NONE;
+    }
+
+    public boolean isAtLeast(Long userId, RiskTier tier) {
+        return tier(userId).atLeast(tier);
+    }
+
+    /**
+     * Write-through after a user's total risk score was saved.
+     */
+    public void update(Long userId, int totalScore) {
+        RiskTier tier = RiskTier.of(totalScore);
+        afterCommit(() -> {
+            markDirty(userId);
+            if (tier == RiskTier.NONE) {
+                tiers.remove(userId);
+            } else {
+                tiers.put(userId, tier);
+            }
+        });
+    }
+
+    /**
+     * Write-through after a user was banned.
+     */
+    public void markBanned(Long userId) {
+        afterCommit(() -> {
+            markDirty(userId);
+            banned.add(userId);
+        });
+    }
+
+    /**
+     * Write-through after a batch job rewrote many scores with SQL.
+     */
+    public void updateAll(Map<Long, Integer> totalScores, List<Long> bannedUserIds) {
+        totalScores.forEach(this::update);
+        bannedUserIds.forEach(this::markBanned);
+    }
+
+    private void markDirty(Long userId) {
+        if (reloading) {
+            dirty.add(userId);
+        }
+    }
+
+    private RiskTier lookup(Long userId) {
+        boolean isBanned = userRepository.findById(userId)
+                .map(user -> Boolean.TRUE.equals(user.getIsBanned()))
+                .orElse(false);
+        if (isBanned) {
+            return RiskTier.BAN;
+        }
+        return userRiskScoreRepository.findById(userId)
+                .map(UserRiskScore::getTotalScore)
+                .map(RiskTier::of)
+                .orElse(RiskTier.NONE);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
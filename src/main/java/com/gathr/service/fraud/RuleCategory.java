@@ -0,0 +1,35 @@
+package com.gathr.service.fraud;
+
+import java.util.Locale;
+
+/**
+ * Detection rule categories, each feeding one component of the user's risk score.
+ */
+public enum RuleCategory {
+    FAKE_ACCOUNT,   // base score
+    SPAM,           // behavior score
+    SERIAL_NO_SHOW, // behavior score
+    HARASSMENT,     // report score
+    COORDINATION;   // coordination score
+
+    static final RuleCategory[] VALUES = values();
+
+    /**
+     * Parse a detection_rules.category value, accepting the older long-form names.
+     *
+     * @return the category, or null if unknown
+     */
+    public static RuleCategory parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "FAKE_ACCOUNT" -> FAKE_ACCOUNT;
+            case "SPAM", "SPAM_ACTIVITY" -> SPAM;
+            case "SERIAL_NO_SHOW", "NO_SHOW" -> SERIAL_NO_SHOW;
+            case "HARASSMENT" -> HARASSMENT;
+            case "COORDINATION", "COORDINATED_ABUSE" -> COORDINATION;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.gathr.service.fraud;
+
+import java.util.List;
+
+/**
+ * Outcome of running compiled rules over one feature vector.
+ *
+ * @param deltas       summed risk deltas of matched rules, indexed by {@link RuleCategory} ordinal
+ * @param matchedRules names of the rules that matched
+ */
+public record RuleEvaluation(int[] deltas, List<String> matchedRules) {
+
+    public int delta(RuleCategory category) {
+        return deltas[category.ordinal()];
+    }
+}
@@ -0,0 +1,12 @@
+package com.gathr.service.fraud;
+
+/**
+ * A compiled rule condition.
+ */
+@FunctionalInterface
+public interface RulePredicate {
+
+    RulePredicate NEVER = features -> false;
+
+    boolean test(RiskFeatures features);
+}
@@ -0,0 +1,49 @@
+package com.gathr.service.fraud;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Event count over a sliding time window, kept in a fixed ring of time buckets.
+ *
+ * The ring holds one bucket more than the window spans, so {@link #count} covers the
+ * whole window plus part of the oldest bucket: it never under-counts events inside the
+ * window, and over-counts by at most one bucket's worth.
+ */
+final class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final long[] buckets; // bucket number held by each slot
+    private final int[] counts;
+
+    SlidingWindowCounter(Duration window, int bucketCount) {
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.buckets = new long[bucketCount + 1];
+        this.counts = new int[bucketCount + 1];
+        Arrays.fill(buckets, Long.MIN_VALUE);
+    }
+
+    synchronized void add(long timeMillis, int n) {
+        long bucket = timeMillis / bucketMillis;
+        int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+        if (buckets[slot] == bucket) {
+            counts[slot] += n;
+        } else if (buckets[slot] < bucket) {
+            buckets[slot] = bucket;
+            counts[slot] = n;
+        }
+        // else: older than the bucket now in this slot, so already outside the window
+    }
+
+    synchronized int count(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long oldest = current - buckets.length + 1;
+        int total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] >= oldest && buckets[i] <= current) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+}
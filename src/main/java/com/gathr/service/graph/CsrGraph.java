@@ -0,0 +1,152 @@
+package com.gathr.service.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed-sparse-row adjacency for the social graph.
+ *
+ * Node ids are kept sorted so a user's row is found by binary search, and each row's
+ * targets are sorted as well, so a single edge lookup is two binary searches over
+ * primitive arrays.
+ */
+final class CsrGraph {
+
+    static final CsrGraph EMPTY = new CsrGraph(new long[0], new int[] { 0 }, new long[0], new float[0]);
+
+    private final long[] nodeIds;
+    private final int[] offsets;
+    private final long[] targets;
+    private final float[] strengths;
+
+    private CsrGraph(long[] nodeIds, int[] offsets, long[] targets, float[] strengths) {
+        this.nodeIds = nodeIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.strengths = strengths;
+    }
+
+    static Builder builder(int expectedEdges) {
+        return new Builder(expectedEdges);
+    }
+
+    int nodeCount() {
+        return nodeIds.length;
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    long nodeId(int row) {
+        return nodeIds[row];
+    }
+
+    /**
+     * @return the row index of the user, or a negative value if the user has no edges
+     */
+    int rowOf(long userId) {
+        return Arrays.binarySearch(nodeIds, userId);
+    }
+
+    int rowStart(int row) {
+        return offsets[row];
+    }
+
+    int rowEnd(int row) {
+        return offsets[row + 1];
+    }
+
+    long target(int edge) {
+        return targets[edge];
+    }
+
+    float strength(int edge) {
+        return strengths[edge];
+    }
+
+    /**
+     * Edge index of source -> target, or a negative value if there is no such edge.
+     */
+    int edgeOf(long source, long target) {
+        int row = rowOf(source);
+        if (row < 0) {
+            return -1;
+        }
+        int idx = Arrays.binarySearch(targets, offsets[row], offsets[row + 1], target);
+        return idx >= 0 ? idx : -1;
+    }
+
+    /**
+     * Whether the given row has an edge to target, without re-locating the row.
+     */
+    boolean hasEdge(int row, long target) {
+        return Arrays.binarySearch(targets, offsets[row], offsets[row + 1], target) >= 0;
+    }
+
+    float strength(long source, long target) {
+        int edge = edgeOf(source, target);
+        return edge >= 0 ? strengths[edge] : 0f;
+    }
+
+    /**
+     * Appends edges in (source, target) ascending order, growing primitive arrays as needed.
+     */
+    static final class Builder {
+
+        private long[] nodeIds;
+        private int[] offsets;
+        private long[] targets;
+        private float[] strengths;
+        private int nodes;
+        private int edges;
+        private long lastTarget;
+
+        private Builder(int expectedEdges) {
+            int capacity = Math.max(16, expectedEdges);
+            this.nodeIds = new long[Math.max(16, capacity / 4)];
+            this.offsets = new int[nodeIds.length + 1];
+            this.targets = new long[capacity];
+            this.strengths = new float[capacity];
+        }
+
+        Builder add(long source, long target, float strength) {
+            if (nodes == 0 || source != nodeIds[nodes - 1]) {
+                if (nodes > 0 && source < nodeIds[nodes - 1]) {
+                    throw new IllegalArgumentException("Edges must be added in ascending source order");
+                }
+                if (nodes == nodeIds.length) {
+                    nodeIds = Arrays.copyOf(nodeIds, nodes * 2);
+                    offsets = Arrays.copyOf(offsets, nodes * 2 + 1);
+                }
+                nodeIds[nodes] = source;
+                offsets[nodes] = edges;
+                nodes++;
+            } else if (target <= lastTarget) {
+                throw new IllegalArgumentException("Targets must be added in ascending order within a row");
+            }
+
+            if (edges == targets.length) {
+                targets = Arrays.copyOf(targets, edges * 2);
+                strengths = Arrays.copyOf(strengths, edges * 2);
+            }
+            targets[edges] = target;
+            strengths[edges] = strength;
+            edges++;
+            lastTarget = target;
+            return this;
+        }
+
+        CsrGraph build() {
+            if (nodes == 0) {
+                return EMPTY;
+            }
+            int[] finalOffsets = Arrays.copyOf(offsets, nodes + 1);
+            finalOffsets[nodes] = edges;
+            return new CsrGraph(
+                    Arrays.copyOf(nodeIds, nodes),
+                    finalOffsets,
+                    Arrays.copyOf(targets, edges),
+                    Arrays.copyOf(strengths, edges));
+        }
+    }
+}
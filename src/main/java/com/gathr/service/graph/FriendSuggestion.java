@@ -0,0 +1,14 @@
+package com.gathr.service.graph;
+
+/**
+ * A 2-hop connection candidate.
+ *
+ * @param userId            the suggested user
+ * @param score             sum over shared neighbors of (my strength to them * their strength to the candidate)
+ * @param sharedConnections number of direct connections the viewer and candidate have in common
+ */
+public record FriendSuggestion(
+        Long userId,
+        double score,
+        int sharedConnections
+) {}
@@ -0,0 +1,181 @@
+package com.gathr.service.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly "people you may know" precomputation.
+ *
+ * Takes a compacted snapshot of {@link SocialGraphIndex}, splits its rows into contiguous
+ * user-id ranges and ranks every user's 2-hop candidates in a fork-join pool. Each leaf
+ * replaces the rows of exactly the users it ranked in one short transaction, so the
+ * table is never empty for long and a failed leaf only leaves those users stale. Rows
+ * of users no longer in the graph are swept by computed_at once every leaf has written.
+ * The job does not run until the index has loaded from the database.
+ */
+@Component
+public class FriendSuggestionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendSuggestionJob.class);
+
+    private static final int LEAF_ROWS = 2048;
+
+    private static final String DELETE_USERS_SQL =
+            "DELETE FROM friend_suggestions WHERE user_id = ANY (?)";
+
+    private static final String DELETE_STALE_SQL =
+            "DELETE FROM friend_suggestions WHERE computed_at < ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO friend_suggestions " +
+            "(user_id, rank, candidate_user_id, shared_connections, score, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final SocialGraphIndex socialGraphIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int topK;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public FriendSuggestionJob(
+            SocialGraphIndex socialGraphIndex,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${gathr.suggestions.top-k:20}") int topK,
+            @Value("${gathr.suggestions.parallelism:4}") int parallelism) {
+        this.socialGraphIndex = socialGraphIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topK = topK;
+        this.parallelism = parallelism;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // 3:30 AM daily
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Friend suggestion job still running, skipping this trigger");
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (!socialGraphIndex.isLoaded()) {
+                logger.warn("Social graph not loaded, skipping friend suggestions");
+                return;
+            }
+            CsrGraph graph = socialGraphIndex.snapshot();
+            if (graph.nodeCount() == 0) {
+                logger.info("Social graph is empty, skipping friend suggestions");
+                return;
+            }
+            Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+            int written = pool.invoke(new Partition(graph, 0, graph.nodeCount(), computedAt));
+            int swept = jdbcTemplate.update(DELETE_STALE_SQL, computedAt);
+            logger.info("Computed friend suggestions for {} users ({} rows, {} stale removed) in {} ms",
+                    graph.nodeCount(), written, swept, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Friend suggestion job failed", e);
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Top 2-hop candidates for the user in {@code row}, scored like
+     * {@link SocialGraphIndex#friendsOfFriends}. {@code scores} is cleared and reused.
+     */
+    static List<FriendSuggestion> rank(CsrGraph graph, int row, ScoreAccumulator scores, int limit) {
+        scores.clear();
+        long userId = graph.nodeId(row);
+
+        for (int e = graph.rowStart(row), end = graph.rowEnd(row); e < end; e++) {
+            int viaRow = graph.rowOf(graph.target(e));
+            if (viaRow < 0) {
+                continue;
+            }
+            float viaStrength = graph.strength(e);
+            for (int f = graph.rowStart(viaRow), fEnd = graph.rowEnd(viaRow); f < fEnd; f++) {
+                long candidate = graph.target(f);
+                if (candidate != userId && !graph.hasEdge(row, candidate)) {
+                    scores.add(candidate, viaStrength * graph.strength(f));
+                }
+            }
+        }
+        return scores.isEmpty() ? List.of() : scores.top(limit);
+    }
+
+    /**
+     * Rank and store rows [start, end), replacing only those users' suggestions.
+     */
+    private int writeRange(CsrGraph graph, int start, int end, Timestamp computedAt) {
+        ScoreAccumulator scores = new ScoreAccumulator(256);
+        List<Object[]> rows = new ArrayList<>();
+        Long[] userIds = new Long[end - start];
+        for (int row = start; row < end; row++) {
+            long userId = graph.nodeId(row);
+            userIds[row - start] = userId;
+            List<FriendSuggestion> top = rank(graph, row, scores, topK);
+            for (int i = 0; i < top.size(); i++) {
+                FriendSuggestion s = top.get(i);
+                rows.add(new Object[] { userId, i + 1, s.userId(), s.sharedConnections(), (float) s.score(), computedAt });
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DELETE_USERS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", userIds));
+                return ps;
+            });
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+        });
+        return rows.size();
+    }
+
+    private final class Partition extends RecursiveTask<Integer> {
+
+        private final CsrGraph graph;
+        private final int start;
+        private final int end;
+        private final Timestamp computedAt;
+
+        Partition(CsrGraph graph, int start, int end, Timestamp computedAt) {
+            this.graph = graph;
+            this.start = start;
+            this.end = end;
+            this.computedAt = computedAt;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (end - start <= LEAF_ROWS) {
+                return writeRange(graph, start, end, computedAt);
+            }
+            int mid = (start + end) >>> 1;
+            Partition left = new Partition(graph, start, mid, computedAt);
+            Partition right = new Partition(graph, mid, end, computedAt);
+            right.fork();
+            return left.compute() + right.join();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.gathr.service.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Open-addressing long -> (score, shared count) map used while expanding the second hop.
+ *
+ * Occupied slots are also listed in {@code touched}, so clearing and ranking cost the
+ * number of entries rather than the table size, which only ever grows.
+ */
+final class ScoreAccumulator {
+    private long[] keys;
+    private float[] scores;
+    private int[] counts;
+    private boolean[] used;
+    // Occupied slots in insertion order; the first size entries are valid
+    private int[] touched;
+    private int size;
+
+    ScoreAccumulator(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        keys = new long[capacity];
+        scores = new float[capacity];
+        counts = new int[capacity];
+        used = new boolean[capacity];
+        touched = new int[capacity / 2];
+    }
+
+    void add(long key, float score) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int slot = slotOf(keys, used, key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            scores[slot] = 0f;
+            counts[slot] = 0;
+            if (size == touched.length) {
+                touched = Arrays.copyOf(touched, size * 2);
+            }
+            touched[size++] = slot;
+        }
+        scores[slot] += score;
+        counts[slot]++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Reset for the next user, keeping the allocated tables.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            used[touched[i]] = false;
+        }
+        size = 0;
+    }
+
+    List<FriendSuggestion> top(int limit) {
+        Comparator<Integer> ranking = Comparator.<Integer>comparingDouble(s -> scores[s])
+                .thenComparingInt(s -> counts[s])
+                .thenComparing(s -> -keys[s]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, ranking);
+        for (int i = 0; i < size; i++) {
+            heap.offer(touched[i]);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<FriendSuggestion> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int slot = heap.poll();
+            result.add(new FriendSuggestion(keys[slot], scores[slot], counts[slot]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        float[] oldScores = scores;
+        int[] oldCounts = counts;
+
+        keys = new long[oldKeys.length * 2];
+        scores = new float[keys.length];
+        counts = new int[keys.length];
+        used = new boolean[keys.length];
+        for (int i = 0; i < size; i++) {
+            int old = touched[i];
+            int slot = slotOf(keys, used, oldKeys[old]);
+            used[slot] = true;
+            keys[slot] = oldKeys[old];
+            scores[slot] = oldScores[old];
+            counts[slot] = oldCounts[old];
+            touched[i] = slot;
+        }
+    }
+
+    private static int slotOf(long[] keys, boolean[] used, long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (mix(key) & mask);
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
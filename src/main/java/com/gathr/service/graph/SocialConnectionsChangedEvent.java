@@ -0,0 +1,13 @@
+package com.gathr.service.graph;
+
+import java.util.List;
+
+/**
+ * Published after a user's edges to {@code partnerIds} were strengthened by
+ * {@code increment} in both directions.
+ */
+public record SocialConnectionsChangedEvent(
+        Long userId,
+        List<Long> partnerIds,
+        double increment
+) {}
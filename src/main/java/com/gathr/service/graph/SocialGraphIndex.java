@@ -0,0 +1,344 @@
+package com.gathr.service.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of {@code social_connections} for graph queries.
+ *
+ * The bulk of the graph lives in an immutable {@link CsrGraph} loaded at startup and
+ * reloaded hourly. Edge writes made after a load land in a small overlay map, which reads
+ * merge on the fly and a scheduled compaction folds back into a fresh CSR snapshot.
+ * Friends-of-friends queries therefore never touch the database or hydrate entities.
+ *
+ * Until a load succeeds the index holds only overlay edges; {@link #isLoaded()} tells
+ * batch jobs not to trust it, and the load is retried every minute.
+ */
+@Component
+public class SocialGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocialGraphIndex.class);
+
+    // Strengths of the same pair across connection types are combined, capped at 1.0
+    private static final String LOAD_SQL =
+            "SELECT source_user_id, target_user_id, LEAST(1.0, SUM(strength)) AS strength " +
+            "FROM social_connections " +
+            "WHERE source_user_id <> target_user_id " +
+            "GROUP BY source_user_id, target_user_id " +
+            "ORDER BY source_user_id, target_user_id";
+
+    private static final long RELOAD_INTERVAL_MILLIS = 3_600_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Read lock: queries and overlay writes. Write lock: snapshot swaps.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile CsrGraph graph = CsrGraph.EMPTY;
+    private volatile Map<Long, Map<Long, Float>> overlay = new ConcurrentHashMap<>();
+    // Raw increments received while a load runs, replayed onto the loaded graph; null otherwise
+    private volatile Map<Long, Map<Long, Float>> loadIncrements;
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    public SocialGraphIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load the full graph from the database and replace the snapshot and overlay.
+     *
+     * Overlay edges from before the load are committed, so the rows read include them and
+     * they are dropped. Updates that arrive while the rows are read may or may not be in
+     * them; their increments are replayed onto the loaded strengths. One committed just
+     * before the read began can be counted twice until the next load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loadIncrements = new ConcurrentHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        CsrGraph fresh = null;
+        try {
+            CsrGraph.Builder builder = CsrGraph.builder(1024);
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                builder.add(rs.getLong(1), rs.getLong(2), rs.getFloat(3));
+            });
+            fresh = builder.build();
+        } catch (Exception e) {
+            logger.error("Failed to load social graph, retrying within a minute", e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                graph = fresh;
+                overlay = rebase(fresh, loadIncrements);
+                loaded = true;
+                loadedAt = started;
+            }
+            loadIncrements = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (fresh != null) {
+            logger.info("Loaded social graph: {} users, {} edges in {} ms",
+                    fresh.nodeCount(), fresh.edgeCount(), System.currentTimeMillis() - started);
+        }
+    }
+
+    /**
+     * Retry a failed load, and reload hourly so drift from the database is corrected.
+     */
+    @Scheduled(fixedDelay = 60000) // Every minute
+    public void reloadIfStale() {
+        if (!loaded || System.currentTimeMillis() - loadedAt >= RELOAD_INTERVAL_MILLIS) {
+            load();
+        }
+    }
+
+    /**
+     * Whether a load from the database has succeeded. Until then the index holds only
+     * edges written since startup.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Mirror an incremental edge update from {@code SocialGraphService} once it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConnectionsChanged(SocialConnectionsChangedEvent event) {
+        long userId = event.userId();
+        float increment = (float) event.increment();
+
+        lock.readLock().lock();
+        try {
+            for (Long partnerId : event.partnerIds()) {
+                if (partnerId == null || partnerId == userId) {
+                    continue;
+                }
+                strengthen(userId, partnerId, increment);
+                strengthen(partnerId, userId, increment);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold overlay edges into a new CSR snapshot.
+     */
+    @Scheduled(fixedDelay = 600000) // Every 10 minutes
+    public void compact() {
+        // Before the first load the overlay rests on an empty base; the load replaces it
+        if (!loaded || overlay.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            graph = merge(graph, overlay);
+            overlay = new ConcurrentHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Compacted social graph: {} users, {} edges", graph.nodeCount(), graph.edgeCount());
+    }
+
+    /**
+     * Compact and return the current snapshot, for batch jobs that scan the whole graph.
+     */
+    CsrGraph snapshot() {
+        compact();
+        return graph;
+    }
+
+    /**
+     * Rank 2-hop candidates for a user.
+     *
+     * A candidate's score is the sum, over every direct connection they share with the
+     * user, of (user -> shared strength) * (shared -> candidate strength). The user and
+     * their direct connections are never suggested.
+     */
+    public List<FriendSuggestion> friendsOfFriends(long userId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            CsrGraph snapshot = graph;
+            Map<Long, Map<Long, Float>> pending = overlay;
+
+            Row direct = row(snapshot, pending, userId);
+            if (direct.size == 0) {
+                return List.of();
+            }
+
+            ScoreAccumulator scores = new ScoreAccumulator(Math.max(16, direct.size * 8));
+            for (int i = 0; i < direct.size; i++) {
+                long via = direct.ids[i];
+                float viaStrength = direct.strengths[i];
+                forEachNeighbor(snapshot, pending, via, (candidate, strength) -> {
+                    if (candidate != userId && Arrays.binarySearch(direct.ids, 0, direct.size, candidate) < 0) {
+                        scores.add(candidate, viaStrength * strength);
+                    }
+                });
+            }
+            return scores.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current combined strength of source -> target, 0 when not connected.
+     */
+    public double strength(long source, long target) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> pendingRow = overlay.get(source);
+            Float pending = pendingRow != null ? pendingRow.get(target) : null;
+            return pending != null ? pending : graph.strength(source, target);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void strengthen(long source, long target, float increment) {
+        CsrGraph snapshot = graph;
+        overlay.computeIfAbsent(source, k -> new ConcurrentHashMap<>())
+                .compute(target, (k, current) ->
+                        Math.min(1f, (current != null ? current : snapshot.strength(source, target)) + increment));
+        Map<Long, Map<Long, Float>> increments = loadIncrements;
+        if (increments != null) {
+            increments.computeIfAbsent(source, k -> new ConcurrentHashMap<>()).merge(target, increment, Float::sum);
+        }
+    }
+
+    /**
+     * Overlay holding each increment applied to the strength in {@code base}.
+     */
+    private static Map<Long, Map<Long, Float>> rebase(CsrGraph base, Map<Long, Map<Long, Float>> increments) {
+        Map<Long, Map<Long, Float>> rebased = new ConcurrentHashMap<>();
+        increments.forEach((source, row) -> row.forEach((target, increment) ->
+                rebased.computeIfAbsent(source, k -> new ConcurrentHashMap<>())
+                        .put(target, Math.min(1f, base.strength(source, target) + increment))));
+        return rebased;
+    }
+
+    // --- Row access over snapshot + overlay ---
+
+    @FunctionalInterface
+    private interface EdgeVisitor {
+        void visit(long target, float strength);
+    }
+
+    private static void forEachNeighbor(CsrGraph snapshot, Map<Long, Map<Long, Float>> pending,
+                                        long source, EdgeVisitor visitor) {
+        Map<Long, Float> pendingRow = pending.get(source);
+        int row = snapshot.rowOf(source);
+
+        if (row >= 0) {
+            for (int e = snapshot.rowStart(row), end = snapshot.rowEnd(row); e < end; e++) {
+                long target = snapshot.target(e);
+                Float override = pendingRow != null ? pendingRow.get(target) : null;
+                visitor.visit(target, override != null ? override : snapshot.strength(e));
+            }
+        }
+        if (pendingRow != null) {
+            for (Map.Entry<Long, Float> entry : pendingRow.entrySet()) {
+                if (row < 0 || snapshot.edgeOf(source, entry.getKey()) < 0) {
+                    visitor.visit(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Materialize one merged row with targets sorted ascending.
+     */
+    private static Row row(CsrGraph snapshot, Map<Long, Map<Long, Float>> pending, long source) {
+        Row row = new Row();
+        forEachNeighbor(snapshot, pending, source, row::append);
+        row.sort();
+        return row;
+    }
+
+    private static CsrGraph merge(CsrGraph base, Map<Long, Map<Long, Float>> pending) {
+        long[] pendingSources = pending.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        CsrGraph.Builder builder = CsrGraph.builder(base.edgeCount() + pendingSources.length * 4);
+
+        int i = 0;
+        int j = 0;
+        int nodes = base.nodeCount();
+        while (i < nodes || j < pendingSources.length) {
+            long source;
+            if (j >= pendingSources.length || (i < nodes && base.nodeId(i) < pendingSources[j])) {
+                source = base.nodeId(i++);
+            } else if (i >= nodes || pendingSources[j] < base.nodeId(i)) {
+                source = pendingSources[j++];
+            } else {
+                source = base.nodeId(i++);
+                j++;
+            }
+            Row merged = row(base, pending, source);
+            for (int k = 0; k < merged.size; k++) {
+                builder.add(source, merged.ids[k], merged.strengths[k]);
+            }
+        }
+        return builder.build();
+    }
+
+    private static final class Row {
+        long[] ids = new long[16];
+        float[] strengths = new float[16];
+        int size;
+
+        void append(long id, float strength) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                strengths = Arrays.copyOf(strengths, size * 2);
+            }
+            ids[size] = id;
+            strengths[size] = strength;
+            size++;
+        }
+
+        void sort() {
+            // Rows are sorted already unless overlay-only edges were appended; insertion sort
+            // is linear in that common case.
+            for (int i = 1; i < size; i++) {
+                long id = ids[i];
+                float strength = strengths[i];
+                int j = i - 1;
+                while (j >= 0 && ids[j] > id) {
+                    ids[j + 1] = ids[j];
+                    strengths[j + 1] = strengths[j];
+                    j--;
+                }
+                ids[j + 1] = id;
+                strengths[j + 1] = strength;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gathr.service.user;
+
+import com.gathr.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the user fields read on request paths (feed, social graph, trust and
+ * fraud scoring). Served by {@link UserSnapshotCache}; load the {@link User} entity only to
+ * write it.
+ */
+public record UserSnapshot(
+        Long id,
+        boolean verified,
+        boolean banned,
+        String status,
+        boolean onboardingCompleted,
+        List<String> interests,
+        Long homeHubId,
+        BigDecimal latitude,
+        BigDecimal longitude,
+        BigDecimal homeLatitude,
+        BigDecimal homeLongitude,
+        Integer preferredStartHour,
+        boolean contactsOptIn,
+        LocalDateTime createdAt
+) {
+    public static UserSnapshot of(User user) {
+        // getId() on the lazy hub proxy does not load the hub
+        return new UserSnapshot(
+                user.getId(),
+                Boolean.TRUE.equals(user.getVerified()),
+                Boolean.TRUE.equals(user.getIsBanned()),
+                user.getStatus(),
+                Boolean.TRUE.equals(user.getOnboardingCompleted()),
+                user.getInterests() != null
+                        ? Arrays.stream(user.getInterests()).filter(Objects::nonNull).toList()
+                        : List.of(),
+                user.getHomeHub() != null ? user.getHomeHub().getId() : null,
+                user.getLatitude(),
+                user.getLongitude(),
+                user.getHomeLatitude(),
+                user.getHomeLongitude(),
+                user.getPreferredStartHour(),
+                Boolean.TRUE.equals(user.getContactsOptIn()),
+                user.getCreatedAt());
+    }
+
+    public boolean hasInterests() {
+        return !interests.isEmpty();
+    }
+}
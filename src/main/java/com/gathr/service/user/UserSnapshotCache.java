@@ -0,0 +1,136 @@
+package com.gathr.service.user;
+
+import com.gathr.exception.ResourceNotFoundException;
+import com.gathr.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of {@link UserSnapshot}s by user id.
+ *
+ * Every write to a snapshot field must call {@link #invalidate}, which evicts the user at
+ * once and again when the writing transaction completes, so neither the old row nor an
+ * uncommitted one outlives the write. A load that raced with any invalidation is returned
+ * but not cached. Entries also expire after {@code gathr.user-cache.ttl-minutes}, which
+ * bounds staleness from writes made outside the application (seeders, SQL).
+ */
+@Component
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Map<Long, Entry> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserSnapshotCache(
+            UserRepository userRepository,
+            @Value("${gathr.user-cache.max-entries:50000}") int maxEntries,
+            @Value("${gathr.user-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+    }
+
+    public Optional<UserSnapshot> get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = snapshots.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return Optional.of(entry.snapshot);
+        }
+        misses.increment();
+
+        long stamp = invalidations.get();
+        Optional<UserSnapshot> loaded = userRepository.findById(userId).map(UserSnapshot::of);
+        loaded.ifPresent(snapshot -> {
+            if (snapshots.size() >= maxEntries) {
+                evictOne(now);
+            }
+            snapshots.put(userId, new Entry(snapshot, now + ttlMillis));
+            // An invalidation during the load may have been for this user; drop what we read
+            if (invalidations.get() != stamp) {
+                snapshots.remove(userId);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public UserSnapshot require(Long userId) {
+        return get(userId).orElseThrow(() -> new ResourceNotFoundException("User", userId));
+    }
+
+    /**
+     * Call after changing any user field held in {@link UserSnapshot}.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelay = 300000) // Every 5 minutes
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        snapshots.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", snapshots.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    private void evict(Long userId) {
+        invalidations.incrementAndGet();
+        snapshots.remove(userId);
+    }
+
+    private void evictOne(long now) {
+        // Prefer an expired entry; otherwise any entry, which costs one reload
+        Iterator<Entry> it = snapshots.values().iterator();
+        Entry victim = null;
+        for (int scanned = 0; it.hasNext() && scanned < 16; scanned++) {
+            Entry entry = it.next();
+            if (victim == null || entry.expiresAt <= now) {
+                victim = entry;
+                if (entry.expiresAt <= now) {
+                    break;
+                }
+            }
+        }
+        if (victim != null) {
+            snapshots.remove(victim.snapshot.id(), victim);
+        }
+    }
+
+    private record Entry(UserSnapshot snapshot, long expiresAt) {
+    }
+}
@@ -0,0 +1,10 @@
+-- Dedupe ledger for incremental social graph updates.
+-- One row per (activity, user) whose confirmation has already been applied to
+-- social_connections, so re-confirming never re-strengthens the same edges.
+
+CREATE TABLE IF NOT EXISTS social_connection_ledger (
+    activity_id BIGINT    NOT NULL REFERENCES activities(id) ON DELETE CASCADE,
+    user_id     BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    applied_at  TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_social_connection_ledger PRIMARY KEY (activity_id, user_id)
+);
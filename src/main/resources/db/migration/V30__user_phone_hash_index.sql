@@ -0,0 +1,9 @@
+-- Store each user's normalized phone hash once, so contact matching joins
+-- contact_hashes.phone_hash to users.phone_hash instead of re-hashing phones per request.
+ALTER TABLE users
+  ADD COLUMN IF NOT EXISTS phone_hash VARCHAR(128);
+
+-- Reverse index: phone hash -> user id
+CREATE INDEX IF NOT EXISTS idx_users_phone_hash ON users(phone_hash);
+
+-- Existing rows are hashed by PhoneHashBackfill on startup
@@ -0,0 +1,16 @@
+-- Materialized contact-match edges: user_id has contact_user_id in their uploaded contacts.
+-- Maintained on contact upload and on registration, so mutual counts are indexed lookups
+-- instead of IN (...) lists over raw hashes.
+
+CREATE TABLE IF NOT EXISTS contact_matches (
+    user_id         BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    contact_user_id BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_contact_matches PRIMARY KEY (user_id, contact_user_id)
+);
+
+-- Reverse direction: who has this user in their contacts
+CREATE INDEX IF NOT EXISTS idx_contact_matches_contact_user ON contact_matches(contact_user_id);
+
+-- No seed here: users.phone_hash is still NULL for existing users when this runs.
+-- PhoneHashBackfill hashes them on startup and then links all uploads via ContactMatchService.
@@ -0,0 +1,12 @@
+-- Nightly precomputed "people you may know": top-K 2-hop candidates per user.
+-- Keyed by (user_id, rank) so serving a user's list is one primary-key range read.
+
+CREATE TABLE IF NOT EXISTS friend_suggestions (
+    user_id            BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    rank               SMALLINT  NOT NULL,
+    candidate_user_id  BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    shared_connections INT       NOT NULL,
+    score              REAL      NOT NULL,
+    computed_at        TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_friend_suggestions PRIMARY KEY (user_id, rank)
+);
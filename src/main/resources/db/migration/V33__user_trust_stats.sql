@@ -0,0 +1,37 @@
+-- Per-user trust aggregates, maintained in the same transaction as feedback and
+-- report writes, so trust scores are a primary-key read instead of aggregate scans.
+
+CREATE TABLE IF NOT EXISTS user_trust_stats (
+    user_id               BIGINT    PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    show_ups              INT       NOT NULL DEFAULT 0,
+    no_shows              INT       NOT NULL DEFAULT 0,
+    rating_sum            BIGINT    NOT NULL DEFAULT 0,
+    rating_count          INT       NOT NULL DEFAULT 0,
+    reports_total         INT       NOT NULL DEFAULT 0,
+    recent_reports        INT       NOT NULL DEFAULT 0,
+    recent_reports_since  TIMESTAMP,
+    updated_at            TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Backfill from existing history
+INSERT INTO user_trust_stats (user_id, show_ups, no_shows, rating_sum, rating_count)
+SELECT user_id,
+       COUNT(*) FILTER (WHERE did_meet),
+       COUNT(*) FILTER (WHERE NOT did_meet),
+       COALESCE(SUM(experience_rating), 0),
+       COUNT(experience_rating)
+FROM feedbacks
+GROUP BY user_id
+ON CONFLICT (user_id) DO NOTHING;
+
+INSERT INTO user_trust_stats (user_id, reports_total, recent_reports, recent_reports_since)
+SELECT target_user_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE created_at >= NOW() - INTERVAL '30 days'),
+       MIN(created_at) FILTER (WHERE created_at >= NOW() - INTERVAL '30 days')
+FROM reports
+GROUP BY target_user_id
+ON CONFLICT (user_id) DO UPDATE SET
+    reports_total = EXCLUDED.reports_total,
+    recent_reports = EXCLUDED.recent_reports,
+    recent_reports_since = EXCLUDED.recent_reports_since;
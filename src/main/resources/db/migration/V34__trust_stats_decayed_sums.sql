@@ -0,0 +1,46 @@
+-- Exponentially decayed running sums per trust signal. Each value is current as of its
+-- *_at timestamp; readers decay it to now, writers decay it to now and add 1.
+
+ALTER TABLE user_trust_stats
+  ADD COLUMN IF NOT EXISTS show_ups_decayed    DOUBLE PRECISION NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS show_ups_decayed_at TIMESTAMP,
+  ADD COLUMN IF NOT EXISTS no_shows_decayed    DOUBLE PRECISION NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS no_shows_decayed_at TIMESTAMP,
+  ADD COLUMN IF NOT EXISTS reports_decayed     DOUBLE PRECISION NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS reports_decayed_at  TIMESTAMP;
+
+-- Backfill with exact per-event decay, using the default gathr.trust-score factors
+-- (show-ups 0.5 / 90 days, no-shows 0.75 / 90 days, reports 0.9 / 30 days)
+UPDATE user_trust_stats s SET
+    show_ups_decayed = f.show_ups_decayed,
+    no_shows_decayed = f.no_shows_decayed,
+    show_ups_decayed_at = f.as_of,
+    no_shows_decayed_at = f.as_of
+FROM (
+    SELECT user_id,
+           NOW() AS as_of,
+           COALESCE(SUM(POWER(0.5, EXTRACT(EPOCH FROM (NOW() - created_at)) / 86400 / 90))
+                    FILTER (WHERE did_meet), 0) AS show_ups_decayed,
+           COALESCE(SUM(POWER(0.75, EXTRACT(EPOCH FROM (NOW() - created_at)) / 86400 / 90))
+                    FILTER (WHERE NOT did_meet), 0) AS no_shows_decayed
+    FROM feedbacks
+    GROUP BY user_id
+) f
+WHERE s.user_id = f.user_id;
+
+UPDATE user_trust_stats s SET
+    reports_decayed = r.reports_decayed,
+    reports_decayed_at = r.as_of
+FROM (
+    SELECT target_user_id AS user_id,
+           NOW() AS as_of,
+           SUM(POWER(0.9, EXTRACT(EPOCH FROM (NOW() - created_at)) / 86400 / 30)) AS reports_decayed
+    FROM reports
+    GROUP BY target_user_id
+) r
+WHERE s.user_id = r.user_id;
+
+-- Superseded by reports_decayed
+ALTER TABLE user_trust_stats
+  DROP COLUMN IF EXISTS recent_reports,
+  DROP COLUMN IF EXISTS recent_reports_since;
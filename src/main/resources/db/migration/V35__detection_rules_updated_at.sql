@@ -0,0 +1,18 @@
+-- Change marker for the in-memory detection rule engine, which polls
+-- COUNT(*) and MAX(updated_at) and recompiles rules when either moves.
+
+ALTER TABLE detection_rules
+  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+-- Bump on every update, including manual edits outside the application
+CREATE OR REPLACE FUNCTION touch_detection_rules_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = NOW();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_detection_rules_updated_at ON detection_rules;
+CREATE TRIGGER trg_detection_rules_updated_at
+    BEFORE UPDATE ON detection_rules
+    FOR EACH ROW EXECUTE FUNCTION touch_detection_rules_updated_at();
@@ -0,0 +1,9 @@
+-- Coordination score contributed by RingDetectionJob, kept apart from rule deltas so the
+-- job can replace it without touching the rest of coordination_score
+ALTER TABLE user_risk_scores
+  ADD COLUMN IF NOT EXISTS ring_score INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_user_risk_scores_ring ON user_risk_scores(user_id) WHERE ring_score <> 0;
+
+-- Co-participation self-join: participants of one activity
+CREATE INDEX IF NOT EXISTS idx_participations_activity_user ON participations(activity_id, user_id);
@@ -0,0 +1,15 @@
+-- Shared request counts for PostgresRateLimitStorage: one row per key per fixed window.
+-- used counts slots leased to nodes, whether or not they were spent; budget is the last
+-- computed allowance for the window after weighting in the previous window.
+-- Unlogged: counts lost in a crash only make limits briefly more lenient.
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_counters (
+  limit_key VARCHAR(255) NOT NULL,
+  window_index BIGINT NOT NULL,
+  budget INTEGER NOT NULL,
+  used INTEGER NOT NULL,
+  last_grant INTEGER NOT NULL,
+  expires_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (limit_key, window_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_counters_expires ON rate_limit_counters(expires_at);
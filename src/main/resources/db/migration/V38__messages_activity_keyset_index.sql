@@ -0,0 +1,5 @@
+-- Keyset pagination of a chat's history: seek by (created_at, id) within one activity.
+-- Supersedes the single-column activity index for every query that filters on activity_id.
+CREATE INDEX IF NOT EXISTS idx_messages_activity_created_id ON messages(activity_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_messages_activity_id;
@@ -0,0 +1,15 @@
+-- Per-row revision for the detection rule engine's change poll. updated_at alone can
+-- miss an edit: a transaction that commits after a poll may carry an older timestamp
+-- than one already seen. SUM(revision) grows with every committed update whatever the
+-- commit order.
+
+ALTER TABLE detection_rules
+  ADD COLUMN IF NOT EXISTS revision BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION touch_detection_rules_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = clock_timestamp();
+    NEW.revision = OLD.revision + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,25 @@
+package com.gathr;
+
+import com.gathr.ratelimit.ConcurrencyLimiter;
+import com.gathr.ratelimit.RateLimitInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Fails when a bean can no longer be constructed, e.g. a component with a second
+ * (test-only) constructor that Spring cannot choose between.
+ */
+class ApplicationContextTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void contextLoads() {
+        assertNotNull(context.getBean(ConcurrencyLimiter.class));
+        assertNotNull(context.getBean(RateLimitInterceptor.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.gathr.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private static final EndpointClass JOIN = new EndpointClass("commit", RequestPriority.CRITICAL, 500);
+    private static final EndpointClass CHAT = new EndpointClass("chat", RequestPriority.NORMAL, 300);
+    private static final EndpointClass FEED = new EndpointClass("feed", RequestPriority.SHEDDABLE, 800);
+
+    private final AtomicLong clock = new AtomicLong();
+    // Class limits start at 10 and all classes share 10 in flight
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 100, 10, clock::get);
+    // Same class limits with a ceiling that never binds
+    private final ConcurrencyLimiter roomy = new ConcurrencyLimiter(10, 2, 100, 1000, clock::get);
+
+    @Test
+    void tryAcquire_ShedsLowerLanesFirst() {
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            permits.add(limiter.tryAcquire(FEED));
+        }
+        assertNull(limiter.tryAcquire(FEED));
+
+        for (int i = 0; i < 3; i++) {
+            permits.add(limiter.tryAcquire(CHAT));
+        }
+        assertNull(limiter.tryAcquire(CHAT));
+
+        permits.add(limiter.tryAcquire(JOIN));
+        permits.add(limiter.tryAcquire(JOIN));
+        assertNull(limiter.tryAcquire(JOIN));
+        assertFalse(permits.contains(null));
+
+        permits.get(0).release();
+        assertNotNull(limiter.tryAcquire(JOIN));
+    }
+
+    @Test
+    void release_SlowCompletionsCutLimitOncePerSpell() {
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            permits.add(limiter.tryAcquire(CHAT));
+        }
+
+        clock.addAndGet(1_000 * MILLI);
+        permits.forEach(ConcurrencyLimiter.Permit::release);
+        assertEquals(9.0, limiter.limit(CHAT), 1e-9);
+        assertEquals(0, limiter.inFlight());
+
+        ConcurrencyLimiter.Permit later = limiter.tryAcquire(CHAT);
+        clock.addAndGet(1_000 * MILLI);
+        later.release();
+        assertEquals(8.1, limiter.limit(CHAT), 1e-9);
+    }
+
+    @Test
+    void release_SlowClassOnlyCutsItsOwnLimit() {
+        ConcurrencyLimiter.Permit join = roomy.tryAcquire(JOIN);
+        ConcurrencyLimiter.Permit feed = roomy.tryAcquire(FEED);
+        clock.addAndGet(100 * MILLI);
+        join.release();
+        clock.addAndGet(1_000 * MILLI);
+        feed.release();
+
+        assertEquals(9.0, roomy.limit(FEED), 1e-9);
+        assertEquals(10.0, roomy.limit(JOIN), 1e-9);
+    }
+
+    @Test
+    void tryAcquire_ShedsAtClassLimitWhileOtherClassesHaveRoom() {
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(roomy.tryAcquire(CHAT));
+        }
+        assertNull(roomy.tryAcquire(CHAT));
+        assertNotNull(roomy.tryAcquire(JOIN));
+        assertEquals(11, roomy.inFlight());
+    }
+
+    @Test
+    void release_FastCompletionsUnderLoadGrowLimit() {
+        for (int round = 0; round < 20; round++) {
+            // Fill the lane, then complete everything well within target
+            List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (ConcurrencyLimiter.Permit permit; (permit = roomy.tryAcquire(JOIN)) != null; ) {
+                permits.add(permit);
+            }
+            clock.addAndGet(50 * MILLI);
+            permits.forEach(ConcurrencyLimiter.Permit::release);
+        }
+        assertTrue(roomy.limit(JOIN) > 20, "limit was " + roomy.limit(JOIN));
+
+        // A lone request says nothing about capacity
+        double limit = roomy.limit(JOIN);
+        roomy.tryAcquire(JOIN).release();
+        assertEquals(limit, roomy.limit(JOIN), 1e-9);
+    }
+
+    @Test
+    void cancel_FreesSlotWithoutSample() {
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire(JOIN);
+        clock.addAndGet(5_000 * MILLI);
+        permit.cancel();
+        permit.release();
+
+        assertEquals(0, limiter.inFlight());
+        assertEquals(10.0, limiter.limit(JOIN), 1e-9);
+    }
+}
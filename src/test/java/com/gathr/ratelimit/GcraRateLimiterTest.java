@@ -0,0 +1,88 @@
+package com.gathr.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    // 60 per hour: one every 60 seconds, up to 5 back to back
+    private static final RateLimitConfig CONFIG = RateLimitConfig.perHour("message_send", 60).withGcra(5);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * SECOND);
+    private final GcraRateLimiter limiter = new GcraRateLimiter(clock::get);
+
+    @Test
+    void checkAndRecord_AdmitsBurstThenDenies() {
+        for (int i = 0; i < 5; i++) {
+            RateLimitResult result = limiter.checkAndRecord("user:1", CONFIG);
+            assertTrue(result.allowed());
+            assertEquals(4 - i, result.remaining());
+            assertEquals(5, result.limit());
+        }
+
+        RateLimitResult denied = limiter.checkAndRecord("user:1", CONFIG);
+        assertFalse(denied.allowed());
+        assertEquals(60, denied.resetInSeconds());
+    }
+
+    @Test
+    void checkAndRecord_RefillsAtSustainedRate() {
+        for (int i = 0; i < 5; i++) {
+            limiter.checkAndRecord("user:1", CONFIG);
+        }
+
+        clock.addAndGet(59 * SECOND);
+        assertFalse(limiter.checkAndRecord("user:1", CONFIG).allowed());
+
+        clock.addAndGet(SECOND);
+        RateLimitResult result = limiter.checkAndRecord("user:1", CONFIG);
+        assertTrue(result.allowed());
+        assertEquals(0, result.remaining());
+        assertEquals(300, result.resetInSeconds());
+        assertFalse(limiter.checkAndRecord("user:1", CONFIG).allowed());
+    }
+
+    @Test
+    void checkAndRecord_IdleKeyRecoversFullBurstOnly() {
+        limiter.checkAndRecord("user:1", CONFIG);
+        clock.addAndGet(3600 * SECOND);
+
+        int admitted = 0;
+        while (limiter.checkAndRecord("user:1", CONFIG).allowed()) {
+            admitted++;
+        }
+        assertEquals(5, admitted);
+    }
+
+    @Test
+    void check_DoesNotConsume() {
+        RateLimitResult first = limiter.check("user:1", CONFIG);
+        assertTrue(first.allowed());
+        assertEquals(5, first.remaining());
+
+        limiter.checkAndRecord("user:1", CONFIG);
+        assertEquals(4, limiter.check("user:1", CONFIG).remaining());
+        assertEquals(4, limiter.check("user:1", CONFIG).remaining());
+    }
+
+    @Test
+    void sweep_DropsKeysOnceDrained() {
+        limiter.checkAndRecord("ip:1", CONFIG);
+        limiter.checkAndRecord("ip:2", CONFIG);
+        limiter.checkAndRecord("ip:2", CONFIG);
+
+        clock.addAndGet(60 * SECOND);
+        limiter.sweep();
+        assertEquals(1, limiter.liveKeys());
+
+        clock.addAndGet(60 * SECOND);
+        limiter.sweep();
+        assertEquals(0, limiter.liveKeys());
+        assertEquals(4, limiter.checkAndRecord("ip:2", CONFIG).remaining());
+    }
+}
@@ -0,0 +1,88 @@
+package com.gathr.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void sketch_NeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(256, 4);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("ip:" + (i % 1_000));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(sketch.estimate("ip:" + i) >= 10);
+        }
+        assertEquals(0, new CountMinSketch(256, 4).estimate("ip:1"));
+    }
+
+    @Test
+    void offer_FindsHeavyKeysAmongNoise() {
+        CountMinSketch sketch = new CountMinSketch(4096, 4);
+        HeavyHitters heavyHitters = new HeavyHitters(5);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 200_000; i++) {
+            // One in ten requests comes from three scanners, the rest from 50k one-off IPs
+            String key = random.nextInt(10) == 0
+                    ? "otp_start:ip:10.0.0." + random.nextInt(3)
+                    : "otp_start:ip:" + random.nextInt(50_000);
+            heavyHitters.offer(key, sketch.add(key));
+        }
+
+        List<Map.Entry<String, Long>> top = heavyHitters.top();
+        Set<String> topThree = top.subList(0, 3).stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        assertEquals(Set.of("otp_start:ip:10.0.0.0", "otp_start:ip:10.0.0.1", "otp_start:ip:10.0.0.2"), topThree);
+        assertTrue(top.get(0).getValue() >= top.get(1).getValue());
+        assertTrue(top.get(2).getValue() > 5_000);
+        assertEquals(5, top.size());
+    }
+
+    @Test
+    void offer_UpdatesTrackedKeysAndEvictsSmallestOnceFull() {
+        HeavyHitters heavyHitters = new HeavyHitters(2);
+        heavyHitters.offer("a", 5);
+        heavyHitters.offer("b", 3);
+
+        // Tracked keys keep their highest estimate
+        heavyHitters.offer("b", 8);
+        heavyHitters.offer("b", 7);
+        // Not above the smallest tracked count, so not admitted
+        heavyHitters.offer("c", 5);
+        assertEquals(List.of(Map.entry("b", 8L), Map.entry("a", 5L)), heavyHitters.top());
+
+        heavyHitters.offer("c", 6);
+        assertEquals(List.of(Map.entry("b", 8L), Map.entry("c", 6L)), heavyHitters.top());
+    }
+
+    @Test
+    void offer_ConcurrentOffersKeepHighestEstimates() throws InterruptedException {
+        HeavyHitters heavyHitters = new HeavyHitters(4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (long i = 1; i <= 10_000; i++) {
+                    heavyHitters.offer("key:" + (i % 8), i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Map.Entry<String, Long>> top = heavyHitters.top();
+        assertEquals(4, top.size());
+        assertEquals(10_000L, top.get(0).getValue());
+        assertTrue(top.get(3).getValue() >= 9_990);
+    }
+}
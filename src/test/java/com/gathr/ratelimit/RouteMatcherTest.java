@@ -0,0 +1,63 @@
+package com.gathr.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteMatcherTest {
+
+    private static final RateLimitConfig CREATE = RateLimitConfig.perHour("activity_create", 10);
+    private static final RateLimitConfig JOIN = RateLimitConfig.perHour("activity_join", 30);
+    private static final RateLimitConfig SEND = RateLimitConfig.perHour("message_send", 120);
+    private static final RateLimitConfig FETCH = RateLimitConfig.perHour("message_fetch", 300);
+    private static final RateLimitConfig FEED = RateLimitConfig.perHour("feed", 60);
+
+    private final RouteMatcher<RateLimitConfig> matcher = RouteMatcher.compile(routes());
+
+    private static Map<String, RateLimitConfig> routes() {
+        Map<String, RateLimitConfig> routes = new LinkedHashMap<>();
+        routes.put("POST:/activities", CREATE);
+        routes.put("POST:/activities/*/join", JOIN);
+        routes.put("POST:/activities/*/messages", SEND);
+        routes.put("GET:/activities/*/messages", FETCH);
+        routes.put("POST:/activities/feed/join", FEED);
+        return routes;
+    }
+
+    @Test
+    void find_MatchesExactAndWildcardRoutes() {
+        assertSame(CREATE, matcher.find("POST", "/activities"));
+        assertSame(JOIN, matcher.find("POST", "/activities/42/join"));
+        assertSame(SEND, matcher.find("POST", "/activities/42/messages"));
+        assertSame(FETCH, matcher.find("GET", "/activities/42/messages"));
+    }
+
+    @Test
+    void find_MatchesHandlerPatternsWithPathVariables() {
+        assertSame(JOIN, matcher.find("POST", "/activities/{id}/join"));
+        assertSame(FETCH, matcher.find("GET", "/activities/{activityId}/messages"));
+    }
+
+    @Test
+    void find_PrefersLiteralSegmentAndBacktracksToWildcard() {
+        assertSame(FEED, matcher.find("POST", "/activities/feed/join"));
+        assertSame(SEND, matcher.find("POST", "/activities/feed/messages"));
+    }
+
+    @Test
+    void find_ReturnsNullWhenNothingMatches() {
+        assertNull(matcher.find("GET", "/activities"));
+        assertNull(matcher.find("POST", "/activities/42"));
+        assertNull(matcher.find("POST", "/activities/42/join/extra"));
+        assertNull(matcher.find("DELETE", "/activities/42/join"));
+    }
+
+    @Test
+    void compile_RejectsPatternWithoutMethod() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteMatcher.compile(Map.of("/activities", CREATE)));
+    }
+}
@@ -0,0 +1,188 @@
+package com.gathr.ratelimit.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresRateLimitStorageTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final long WINDOW_MILLIS = WINDOW.toMillis();
+    private static final long START = 1_000_000 * WINDOW_MILLIS;
+    private static final int LIMIT = 100;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong clock = new AtomicLong(START);
+
+    // Simulated rate_limit_counters: "key/window" -> {budget, used}
+    private final Map<String, int[]> rows = new HashMap<>();
+    private boolean databaseDown;
+    private int leaseCalls;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(this::lease);
+    }
+
+    @Test
+    void bean_CreatedWhenPostgresStorageSelected() {
+        new ApplicationContextRunner()
+                .withPropertyValues("gathr.ratelimit.storage=postgres")
+                .withBean(JdbcTemplate.class, () -> jdbcTemplate)
+                .withUserConfiguration(PostgresRateLimitStorage.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertNotNull(context.getBean(RateLimitStorage.class));
+                });
+    }
+
+    @Test
+    void acquire_NodesTogetherNeverAdmitMoreThanLimit() {
+        PostgresRateLimitStorage[] nodes = {node(), node(), node()};
+
+        int admitted = 0;
+        for (int i = 0; i < 3 * LIMIT; i++) {
+            if (nodes[i % nodes.length].acquire("k", now(i), WINDOW, LIMIT).admitted()) {
+                admitted++;
+            }
+        }
+
+        // Each node may strand at most about one lease (a tenth of the limit) unspent
+        assertTrue(admitted <= LIMIT, "admitted " + admitted);
+        assertTrue(admitted >= LIMIT - nodes.length * LIMIT / 10, "admitted " + admitted);
+        assertTrue(rows.get("k/" + START / WINDOW_MILLIS)[1] <= LIMIT);
+    }
+
+    @Test
+    void acquire_WeightsPreviousWindowByOverlap() {
+        PostgresRateLimitStorage node = node();
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(node.acquire("k", now(i), WINDOW, LIMIT).admitted());
+        }
+        assertFalse(node.acquire("k", now(LIMIT), WINDOW, LIMIT).admitted());
+
+        // Halfway into the next window half of the previous window still counts; the
+        // budget is rounded up as that share decays
+        long halfway = WINDOW_MILLIS + WINDOW_MILLIS / 2;
+        int admitted = 0;
+        for (int i = 0; i < LIMIT; i++) {
+            if (node.acquire("k", now(halfway + i), WINDOW, LIMIT).admitted()) {
+                admitted++;
+            }
+        }
+        assertTrue(admitted <= LIMIT / 2 + 1, "admitted " + admitted);
+        assertTrue(admitted >= LIMIT / 2 - LIMIT / 10, "admitted " + admitted);
+    }
+
+    @Test
+    void acquire_DatabaseDown_EnforcesLimitLocallyWithoutWaitingOnIt() {
+        databaseDown = true;
+        PostgresRateLimitStorage node = node();
+
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(node.acquire("k", now(i), WINDOW, LIMIT).admitted());
+        }
+        WindowUsage denied = node.acquire("k", now(LIMIT), WINDOW, LIMIT);
+        assertFalse(denied.admitted());
+        assertTrue(denied.resetInSeconds() > 0);
+        assertTrue(node.acquire("other", now(LIMIT), WINDOW, LIMIT).admitted());
+
+        // Only the first lease went to the database; the rest waited out the retry interval
+        assertEquals(1, leaseCalls);
+        assertEquals(Boolean.FALSE, node.stats().get("databaseHealthy"));
+    }
+
+    @Test
+    void acquire_DatabaseBack_ResumesLeasingAfterRetryInterval() {
+        databaseDown = true;
+        PostgresRateLimitStorage node = node();
+        assertTrue(node.acquire("k", now(0), WINDOW, LIMIT).admitted());
+
+        databaseDown = false;
+        clock.addAndGet(10_000);
+        for (int i = 0; i < LIMIT / 10; i++) {
+            node.acquire("k", Instant.ofEpochMilli(clock.get() + i), WINDOW, LIMIT);
+        }
+
+        // One probe found the database again, and later leases come from it
+        assertEquals(Boolean.TRUE, node.stats().get("databaseHealthy"));
+        assertTrue(leaseCalls >= 2);
+        assertNotNull(rows.get("k/" + START / WINDOW_MILLIS));
+    }
+
+    private PostgresRateLimitStorage node() {
+        return new PostgresRateLimitStorage(jdbcTemplate, 1000, 10, direct(), clock::get);
+    }
+
+    private Instant now(long offsetMillis) {
+        return Instant.ofEpochMilli(START + offsetMillis);
+    }
+
+    /**
+     * Runs refills on the calling thread, so every lease happens in a known order.
+     */
+    private static ThreadPoolExecutor direct() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+    }
+
+    /**
+     * Applies LEASE_SQL to {@link #rows}: grant min(want, half of budget - used, rounded up),
+     * where the budget is the limit less the previous window's count weighted by overlap.
+     */
+    private Object lease(InvocationOnMock invocation) throws Exception {
+        leaseCalls++;
+        if (databaseDown) {
+            throw new DataAccessResourceFailureException("Connection refused");
+        }
+        String key = invocation.getArgument(2);
+        long index = invocation.getArgument(5);
+        int want = invocation.getArgument(6);
+        int limit = invocation.getArgument(9);
+        double previousWeight = invocation.getArgument(10);
+
+        int[] previous = rows.get(key + "/" + (index - 1));
+        int budget = (int) Math.max(0, Math.ceil(limit - (previous != null ? previous[1] : 0) * previousWeight));
+        int[] row = rows.computeIfAbsent(key + "/" + index, k -> new int[2]);
+        int granted = Math.min(want, (int) Math.max(0, Math.ceil((budget - row[1]) / 2.0)));
+        row[0] = budget;
+        row[1] += granted;
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(1)).thenReturn(row[1]);
+        when(rs.getInt(2)).thenReturn(granted);
+        when(rs.getInt(3)).thenReturn(budget);
+        RowMapper<?> mapper = invocation.getArgument(1);
+        return mapper.mapRow(rs, 0);
+    }
+}
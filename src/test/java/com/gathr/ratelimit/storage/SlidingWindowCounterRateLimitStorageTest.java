@@ -0,0 +1,198 @@
+package com.gathr.ratelimit.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterRateLimitStorageTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final long WINDOW_MILLIS = WINDOW.toMillis();
+    private static final Instant START = Instant.ofEpochMilli(1_000_000 * WINDOW_MILLIS);
+
+    private final SlidingWindowCounterRateLimitStorage counter = new SlidingWindowCounterRateLimitStorage(100_000);
+    private final InMemoryRateLimitStorage exact = new InMemoryRateLimitStorage(100_000);
+
+    @Test
+    void acquire_AdmitsUpToLimitThenDenies() {
+        for (int i = 0; i < 5; i++) {
+            WindowUsage usage = counter.acquire("k", START.plusMillis(i), WINDOW, 5);
+            assertTrue(usage.admitted());
+            assertEquals(i + 1, usage.count());
+        }
+
+        WindowUsage denied = counter.acquire("k", START.plusMillis(10), WINDOW, 5);
+        assertFalse(denied.admitted());
+        assertEquals(5, denied.count());
+        assertTrue(denied.resetInSeconds() > 0);
+    }
+
+    @Test
+    void acquire_WeightsPreviousWindowByOverlap() {
+        for (int i = 0; i < 10; i++) {
+            counter.acquire("k", START.plusMillis(i), WINDOW, 10);
+        }
+
+        // Halfway into the next window half of the previous window still counts
+        Instant halfway = START.plus(WINDOW).plus(WINDOW.dividedBy(2));
+        assertEquals(5, counter.peek("k", halfway, WINDOW, 10).count());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(counter.acquire("k", halfway, WINDOW, 10).admitted());
+        }
+        assertFalse(counter.acquire("k", halfway, WINDOW, 10).admitted());
+
+        // Two windows later nothing is left
+        assertEquals(0, counter.peek("k", START.plus(WINDOW.multipliedBy(3)), WINDOW, 10).count());
+    }
+
+    @Test
+    void acquire_DeniedResetIsWhenEstimateDropsBelowLimit() {
+        for (int i = 0; i < 10; i++) {
+            counter.acquire("k", START, WINDOW, 10);
+        }
+
+        // Full current window: the estimate dips below the limit just after rollover
+        WindowUsage denied = counter.acquire("k", START.plusSeconds(30), WINDOW, 10);
+        assertFalse(denied.admitted());
+        assertEquals(31, denied.resetInSeconds());
+        assertTrue(counter.acquire("k", START.plusSeconds(61), WINDOW, 10).admitted());
+
+
+        // Partly decayed: at 45s into the next window 10 * 0.25 + 8 > 10 and the
+        // estimate dips back below the limit once 10 * (1 - f) + 8 < 10, after 48s
+        for (int i = 0; i < 10; i++) {
+            counter.acquire("p", START, WINDOW, 10);
+        }
+        Instant late = START.plus(WINDOW).plusSeconds(45);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(counter.acquire("p", late, WINDOW, 10).admitted());
+        }
+        WindowUsage again = counter.acquire("p", late, WINDOW, 10);
+        assertFalse(again.admitted());
+        assertEquals(4, again.resetInSeconds());
+    }
+
+    @Test
+    void acquire_NeverExceedsLimitWithinOneWindow() {
+        Random random = new Random(7);
+        long admittedInWindow = 0;
+        long windowIndex = -1;
+
+        for (int i = 0; i < 50_000; i++) {
+            Instant now = START.plusMillis(i * 7L + random.nextInt(7));
+            long index = now.toEpochMilli() / WINDOW_MILLIS;
+            if (index != windowIndex) {
+                windowIndex = index;
+                admittedInWindow = 0;
+            }
+            if (counter.acquire("k", now, WINDOW, 100).admitted()) {
+                admittedInWindow++;
+            }
+            assertTrue(admittedInWindow <= 100);
+        }
+    }
+
+    @Test
+    void acquire_SteadyOverloadMatchesExactThroughput() {
+        // 3x the limit, evenly spaced
+        int limit = 60;
+        long gap = WINDOW_MILLIS / (limit * 3);
+        int approx = 0;
+        int reference = 0;
+
+        for (long t = 0; t < WINDOW_MILLIS * 30; t += gap) {
+            Instant now = START.plusMillis(t);
+            if (counter.acquire("k", now, WINDOW, limit).admitted()) {
+                approx++;
+            }
+            if (exact.acquire("k", now, WINDOW, limit).admitted()) {
+                reference++;
+            }
+        }
+
+        assertEquals(reference, approx, reference * 0.05);
+    }
+
+    @Test
+    void acquire_BurstyTrafficStaysCloseToExact() {
+        Random random = new Random(42);
+        int limit = 50;
+        int decisions = 100_000;
+        int agreed = 0;
+        int approx = 0;
+        int reference = 0;
+        long t = 0;
+
+        for (int i = 0; i < decisions; i++) {
+            // Bursts well above the limit separated by quiet gaps
+            t += random.nextInt(10) == 0 ? random.nextInt(20_000) : random.nextInt(400);
+            Instant now = START.plusMillis(t);
+            boolean approxAdmitted = counter.acquire("k", now, WINDOW, limit).admitted();
+            boolean referenceAdmitted = exact.acquire("k", now, WINDOW, limit).admitted();
+            if (approxAdmitted == referenceAdmitted) {
+                agreed++;
+            }
+            approx += approxAdmitted ? 1 : 0;
+            reference += referenceAdmitted ? 1 : 0;
+        }
+
+        // Individual decisions drift out of phase under overload, throughput does not
+        assertTrue(agreed >= decisions * 0.75, "agreed on " + agreed + " of " + decisions);
+        assertEquals(reference, approx, reference * 0.05);
+    }
+
+    @Test
+    void clear_ForgetsKey() {
+        counter.acquire("k", START, WINDOW, 1);
+        assertFalse(counter.acquire("k", START, WINDOW, 1).admitted());
+
+        counter.clear("k");
+
+        assertTrue(counter.acquire("k", START, WINDOW, 1).admitted());
+    }
+
+    @Test
+    void sweep_RemovesKeysWhoseWindowsHaveExpired() {
+        counter.acquire("old", START, WINDOW, 10);
+        counter.acquire("recent", START.plus(WINDOW), WINDOW, 10);
+
+        counter.sweep(START.plus(WINDOW.multipliedBy(2)).toEpochMilli());
+
+        assertEquals(1, counter.stats().get("liveKeys"));
+        assertEquals(1L, counter.stats().get("idleEvictions"));
+        assertEquals(1, counter.peek("recent", START.plus(WINDOW), WINDOW, 10).count());
+        assertTrue(counter.acquire("old", START.plus(WINDOW.multipliedBy(2)), WINDOW, 10).admitted());
+    }
+
+    @Test
+    void acquire_OverKeyCapEvictsLeastUsedKeys() {
+        SlidingWindowCounterRateLimitStorage capped = new SlidingWindowCounterRateLimitStorage(100);
+        for (int i = 0; i < 5; i++) {
+            capped.acquire("user:busy", START, WINDOW, 10);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            capped.acquire("ip:" + i, START.plusMillis(i), WINDOW, 10);
+        }
+
+        Map<String, Object> stats = capped.stats();
+        assertTrue((Integer) stats.get("liveKeys") <= 100);
+        assertTrue((Long) stats.get("capacityEvictions") >= 900);
+        assertEquals(5, capped.peek("user:busy", START.plusMillis(1_000), WINDOW, 10).count());
+    }
+
+    @Test
+    void acquire_AfterEvictionStartsFresh() {
+        exact.acquire("k", START, WINDOW, 1);
+        assertFalse(exact.acquire("k", START, WINDOW, 1).admitted());
+
+        exact.sweep(START.plus(WINDOW).plusMillis(1).toEpochMilli());
+
+        assertEquals(0, exact.stats().get("liveKeys"));
+        assertTrue(exact.acquire("k", START.plus(WINDOW).plusMillis(1), WINDOW, 1).admitted());
+    }
+}
@@ -0,0 +1,87 @@
+package com.gathr.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-must-be-at-least-256-bits-long-for-hmac-sha-algorithms";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(SECRET, 86400000L);
+    }
+
+    private static JwtUtil newJwtUtil(String secret, long expiration) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        return util;
+    }
+
+    @Test
+    void verify_ReturnsClaimsOfValidToken() {
+        String token = jwtUtil.generateToken(42L, "+919876543210");
+
+        Optional<VerifiedToken> verified = jwtUtil.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals(42L, verified.get().userId());
+        assertEquals("+919876543210", verified.get().phone());
+        assertSame(verified.get(), jwtUtil.verify(token).orElseThrow());
+    }
+
+    @Test
+    void verify_RejectsTamperedForeignAndExpiredTokens() {
+        String token = jwtUtil.generateToken(42L, "+919876543210");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = newJwtUtil(SECRET.replace('t', 'x'), 86400000L).generateToken(42L, "+919876543210");
+        String expired = newJwtUtil(SECRET, -1000L).generateToken(42L, "+919876543210");
+
+        assertTrue(jwtUtil.verify(tampered).isEmpty());
+        assertTrue(jwtUtil.verify(foreign).isEmpty());
+        assertTrue(jwtUtil.verify(expired).isEmpty());
+        assertTrue(jwtUtil.verify("not-a-jwt").isEmpty());
+        assertTrue(jwtUtil.verify(null).isEmpty());
+    }
+
+    @Test
+    void verify_CachesOnlyUpToMaxEntries() {
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 2);
+        String first = jwtUtil.generateToken(1L, "+911111111111");
+        String second = jwtUtil.generateToken(2L, "+912222222222");
+        String third = jwtUtil.generateToken(3L, "+913333333333");
+
+        jwtUtil.verify(first);
+        jwtUtil.verify(second);
+        VerifiedToken thirdVerified = jwtUtil.verify(third).orElseThrow();
+
+        // A full cache displaces an older entry to make room for the new token
+        assertEquals(2, cachedTokens());
+        assertSame(thirdVerified, jwtUtil.verify(third).orElseThrow());
+        assertEquals(3L, thirdVerified.userId());
+    }
+
+    @Test
+    void evictExpired_DropsEntriesPastTheirTtl() {
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtlSeconds", -1L);
+        jwtUtil.verify(jwtUtil.generateToken(1L, "+911111111111"));
+        assertEquals(1, cachedTokens());
+
+        jwtUtil.evictExpired();
+
+        assertEquals(0, cachedTokens());
+    }
+
+    private int cachedTokens() {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verified")).size();
+    }
+}
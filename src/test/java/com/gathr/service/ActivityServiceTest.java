@@ -11,6 +11,8 @@ import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.HubRepository;
 import com.gathr.repository.ParticipationRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.fraud.AbuseCounters;
+import com.gathr.service.fraud.RiskTierCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,6 +52,12 @@ class ActivityServiceTest {
     @Mock
     private EventLogService eventLogService;
 
+    @Mock
+    private AbuseCounters abuseCounters;
+
+    @Mock
+    private RiskTierCache riskTierCache;
+
     @InjectMocks
     private ActivityService activityService;
 
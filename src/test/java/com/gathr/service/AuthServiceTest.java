@@ -7,6 +7,7 @@ import com.gathr.entity.User;
 import com.gathr.exception.InvalidRequestException;
 import com.gathr.repository.UserRepository;
 import com.gathr.security.JwtUtil;
+import com.gathr.service.user.UserSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +33,12 @@ class AuthServiceTest {
     @Mock
     private OtpService otpService;
 
+    @Mock
+    private ContactMatchService contactMatchService;
+
+    @Mock
+    private UserSnapshotCache userSnapshots;
+
     private JwtUtil jwtUtil;
 
     private AuthService authService;
@@ -46,7 +53,7 @@ class AuthServiceTest {
         ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-must-be-at-least-256-bits-long-for-hmac-sha-algorithms");
         ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
 
-        authService = new AuthService(userRepository, jwtUtil, otpService);
+        authService = new AuthService(userRepository, jwtUtil, otpService, contactMatchService, userSnapshots);
 
         testUser = new User();
         testUser.setId(1L);
@@ -113,6 +120,7 @@ class AuthServiceTest {
 
         verify(userRepository).findByPhone(TEST_PHONE);
         verify(userRepository).save(any(User.class));
+        verify(contactMatchService).linkRegisteredUser(testUser.getId(), testUser.getPhoneHash());
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.gathr.service;
+
+import com.gathr.entity.User;
+import com.gathr.exception.InvalidRequestException;
+import com.gathr.exception.ResourceNotFoundException;
+import com.gathr.repository.UserRepository;
+import com.gathr.service.user.UserSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventLogService eventLogService;
+
+    @Mock
+    private ContactMatchService contactMatchService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserSnapshotCache userSnapshots;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    private ContactService contactService;
+
+    @BeforeEach
+    void setUp() {
+        contactService = new ContactService(userRepository, eventLogService, contactMatchService,
+                jdbcTemplate, transactionManager, userSnapshots, clock::get);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setContactsOptIn(true);
+        lenient().when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        // Every hash is new
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    Collection<?> batch = invocation.getArgument(1);
+                    int[] counts = new int[batch.size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][] { counts };
+                });
+    }
+
+    @Test
+    void uploadContacts_InsertsUniqueHashesInBatches() {
+        List<String> hashes = new ArrayList<>(IntStream.range(0, 1200).mapToObj(i -> "h" + i).toList());
+        hashes.add("h0");
+        hashes.add(" ");
+
+        Map<String, Object> response = contactService.uploadContacts(USER_ID, hashes);
+
+        assertThat(response).containsEntry("processed", 1202).containsEntry("new", 1200);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), eq(ContactService.BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(200), any(ParameterizedPreparedStatementSetter.class));
+        verify(contactMatchService, times(3)).linkUploadedHashes(eq(USER_ID), anyList());
+    }
+
+    @Test
+    void uploadContacts_ChunksOutOfOrder_CompleteOnceAllArrive() {
+        upload("u1", 2, 3, "c", "d");
+        upload("u1", 0, 3, "a");
+        Map<String, Object> progress = contactService.getUploadProgress(USER_ID, "u1");
+        assertThat(progress).containsEntry("chunksReceived", 2).containsEntry("complete", false);
+
+        Map<String, Object> response = upload("u1", 1, 3, "b");
+
+        assertThat(response)
+                .containsEntry("chunksReceived", 3)
+                .containsEntry("totalChunks", 3)
+                .containsEntry("totalProcessed", 4L)
+                .containsEntry("totalNew", 4L)
+                .containsEntry("complete", true);
+    }
+
+    @Test
+    void uploadContacts_RetriedChunk_CountedOnce() {
+        upload("u1", 0, 2, "a", "b");
+
+        Map<String, Object> response = upload("u1", 0, 2, "a", "b");
+
+        assertThat(response)
+                .containsEntry("chunksReceived", 1)
+                .containsEntry("totalProcessed", 2L)
+                .containsEntry("complete", false);
+    }
+
+    @Test
+    void uploadContacts_ChunkOutOfRangeOrTotalChanged_Rejected() {
+        assertThatThrownBy(() -> upload("u1", 3, 3, "a")).isInstanceOf(InvalidRequestException.class);
+
+        upload("u1", 0, 3, "a");
+        assertThatThrownBy(() -> upload("u1", 1, 4, "b")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> upload("u1", 3, null, "b")).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void uploadContacts_TooManyUploadsInProgress_Rejected() {
+        for (int i = 0; i < ContactService.MAX_UPLOADS_PER_USER; i++) {
+            upload("u" + i, 0, 2, "a");
+        }
+
+        assertThatThrownBy(() -> upload("extra", 0, 2, "a")).isInstanceOf(InvalidRequestException.class);
+        verify(jdbcTemplate, times(ContactService.MAX_UPLOADS_PER_USER)).batchUpdate(anyString(), anyList(),
+                anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        // Finishing one frees its slot; another user is unaffected
+        upload("u0", 1, 2, "b");
+        upload("extra", 0, 2, "a");
+        assertThatThrownBy(() -> contactService.getUploadProgress(USER_ID, "u0"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(contactService.getUploadProgress(USER_ID, "extra")).containsEntry("chunksReceived", 1);
+    }
+
+    @Test
+    void evictStaleUploads_DropsProgressIdleLongerThanTtl() {
+        upload("old", 0, 2, "a");
+        clock.addAndGet(ContactService.UPLOAD_PROGRESS_TTL_MILLIS / 2);
+        upload("recent", 0, 2, "a");
+        clock.addAndGet(ContactService.UPLOAD_PROGRESS_TTL_MILLIS / 2 + 1);
+
+        contactService.evictStaleUploads();
+
+        assertThatThrownBy(() -> contactService.getUploadProgress(USER_ID, "old"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(contactService.getUploadProgress(USER_ID, "recent")).containsEntry("chunksReceived", 1);
+    }
+
+    @Test
+    void getUploadProgress_OnlyForTheUploadingUser() {
+        upload("u1", 0, 2, "a");
+
+        assertThat(contactService.getUploadProgress(USER_ID, "u1"))
+                .containsEntry("uploadId", "u1")
+                .containsEntry("chunksReceived", 1)
+                .containsEntry("totalChunks", 2);
+        assertThatThrownBy(() -> contactService.getUploadProgress(2L, "u1"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> contactService.getUploadProgress(USER_ID, "unknown"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Map<String, Object> upload(String uploadId, Integer chunkIndex, Integer totalChunks, String... hashes) {
+        return contactService.uploadContacts(USER_ID, List.of(hashes), uploadId, chunkIndex, totalChunks);
+    }
+}
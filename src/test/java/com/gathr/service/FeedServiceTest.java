@@ -7,10 +7,11 @@ import com.gathr.entity.Hub;
 import com.gathr.entity.User;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.ParticipationRepository;
-import com.gathr.repository.UserRepository;
 import com.gathr.service.FeedComputationResult;
 import com.gathr.service.feed.FeedScoringContext;
 import com.gathr.service.feed.FeedScoringEngine;
+import com.gathr.service.user.UserSnapshot;
+import com.gathr.service.user.UserSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,7 +37,7 @@ class FeedServiceTest {
     @Mock
     private ActivityRepository activityRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserSnapshotCache userSnapshots;
     @Mock
     private ActivityService activityService;
     @Mock
@@ -87,7 +88,7 @@ class FeedServiceTest {
     void getFeedForUser_PersonalizedFeed_ShouldReturnActivities() {
         // Arrange
         LocalDate today = LocalDate.now();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
         when(activityRepository.findAll(any(Specification.class))).thenReturn(List.of(testActivity));
         when(activityService.convertToDto(testActivity, true)).thenReturn(testActivityDto);
 
@@ -110,7 +111,7 @@ class FeedServiceTest {
     void getFeedForUser_NoActivities_ShouldUseFallback() {
         // Arrange
         LocalDate today = LocalDate.now();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
         // Empty list for primary search
         when(activityRepository.findAll(any(Specification.class)))
                 .thenReturn(Collections.emptyList()) // Primary search empty
@@ -135,7 +136,7 @@ class FeedServiceTest {
         testActivityDto.setConfirmedCount(10);
         testActivityDto.setInterestedCount(0);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
         when(activityRepository.findAll(any(Specification.class))).thenReturn(List.of(testActivity));
         // participationRepository stub removed
         when(activityService.convertToDto(testActivity, true)).thenReturn(testActivityDto);
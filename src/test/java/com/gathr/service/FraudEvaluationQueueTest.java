@@ -0,0 +1,166 @@
+package com.gathr.service;
+
+import com.gathr.service.fraud.AbuseSignal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FraudEvaluationQueueTest {
+
+    private static final long DEBOUNCE_MS = 50;
+    private static final long WAIT_MS = 2000;
+
+    @Mock
+    private FraudDetectionService fraudDetectionService;
+
+    private FraudEvaluationQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    private FraudEvaluationQueue queue(long debounceMillis, int threads, int capacity) {
+        queue = new FraudEvaluationQueue(fraudDetectionService, debounceMillis, threads, capacity);
+        return queue;
+    }
+
+    @Test
+    void enqueue_CoalescesSignalsWithinDebounceWindow() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+        verify(fraudDetectionService, after(4 * DEBOUNCE_MS).times(1)).onReportSubmitted(1L);
+        assertEquals(3L, queue.stats().get("received"));
+        assertEquals(2L, queue.stats().get("coalesced"));
+    }
+
+    @Test
+    void enqueue_WaitsForDebounceWindow() {
+        queue(500, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+
+        verify(fraudDetectionService, after(200).never()).onReportSubmitted(1L);
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+    }
+
+    @Test
+    void enqueue_SignalAfterEvaluationStartsNewOne() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        verify(fraudDetectionService, timeout(WAIT_MS).times(2)).onReportSubmitted(1L);
+    }
+
+    @Test
+    void evaluate_NoShowOnly() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.NO_SHOW);
+
+        verify(fraudDetectionService, timeout(WAIT_MS)).onNoShowReported(1L);
+        verify(fraudDetectionService, never()).onReportSubmitted(1L);
+        verify(fraudDetectionService, never()).evaluateUser(1L);
+    }
+
+    @Test
+    void evaluate_ReportOnly() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+        verify(fraudDetectionService, never()).onNoShowReported(1L);
+        verify(fraudDetectionService, never()).evaluateUser(1L);
+    }
+
+    @Test
+    void evaluate_NoShowAndReportRunsBoth() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.NO_SHOW);
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+        verify(fraudDetectionService).onNoShowReported(1L);
+        verify(fraudDetectionService, never()).evaluateUser(1L);
+    }
+
+    @Test
+    void evaluate_OtherSignalRunsFullEvaluation() {
+        queue(DEBOUNCE_MS, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.ACTIVITY_CREATED);
+
+        verify(fraudDetectionService, timeout(WAIT_MS)).evaluateUser(1L);
+        verify(fraudDetectionService, never()).onReportSubmitted(1L);
+        verify(fraudDetectionService, never()).onNoShowReported(1L);
+    }
+
+    @Test
+    void evaluate_FailureIsCountedAndQueueKeepsRunning() {
+        queue(DEBOUNCE_MS, 1, 10);
+        doThrow(new RuntimeException("boom")).when(fraudDetectionService).onReportSubmitted(1L);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(1L);
+
+        queue.enqueue(2L, AbuseSignal.REPORT_RECEIVED);
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(2L);
+        assertEquals(1L, queue.stats().get("failed"));
+    }
+
+    @Test
+    void dispatch_RetriesAfterRejection() throws InterruptedException {
+        queue(DEBOUNCE_MS, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(fraudDetectionService).onReportSubmitted(1L);
+
+        // User 1 holds the only worker, user 2 fills the queue, user 3 is rejected
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+        queue.enqueue(2L, AbuseSignal.REPORT_RECEIVED);
+        queue.enqueue(3L, AbuseSignal.REPORT_RECEIVED);
+
+        verify(fraudDetectionService, after(4 * DEBOUNCE_MS).never()).onReportSubmitted(3L);
+        assertTrue((Long) queue.stats().get("rejected") >= 1);
+
+        release.countDown();
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(2L);
+        verify(fraudDetectionService, timeout(WAIT_MS)).onReportSubmitted(3L);
+    }
+
+    @Test
+    void shutdown_DropsEvaluationsStillInDebounceWindow() {
+        queue(200, 1, 10);
+
+        queue.enqueue(1L, AbuseSignal.REPORT_RECEIVED);
+        queue.shutdown();
+
+        verify(fraudDetectionService, after(400).never()).onReportSubmitted(1L);
+    }
+}
@@ -6,16 +6,21 @@ import com.gathr.entity.Activity;
 import com.gathr.entity.Hub;
 import com.gathr.entity.Message;
 import com.gathr.entity.User;
+import com.gathr.exception.InvalidRequestException;
 import com.gathr.exception.ResourceNotFoundException;
 import com.gathr.repository.ActivityRepository;
 import com.gathr.repository.MessageRepository;
 import com.gathr.repository.UserRepository;
+import com.gathr.service.chat.RecentMessageBuffer;
+import com.gathr.service.fraud.RiskTierCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -25,6 +30,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +45,12 @@ class MessageServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RiskTierCache riskTierCache;
+
+    @Mock
+    private RecentMessageBuffer recentMessages;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -76,41 +88,86 @@ class MessageServiceTest {
     }
 
     @Test
-    void getMessagesByActivity_ShouldReturnListOfMessageDtos() {
+    void getMessagesByActivity_WithoutCursor_ShouldReturnNewestPageOldestFirst() {
         // Given
         Long activityId = 1L;
-        List<Message> messages = Arrays.asList(testMessage);
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageDto> newestFirst = Arrays.asList(
+            new MessageDto(3L, activityId, 1L, "Test User", "third", now),
+            new MessageDto(2L, activityId, 1L, "Test User", "second", now.minusMinutes(1)));
 
-        when(messageRepository.findByActivityIdOrderByCreatedAtAsc(activityId)).thenReturn(messages);
+        when(messageRepository.findLatestRows(eq(activityId), any(Pageable.class))).thenReturn(newestFirst);
 
         // When
-        List<MessageDto> result = messageService.getMessagesByActivity(activityId);
+        List<MessageDto> result = messageService.getMessagesByActivity(activityId, null, null, 2);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getText()).isEqualTo("Hello everyone!");
+        assertThat(result).extracting(MessageDto::getId).containsExactly(2L, 3L);
         assertThat(result.get(0).getUserName()).isEqualTo("Test User");
-        assertThat(result.get(0).getActivityId()).isEqualTo(1L);
 
-        verify(messageRepository).findByActivityIdOrderByCreatedAtAsc(activityId);
+        verify(messageRepository).findLatestRows(activityId, PageRequest.of(0, 2));
     }
 
     @Test
-    void getMessagesByActivity_WithNoMessages_ShouldReturnEmptyList() {
+    void getMessagesByActivity_WithBeforeCursor_ShouldSeekFromCursor() {
         // Given
         Long activityId = 1L;
+        LocalDateTime cursorTime = LocalDateTime.now();
+        List<MessageDto> newestFirst = Arrays.asList(
+            new MessageDto(9L, activityId, 1L, "Test User", "ninth", cursorTime),
+            new MessageDto(8L, activityId, 1L, "Test User", "eighth", cursorTime.minusMinutes(1)));
 
-        when(messageRepository.findByActivityIdOrderByCreatedAtAsc(activityId)).thenReturn(Arrays.asList());
+        when(messageRepository.findCreatedAt(activityId, 10L)).thenReturn(Optional.of(cursorTime));
+        when(messageRepository.findRowsBefore(eq(activityId), eq(cursorTime), eq(10L), any(Pageable.class)))
+            .thenReturn(newestFirst);
 
         // When
-        List<MessageDto> result = messageService.getMessagesByActivity(activityId);
+        List<MessageDto> result = messageService.getMessagesByActivity(activityId, 10L, null, 1000);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).isEmpty();
+        assertThat(result).extracting(MessageDto::getId).containsExactly(8L, 9L);
+
+        verify(messageRepository).findRowsBefore(activityId, cursorTime, 10L, PageRequest.of(0, 200));
+        verify(messageRepository, never()).findLatestRows(any(), any());
+    }
+
+    @Test
+    void getMessagesByActivity_WithAfterCursor_ShouldReturnRowsInQueryOrder() {
+        // Given
+        Long activityId = 1L;
+        LocalDateTime cursorTime = LocalDateTime.now();
+        List<MessageDto> oldestFirst = Arrays.asList(
+            new MessageDto(11L, activityId, 1L, "Test User", "eleventh", cursorTime),
+            new MessageDto(12L, activityId, 1L, "Test User", "twelfth", cursorTime.plusMinutes(1)));
+
+        when(messageRepository.findCreatedAt(activityId, 10L)).thenReturn(Optional.of(cursorTime));
+        when(messageRepository.findRowsAfter(eq(activityId), eq(cursorTime), eq(10L), any(Pageable.class)))
+            .thenReturn(oldestFirst);
+
+        // When
+        List<MessageDto> result = messageService.getMessagesByActivity(activityId, null, 10L, 50);
+
+        // Then
+        assertThat(result).extracting(MessageDto::getId).containsExactly(11L, 12L);
+    }
+
+    @Test
+    void getMessagesByActivity_WithUnknownCursor_ShouldThrowException() {
+        // Given
+        when(messageRepository.findCreatedAt(1L, 999L)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThatThrownBy(() -> messageService.getMessagesByActivity(1L, 999L, null, 50))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Message not found");
+    }
+
+    @Test
+    void getMessagesByActivity_WithBothCursors_ShouldThrowException() {
+        assertThatThrownBy(() -> messageService.getMessagesByActivity(1L, 5L, 10L, 50))
+            .isInstanceOf(InvalidRequestException.class);
 
-        verify(messageRepository).findByActivityIdOrderByCreatedAtAsc(activityId);
+        verifyNoInteractions(messageRepository);
     }
 
     @Test
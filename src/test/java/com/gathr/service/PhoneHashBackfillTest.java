@@ -0,0 +1,65 @@
+package com.gathr.service;
+
+import com.gathr.entity.User;
+import com.gathr.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhoneHashBackfillTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ContactMatchService contactMatchService;
+
+    private PhoneHashBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new PhoneHashBackfill(userRepository, contactMatchService);
+    }
+
+    @Test
+    void backfill_HashesUsersThenLinks() {
+        User user = new User();
+        user.setId(7L);
+        user.setPhone("+15551234567");
+        user.setPhoneHash(null);
+        when(userRepository.findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(user));
+        when(userRepository.findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(7L)).thenReturn(List.of());
+
+        backfill.backfill();
+
+        assertNotNull(user.getPhoneHash());
+        verify(contactMatchService).linkAll();
+    }
+
+    @Test
+    void backfill_NothingToHash_StillLinks() {
+        // A previous run hashed everyone but stopped before linking
+        when(userRepository.findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(anyLong())).thenReturn(List.of());
+
+        backfill.backfill();
+
+        verify(contactMatchService).linkAll();
+    }
+
+    @Test
+    void backfill_LinkFailureDoesNotPropagate() {
+        when(userRepository.findTop500ByPhoneHashIsNullAndIdGreaterThanOrderByIdAsc(anyLong())).thenReturn(List.of());
+        when(contactMatchService.linkAll()).thenThrow(new RuntimeException("connection refused"));
+
+        assertDoesNotThrow(backfill::backfill);
+    }
+}
@@ -6,12 +6,15 @@ import com.gathr.entity.Activity;
 import com.gathr.repository.ReportRepository;
 import com.gathr.repository.UserRepository;
 import com.gathr.repository.ActivityRepository;
+import com.gathr.service.fraud.AbuseCounters;
+import com.gathr.service.user.UserSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.Optional;
@@ -35,6 +38,18 @@ class ReportServiceTest {
     @Mock
     private EventLogService eventLogService;
 
+    @Mock
+    private TrustScoreService trustScoreService;
+
+    @Mock
+    private AbuseCounters abuseCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserSnapshotCache userSnapshots;
+
     @Mock
     private WebClient.Builder webClientBuilder;
 
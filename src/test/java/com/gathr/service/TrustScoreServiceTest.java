@@ -2,10 +2,10 @@ package com.gathr.service;
 
 import com.gathr.dto.TrustScoreDto;
 import com.gathr.entity.User;
-import com.gathr.repository.FeedbackRepository;
-import com.gathr.repository.ParticipationRepository;
-import com.gathr.repository.ReportRepository;
-import com.gathr.repository.UserRepository;
+import com.gathr.entity.UserTrustStats;
+import com.gathr.repository.UserTrustStatsRepository;
+import com.gathr.service.user.UserSnapshot;
+import com.gathr.service.user.UserSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,21 +17,17 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TrustScoreServiceTest {
 
     @Mock
-    private FeedbackRepository feedbackRepository;
+    private UserTrustStatsRepository trustStatsRepository;
     @Mock
-    private ReportRepository reportRepository;
-    @Mock
-    private UserRepository userRepository;
-    @Mock
-    private ParticipationRepository participationRepository;
+    private UserSnapshotCache userSnapshots;
     @Mock
     private com.gathr.config.TrustScoreProperties properties;
 
@@ -74,12 +70,8 @@ class TrustScoreServiceTest {
         newUser.setId(2L);
         newUser.setCreatedAt(LocalDateTime.now()); // Brand new account
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(newUser));
-        when(feedbackRepository.countShowUpsByUserId(2L)).thenReturn(0);
-        when(feedbackRepository.countNoShowsByUserId(2L)).thenReturn(0);
-        when(feedbackRepository.averageRatingByUserId(2L)).thenReturn(null);
-        when(reportRepository.countByTargetUserId(2L)).thenReturn(0);
-        when(reportRepository.countRecentReportsByUserId(eq(2L), any())).thenReturn(0L);
+        when(userSnapshots.require(2L)).thenReturn(UserSnapshot.of(newUser));
+        when(trustStatsRepository.findById(2L)).thenReturn(Optional.empty()); // No stats row yet
 
         // Act
         TrustScoreDto result = trustScoreService.calculateTrustScore(2L);
@@ -92,31 +84,38 @@ class TrustScoreServiceTest {
     @Test
     void calculateTrustScore_GoodUser_ShouldHaveHighScore() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(feedbackRepository.countShowUpsByUserId(1L)).thenReturn(10); // +50 raw
-        when(feedbackRepository.countNoShowsByUserId(1L)).thenReturn(0);
-        when(feedbackRepository.averageRatingByUserId(1L)).thenReturn(5.0); // +50 raw
-        when(reportRepository.countByTargetUserId(1L)).thenReturn(0);
-        when(reportRepository.countRecentReportsByUserId(eq(1L), any())).thenReturn(0L);
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
+        UserTrustStats stats = new UserTrustStats(1L);
+        stats.setShowUps(10);
+        stats.setShowUpsDecayed(10);
+        // Just under one half-life, so the bonus stays a hair above +25
+        stats.setShowUpsDecayedAt(LocalDateTime.now().minusDays(90).plusMinutes(1));
+        stats.setRatingSum(50);
+        stats.setRatingCount(10); // avg 5.0, +50 raw
+        when(trustStatsRepository.findById(1L)).thenReturn(Optional.of(stats));
 
         // Act
         TrustScoreDto result = trustScoreService.calculateTrustScore(1L);
 
         // Assert
-        // Base 100 + ShowUps (~50 decayed) + Rating (50) + Volume Bonus (10) = ~210
-        // Capped at 200
-        assertEquals(194, result.trustScore());
+        // Base 100 + ShowUps (50 halved by decay) + Rating (50) + Volume Bonus (10) = 185
+        assertEquals(185, result.trustScore());
     }
 
     @Test
     void calculateTrustScore_BadUser_ShouldHaveLowScore() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(feedbackRepository.countShowUpsByUserId(1L)).thenReturn(0);
-        when(feedbackRepository.countNoShowsByUserId(1L)).thenReturn(5); // -50 raw
-        when(feedbackRepository.averageRatingByUserId(1L)).thenReturn(2.0); // +20
-        when(reportRepository.countByTargetUserId(1L)).thenReturn(2); // -40 raw
-        when(reportRepository.countRecentReportsByUserId(eq(1L), any())).thenReturn(2L); // All recent
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
+        UserTrustStats stats = new UserTrustStats(1L);
+        stats.setNoShows(5);
+        stats.setNoShowsDecayed(5); // -50 raw
+        stats.setNoShowsDecayedAt(LocalDateTime.now());
+        stats.setRatingSum(10);
+        stats.setRatingCount(5); // avg 2.0, +20
+        stats.setReportsTotal(2);
+        stats.setReportsDecayed(2); // -40 raw, all recent
+        stats.setReportsDecayedAt(LocalDateTime.now());
+        when(trustStatsRepository.findById(1L)).thenReturn(Optional.of(stats));
 
         // Act
         TrustScoreDto result = trustScoreService.calculateTrustScore(1L);
@@ -130,13 +129,18 @@ class TrustScoreServiceTest {
     @Test
     void calculateTrustScore_RecentReports_ShouldPenalizeHeavily() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(feedbackRepository.countShowUpsByUserId(1L)).thenReturn(5); // +25
-        when(feedbackRepository.countNoShowsByUserId(1L)).thenReturn(0);
-        when(feedbackRepository.averageRatingByUserId(1L)).thenReturn(4.0); // +40
+        when(userSnapshots.require(1L)).thenReturn(UserSnapshot.of(testUser));
+        UserTrustStats stats = new UserTrustStats(1L);
+        stats.setShowUps(5);
+        stats.setShowUpsDecayed(5); // +25
+        stats.setShowUpsDecayedAt(LocalDateTime.now());
+        stats.setRatingSum(20);
+        stats.setRatingCount(5); // avg 4.0, +40
         // 1 report, recent
-        when(reportRepository.countByTargetUserId(1L)).thenReturn(1);
-        when(reportRepository.countRecentReportsByUserId(eq(1L), any())).thenReturn(1L);
+        stats.setReportsTotal(1);
+        stats.setReportsDecayed(1);
+        stats.setReportsDecayedAt(LocalDateTime.now().minusDays(3));
+        when(trustStatsRepository.findById(1L)).thenReturn(Optional.of(stats));
 
         // Act
         TrustScoreDto result = trustScoreService.calculateTrustScore(1L);
@@ -147,4 +151,54 @@ class TrustScoreServiceTest {
         // We just check it's roughly correct, exact decay math is complex
         assertTrue(result.trustScore() < 165);
     }
+
+    @Test
+    void recordFeedback_ShouldUpdateLockedStatsRow() {
+        // Arrange
+        UserTrustStats stats = new UserTrustStats(1L);
+        when(trustStatsRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(stats));
+
+        // Act
+        trustScoreService.recordFeedback(1L, true, 4);
+        trustScoreService.recordFeedback(1L, false, null);
+
+        // Assert
+        verify(trustStatsRepository, times(2)).insertIfAbsent(1L);
+        assertEquals(1, stats.getShowUps());
+        assertEquals(1, stats.getNoShows());
+        assertEquals(4.0, stats.averageRating());
+    }
+
+    @Test
+    void recordReport_ShouldDecayRunningSumBeforeAdding() {
+        // Arrange: one report exactly one decay period ago
+        UserTrustStats stats = new UserTrustStats(1L);
+        stats.setReportsTotal(1);
+        stats.setReportsDecayed(1);
+        stats.setReportsDecayedAt(LocalDateTime.now().minusDays(30));
+        when(trustStatsRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(stats));
+
+        // Act
+        trustScoreService.recordReport(1L);
+
+        // Assert: 0.9 (decayed) + 1 (new)
+        assertEquals(2, stats.getReportsTotal());
+        assertEquals(1.9, stats.getReportsDecayed(), 1e-3);
+    }
+
+    @Test
+    void decay_RunningSumMatchesPerEventDecay() {
+        LocalDateTime t0 = LocalDateTime.now().minusDays(200);
+        LocalDateTime t1 = t0.plusDays(45);
+        LocalDateTime now = t0.plusDays(200);
+
+        // Two events folded into one running sum
+        double sum = TrustScoreService.decay(1, t0, t1, 0.5, 90) + 1;
+        double viaSum = TrustScoreService.decay(sum, t1, now, 0.5, 90);
+
+        // Each event decayed by its own age
+        double perEvent = Math.pow(0.5, 200 / 90.0) + Math.pow(0.5, 155 / 90.0);
+
+        assertEquals(perEvent, viaSum, 1e-9);
+    }
 }
@@ -0,0 +1,157 @@
+package com.gathr.service.chat;
+
+import com.gathr.dto.MessageDto;
+import com.gathr.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecentMessageBufferTest {
+
+    private static final Long ACTIVITY_ID = 1L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+    private RecentMessageBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new RecentMessageBuffer(messageRepository, 3, 100, 30, true, clock::get);
+    }
+
+    private static MessageDto message(long id) {
+        return new MessageDto(id, ACTIVITY_ID, 7L, "Test User", "message " + id, T0.plusSeconds(id));
+    }
+
+    private static List<Long> ids(Optional<List<MessageDto>> messages) {
+        return messages.orElseThrow().stream().map(MessageDto::getId).toList();
+    }
+
+    @Test
+    void after_SeedsOnceAndServesRecordedMessages() {
+        // Newest first, as the repository returns them; 2 is also recorded on send
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(2), message(1)));
+
+        buffer.record(message(2));
+        buffer.record(message(3));
+
+        assertEquals(List.of(2L, 3L), ids(buffer.after(ACTIVITY_ID, 1L, 50)));
+        assertEquals(List.of(3L), ids(buffer.after(ACTIVITY_ID, 2L, 50)));
+        verify(messageRepository, times(1)).findLatestRows(eq(ACTIVITY_ID), any(Pageable.class));
+    }
+
+    @Test
+    void after_MissesOnceCursorFallsOutOfBuffer() {
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(4), message(3), message(2)));
+
+        buffer.record(message(1));
+        for (long id = 2; id <= 4; id++) {
+            buffer.record(message(id));
+        }
+
+        assertTrue(buffer.after(ACTIVITY_ID, 1L, 50).isEmpty());
+        assertEquals(List.of(3L), ids(buffer.after(ACTIVITY_ID, 2L, 1)));
+        assertTrue(buffer.after(2L, 1L, 50).isEmpty());
+    }
+
+    @Test
+    void record_KeepsLateCommitsInOrder() {
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class))).thenReturn(List.of());
+
+        buffer.record(message(1));
+        buffer.record(message(3));
+        buffer.record(message(2));
+
+        assertEquals(List.of(2L, 3L), ids(buffer.after(ACTIVITY_ID, 1L, 50)));
+    }
+
+    @Test
+    void latest_ServesShortHistoryButNotPartialOne() {
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(1)));
+        buffer.record(message(2));
+
+        // The whole history fits, so a page larger than it is still complete
+        assertEquals(List.of(1L, 2L), ids(buffer.latest(ACTIVITY_ID, 50)));
+
+        buffer.record(message(3));
+        buffer.record(message(4));
+        assertEquals(List.of(3L, 4L), ids(buffer.latest(ACTIVITY_ID, 2)));
+        assertTrue(buffer.latest(ACTIVITY_ID, 50).isEmpty());
+    }
+
+    @Test
+    void evictIdle_DropsQuietChats() {
+        buffer.record(message(1));
+
+        clock.addAndGet(29 * 60_000L);
+        buffer.evictIdle();
+        assertEquals(1, buffer.stats().get("chats"));
+
+        clock.addAndGet(60_000L);
+        buffer.evictIdle();
+        assertEquals(0, buffer.stats().get("chats"));
+        assertTrue(buffer.after(ACTIVITY_ID, 1L, 50).isEmpty());
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void evictIdle_ReadsDoNotKeepChatAlive() {
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class))).thenReturn(List.of());
+        buffer.record(message(1));
+
+        clock.addAndGet(29 * 60_000L);
+        assertTrue(buffer.after(ACTIVITY_ID, 1L, 50).isPresent());
+
+        clock.addAndGet(60_000L);
+        buffer.evictIdle();
+        assertEquals(0, buffer.stats().get("chats"));
+    }
+
+    @Test
+    void evict_DropsBufferSoNextReadGoesToDatabase() {
+        when(messageRepository.findLatestRows(eq(ACTIVITY_ID), any(Pageable.class))).thenReturn(List.of());
+        buffer.record(message(1));
+        assertTrue(buffer.after(ACTIVITY_ID, 1L, 50).isPresent());
+
+        buffer.evict(ACTIVITY_ID);
+
+        assertTrue(buffer.after(ACTIVITY_ID, 1L, 50).isEmpty());
+        assertEquals(0, buffer.stats().get("chats"));
+
+        // The next message starts a fresh buffer, seeded again from the database
+        buffer.record(message(2));
+        assertEquals(List.of(2L), ids(buffer.latest(ACTIVITY_ID, 50)));
+        verify(messageRepository, times(2)).findLatestRows(eq(ACTIVITY_ID), any(Pageable.class));
+    }
+
+    @Test
+    void record_IgnoredUnlessSingleInstance() {
+        RecentMessageBuffer shared = new RecentMessageBuffer(messageRepository, 3, 100, 30, false, clock::get);
+
+        shared.record(message(1));
+
+        assertEquals(0, shared.stats().get("chats"));
+        assertTrue(shared.latest(ACTIVITY_ID, 50).isEmpty());
+        verifyNoInteractions(messageRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gathr.service.fraud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionRuleCompilerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+
+    @Test
+    void compile_ThresholdComparesFeatureValue() throws Exception {
+        RulePredicate predicate = DetectionRuleCompiler.compile("threshold",
+                json("{\"feature\": \"reports_30d\", \"op\": \">\", \"value\": 2}"));
+
+        assertFalse(predicate.test(new RiskFeatures().set(RiskFeature.REPORTS_30D, 2)));
+        assertTrue(predicate.test(new RiskFeatures().set(RiskFeature.REPORTS_30D, 3)));
+    }
+
+    @Test
+    void compile_ThresholdDefaultsToAtLeast() throws Exception {
+        RulePredicate predicate = DetectionRuleCompiler.compile("THRESHOLD",
+                json("{\"feature\": \"NO_SHOW_RATE\", \"value\": 0.5}"));
+
+        assertTrue(predicate.test(new RiskFeatures().attendance(1, 1)));
+        assertFalse(predicate.test(new RiskFeatures().attendance(2, 1)));
+    }
+
+    @Test
+    void compile_NestedAllAnyNot() throws Exception {
+        // New account without contacts, or anyone with a ring score, unless they have shown up 5+ times
+        RulePredicate predicate = DetectionRuleCompiler.compile("ALL", json("""
+                {"conditions": [
+                  {"type": "ANY", "conditions": [
+                    {"type": "ALL", "conditions": [
+                      {"type": "NO_CONTACTS"},
+                      {"type": "THRESHOLD", "feature": "ACCOUNT_AGE_DAYS", "op": "<", "value": 7}
+                    ]},
+                    {"type": "THRESHOLD", "feature": "RING_SCORE", "op": ">", "value": 0}
+                  ]},
+                  {"type": "NOT", "condition": {"type": "THRESHOLD", "feature": "SHOW_UPS", "value": 5}}
+                ]}
+                """));
+
+        assertTrue(predicate.test(new RiskFeatures().set(RiskFeature.ACCOUNT_AGE_DAYS, 2)));
+        assertFalse(predicate.test(new RiskFeatures()
+                .set(RiskFeature.ACCOUNT_AGE_DAYS, 2)
+                .set(RiskFeature.HAS_CONTACTS, true)));
+        assertTrue(predicate.test(new RiskFeatures()
+                .set(RiskFeature.ACCOUNT_AGE_DAYS, 30)
+                .set(RiskFeature.RING_SCORE, 10)));
+        assertFalse(predicate.test(new RiskFeatures()
+                .set(RiskFeature.RING_SCORE, 10)
+                .attendance(5, 0)));
+    }
+
+    @Test
+    void compile_IpPlaceholderNeverMatches() {
+        assertFalse(DetectionRuleCompiler.compile("IP_PLACEHOLDER", null).test(new RiskFeatures()));
+    }
+
+    @Test
+    void compile_RejectsInvalidDefinitions() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("VELOCITY", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("THRESHOLD", json("{\"feature\": \"KARMA\", \"value\": 1}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("THRESHOLD", json("{\"feature\": \"REPORTS_30D\", \"value\": \"3\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("THRESHOLD", json("{\"feature\": \"REPORTS_30D\", \"op\": \"=>\", \"value\": 3}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("THRESHOLD", json("{\"feature\": \"REPORTS_30D\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("ANY", json("{\"conditions\": []}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DetectionRuleCompiler.compile("ALL", json("{\"conditions\": [{\"feature\": \"REPORTS_30D\"}]}")));
+    }
+}
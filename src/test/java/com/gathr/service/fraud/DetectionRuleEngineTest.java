@@ -0,0 +1,151 @@
+package com.gathr.service.fraud;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gathr.entity.DetectionRule;
+import com.gathr.repository.DetectionRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DetectionRuleEngineTest {
+
+    @Mock
+    private DetectionRuleRepository detectionRuleRepository;
+
+    private DetectionRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DetectionRuleEngine(detectionRuleRepository, new ObjectMapper());
+    }
+
+    private static DetectionRule rule(long id, String name, String category, String type, String params, int delta) {
+        DetectionRule rule = new DetectionRule();
+        rule.setId(id);
+        rule.setName(name);
+        rule.setCategory(category);
+        rule.setConditionType(type);
+        rule.setConditionParams(params);
+        rule.setRiskDelta(delta);
+        rule.setAction("FLAG");
+        return rule;
+    }
+
+    private static List<Object[]> version(long count, LocalDateTime updatedAt) {
+        return version(count, updatedAt, 0);
+    }
+
+    private static List<Object[]> version(long count, LocalDateTime updatedAt, long revisions) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { count, updatedAt, revisions });
+        return rows;
+    }
+
+    @Test
+    void evaluate_SumsMatchedDeltasPerCategory() {
+        when(detectionRuleRepository.findVersion()).thenReturn(version(4, LocalDateTime.now()));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 10),
+                rule(2, "many_reports", "HARASSMENT", "THRESHOLD",
+                        "{\"feature\": \"REPORTS_30D\", \"value\": 3}", 20),
+                rule(3, "many_reporters", "HARASSMENT", "THRESHOLD",
+                        "{\"feature\": \"DISTINCT_REPORTERS_30D\", \"value\": 2}", 15),
+                rule(4, "flaky", "NO_SHOW", "THRESHOLD",
+                        "{\"feature\": \"NO_SHOW_RATE\", \"op\": \">\", \"value\": 0.5}", 5)));
+        engine.reload();
+
+        RiskFeatures features = new RiskFeatures()
+                .set(RiskFeature.REPORTS_30D, 4)
+                .set(RiskFeature.DISTINCT_REPORTERS_30D, 3)
+                .set(RiskFeature.HAS_CONTACTS, true)
+                .attendance(3, 1);
+        RuleEvaluation evaluation = engine.evaluate(features);
+
+        assertEquals(4, engine.ruleCount());
+        assertEquals(35, evaluation.delta(RuleCategory.HARASSMENT));
+        assertEquals(0, evaluation.delta(RuleCategory.FAKE_ACCOUNT));
+        assertEquals(0, evaluation.delta(RuleCategory.SERIAL_NO_SHOW));
+        assertEquals(List.of("many_reports", "many_reporters"), evaluation.matchedRules());
+
+        RuleEvaluation onlyFake = engine.evaluate(new RiskFeatures(), RuleCategory.FAKE_ACCOUNT);
+        assertEquals(10, onlyFake.delta(RuleCategory.FAKE_ACCOUNT));
+        assertEquals(List.of("no_contacts"), onlyFake.matchedRules());
+    }
+
+    @Test
+    void reload_SkipsInvalidRulesAndKeepsTheRest() {
+        when(detectionRuleRepository.findVersion()).thenReturn(version(3, LocalDateTime.now()));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "bad_feature", "SPAM", "THRESHOLD", "{\"feature\": \"KARMA\", \"value\": 1}", 10),
+                rule(2, "bad_category", "PHISHING", "NO_CONTACTS", null, 10),
+                rule(3, "busy", "SPAM", "THRESHOLD", "{\"feature\": \"ACTIVITIES_24H\", \"value\": 5}", 25)));
+
+        engine.reload();
+
+        assertEquals(1, engine.ruleCount());
+        assertEquals(25, engine.evaluate(new RiskFeatures().set(RiskFeature.ACTIVITIES_24H, 6))
+                .delta(RuleCategory.SPAM));
+    }
+
+    @Test
+    void reloadIfChanged_RecompilesOnlyWhenRulesChanged() {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        when(detectionRuleRepository.findVersion()).thenReturn(version(1, loadedAt));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 10)));
+        engine.reload();
+
+        engine.reloadIfChanged();
+        verify(detectionRuleRepository, times(1)).findByEnabledTrue();
+
+        when(detectionRuleRepository.findVersion()).thenReturn(version(1, loadedAt.plusSeconds(1)));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 30)));
+        engine.reloadIfChanged();
+
+        verify(detectionRuleRepository, times(2)).findByEnabledTrue();
+        assertEquals(30, engine.evaluate(new RiskFeatures()).delta(RuleCategory.FAKE_ACCOUNT));
+    }
+
+    @Test
+    void reloadIfChanged_SeesEditCommittedWithOlderTimestamp() {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        when(detectionRuleRepository.findVersion()).thenReturn(version(2, loadedAt, 3));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 10)));
+        engine.reload();
+
+        // Count and latest timestamp unchanged; only the revision sum moved
+        when(detectionRuleRepository.findVersion()).thenReturn(version(2, loadedAt, 4));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 30)));
+        engine.reloadIfChanged();
+
+        assertEquals(30, engine.evaluate(new RiskFeatures()).delta(RuleCategory.FAKE_ACCOUNT));
+    }
+
+    @Test
+    void load_DatabaseErrorIsLoggedAndNextPollRetries() {
+        when(detectionRuleRepository.findVersion())
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(version(1, LocalDateTime.now()));
+        when(detectionRuleRepository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "no_contacts", "FAKE_ACCOUNT", "NO_CONTACTS", null, 10)));
+
+        assertDoesNotThrow(engine::load);
+        assertEquals(0, engine.ruleCount());
+
+        engine.reloadIfChanged();
+        assertEquals(1, engine.ruleCount());
+    }
+}
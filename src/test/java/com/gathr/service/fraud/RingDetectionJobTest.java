@@ -0,0 +1,177 @@
+package com.gathr.service.fraud;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RingDetectionJobTest {
+
+    private static final long OUTSIDER = 99L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RiskTierCache riskTierCache;
+
+    private RingDetectionJob job;
+
+    // Fixture query results
+    private final List<long[]> coParticipations = new ArrayList<>();
+    private final List<long[]> reports = new ArrayList<>();
+
+    // Simulated user_risk_scores: user_id -> {ring_score, coordination_score, total_score}
+    private final Map<Long, int[]> scores = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        job = new RingDetectionJob(jdbcTemplate, transactionManager, riskTierCache);
+
+        doAnswer(this::query).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(this::reset);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(this::upsert);
+
+        // Users 1-4 attended three activities together
+        for (long a = 1; a <= 4; a++) {
+            for (long b = a + 1; b <= 4; b++) {
+                coParticipations.add(new long[] { a, b, 3 });
+            }
+        }
+    }
+
+    @Test
+    void detectRings_CoReportingRingScoresHigher() {
+        reports.add(new long[] { 1L, OUTSIDER });
+        reports.add(new long[] { 2L, OUTSIDER });
+        reports.add(new long[] { 3L, OUTSIDER });
+
+        job.detectRings();
+
+        // Fully dense cluster of four (20) that co-reported an outsider (+20)
+        for (long userId = 1; userId <= 4; userId++) {
+            assertArrayEquals(new int[] { 40, 40, 40 }, scores.get(userId), "user " + userId);
+        }
+        assertFalse(scores.containsKey(OUTSIDER));
+        verify(riskTierCache).reload();
+    }
+
+    @Test
+    void detectRings_ReportsAgainstRingMembersDoNotCount() {
+        reports.add(new long[] { 1L, 4L });
+        reports.add(new long[] { 2L, 4L });
+        reports.add(new long[] { 3L, 4L });
+        // An outsider's reports never count either
+        reports.add(new long[] { 50L, OUTSIDER });
+
+        job.detectRings();
+
+        for (long userId = 1; userId <= 4; userId++) {
+            assertEquals(20, scores.get(userId)[0], "user " + userId);
+        }
+    }
+
+    @Test
+    void detectRings_ReplacesOnlyPreviousRingPoints() {
+        // User 1: 15 rule points plus 10 from the last run. User 10: rule points only.
+        // User 11: flagged last run, no longer in a ring.
+        scores.put(1L, new int[] { 10, 25, 35 });
+        scores.put(10L, new int[] { 0, 15, 60 });
+        scores.put(11L, new int[] { 30, 45, 50 });
+
+        job.detectRings();
+
+        assertArrayEquals(new int[] { 20, 35, 45 }, scores.get(1L));
+        assertArrayEquals(new int[] { 0, 15, 60 }, scores.get(10L));
+        assertArrayEquals(new int[] { 0, 15, 20 }, scores.get(11L));
+
+        // Running again with the same input changes nothing
+        job.detectRings();
+        assertArrayEquals(new int[] { 20, 35, 45 }, scores.get(1L));
+        assertArrayEquals(new int[] { 0, 15, 20 }, scores.get(11L));
+    }
+
+    private Object query(InvocationOnMock invocation) throws SQLException {
+        String sql = invocation.getArgument(0);
+        RowCallbackHandler handler = invocation.getArgument(1);
+        List<long[]> rows = sql.contains("FROM participations") ? coParticipations
+                : sql.contains("FROM reports") ? reports
+                : List.of();
+        for (long[] row : rows) {
+            ResultSet rs = mock(ResultSet.class);
+            lenient().when(rs.getLong(1)).thenReturn(row[0]);
+            lenient().when(rs.getLong(2)).thenReturn(row[1]);
+            if (row.length > 2) {
+                lenient().when(rs.getInt(3)).thenReturn((int) row[2]);
+            }
+            handler.processRow(rs);
+        }
+        return null;
+    }
+
+    /**
+     * Applies RESET_SQL: take ring_score back out of coordination and total, then zero it.
+     */
+    private Object reset(InvocationOnMock invocation) {
+        String sql = invocation.getArgument(0);
+        assertTrue(sql.contains("coordination_score = coordination_score - ring_score"), sql);
+        assertTrue(sql.contains("total_score = total_score - ring_score"), sql);
+        assertTrue(sql.contains("WHERE ring_score <> 0"), sql);
+        int updated = 0;
+        for (int[] row : scores.values()) {
+            if (row[0] != 0) {
+                row[1] -= row[0];
+                row[2] -= row[0];
+                row[0] = 0;
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Applies UPSERT_SQL: new rows take the ring score in all three columns; existing rows
+     * set ring_score and add it to coordination and total.
+     */
+    private Object upsert(InvocationOnMock invocation) {
+        String sql = invocation.getArgument(0);
+        assertTrue(sql.contains("coordination_score = user_risk_scores.coordination_score + EXCLUDED.ring_score"), sql);
+        assertTrue(sql.contains("total_score = user_risk_scores.total_score + EXCLUDED.ring_score"), sql);
+        List<Object[]> rows = invocation.getArgument(1);
+        for (Object[] row : rows) {
+            long userId = (Long) row[0];
+            int ring = (Integer) row[1];
+            int[] existing = scores.get(userId);
+            if (existing == null) {
+                scores.put(userId, new int[] { ring, (Integer) row[2], (Integer) row[3] });
+            } else {
+                existing[0] = ring;
+                existing[1] += ring;
+                existing[2] += ring;
+            }
+        }
+        return new int[rows.size()];
+    }
+}
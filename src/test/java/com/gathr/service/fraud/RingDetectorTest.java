@@ -0,0 +1,65 @@
+package com.gathr.service.fraud;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingDetectorTest {
+
+    @Test
+    void communities_SplitsTwoCliquesJoinedByOneLink() {
+        RingDetector.Builder builder = RingDetector.builder(16);
+        clique(builder, 10L, 11L, 12L, 13L);
+        clique(builder, 20L, 21L, 22L, 23L);
+        builder.add(13L, 20L, 1f);
+        RingDetector graph = builder.build();
+
+        int[] labels = graph.communities(3, 20);
+        RingDetector.CommunityStats stats = graph.stats(labels);
+
+        int first = labels[graph.nodeOf(10L)];
+        int second = labels[graph.nodeOf(20L)];
+        assertNotEquals(first, second);
+        for (long id : new long[] { 11L, 12L, 13L }) {
+            assertEquals(first, labels[graph.nodeOf(id)]);
+        }
+        assertEquals(4, stats.size(first));
+        assertEquals(1.0, stats.density(first), 1e-9);
+    }
+
+    @Test
+    void communities_SkipsComponentsBelowMinimumSize() {
+        RingDetector graph = RingDetector.builder(4)
+                .add(1L, 2L, 1f)
+                .add(3L, 4L, 1f)
+                .add(4L, 5L, 1f)
+                .build();
+
+        int[] labels = graph.communities(3, 20);
+
+        assertEquals(-1, labels[graph.nodeOf(1L)]);
+        assertEquals(-1, labels[graph.nodeOf(2L)]);
+        assertTrue(labels[graph.nodeOf(4L)] >= 0);
+    }
+
+    @Test
+    void build_MergesParallelLinksAndDropsSelfLinks() {
+        RingDetector graph = RingDetector.builder(4)
+                .add(1L, 2L, 1f)
+                .add(2L, 1L, 0.5f)
+                .add(3L, 3L, 1f)
+                .build();
+
+        assertEquals(2, graph.nodeCount());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(-1, graph.nodeOf(3L));
+    }
+
+    private static void clique(RingDetector.Builder builder, long... ids) {
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = i + 1; j < ids.length; j++) {
+                builder.add(ids[i], ids[j], 2f);
+            }
+        }
+    }
+}
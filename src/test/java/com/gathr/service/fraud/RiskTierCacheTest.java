@@ -0,0 +1,176 @@
+package com.gathr.service.fraud;
+
+import com.gathr.entity.User;
+import com.gathr.entity.UserRiskScore;
+import com.gathr.repository.UserRepository;
+import com.gathr.repository.UserRiskScoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskTierCacheTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRiskScoreRepository userRiskScoreRepository;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private RiskTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RiskTierCache(jdbcTemplate, userRepository, userRiskScoreRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Stub a reload that reads one user's score, running {@code duringLoad} between
+     * reading the scores and reading the banned users.
+     */
+    private void stubLoad(Long userId, int totalScore, List<Long> bannedIds, Runnable duringLoad) throws SQLException {
+        when(resultSet.getLong(1)).thenReturn(userId);
+        when(resultSet.getInt(2)).thenReturn(totalScore);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            duringLoad.run();
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(RiskScoring.RISK_SCORE_WARN));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(bannedIds);
+    }
+
+    @Test
+    void tier_BeforeFirstLoad_FallsBackToRepositories() {
+        User banned = new User();
+        banned.setIsBanned(true);
+        UserRiskScore score = new UserRiskScore();
+        score.setTotalScore(RiskScoring.RISK_SCORE_SOFT_BAN);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(banned));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(new User()));
+        when(userRiskScoreRepository.findById(2L)).thenReturn(Optional.of(score));
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRiskScoreRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertEquals(RiskTier.BAN, cache.tier(1L));
+        assertEquals(RiskTier.SOFT_BAN, cache.tier(2L));
+        assertEquals(RiskTier.NONE, cache.tier(3L));
+    }
+
+    @Test
+    void reload_ServesFromMemory() throws SQLException {
+        stubLoad(1L, RiskScoring.RISK_SCORE_RESTRICTED, List.of(2L), () -> {});
+
+        cache.reload();
+
+        assertEquals(RiskTier.RESTRICTED, cache.tier(1L));
+        assertEquals(RiskTier.BAN, cache.tier(2L));
+        assertEquals(RiskTier.NONE, cache.tier(3L));
+        verifyNoInteractions(userRepository, userRiskScoreRepository);
+    }
+
+    @Test
+    void reload_KeepsWritesMadeWhileLoading() throws SQLException {
+        // User 1 is cleared and user 3 banned after the load read them
+        stubLoad(1L, RiskScoring.RISK_SCORE_RESTRICTED, List.of(), () -> {
+            cache.update(1L, 0);
+            cache.markBanned(3L);
+        });
+
+        cache.reload();
+
+        assertEquals(RiskTier.NONE, cache.tier(1L));
+        assertEquals(RiskTier.BAN, cache.tier(3L));
+    }
+
+    @Test
+    void reload_DropsEntriesNoLongerInDatabase() throws SQLException {
+        stubLoad(1L, RiskScoring.RISK_SCORE_WARN, List.of(), () -> {});
+        cache.reload();
+        cache.update(2L, RiskScoring.RISK_SCORE_SOFT_BAN);
+        cache.markBanned(3L);
+
+        cache.reload();
+
+        assertEquals(RiskTier.WARN, cache.tier(1L));
+        assertEquals(RiskTier.NONE, cache.tier(2L));
+        assertEquals(RiskTier.NONE, cache.tier(3L));
+    }
+
+    @Test
+    void update_AppliesOnlyAfterCommit() throws SQLException {
+        stubLoad(1L, RiskScoring.RISK_SCORE_WARN, List.of(), () -> {});
+        cache.reload();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.update(2L, RiskScoring.RISK_SCORE_RESTRICTED);
+        cache.markBanned(3L);
+        assertEquals(RiskTier.NONE, cache.tier(2L));
+        assertEquals(RiskTier.NONE, cache.tier(3L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(RiskTier.RESTRICTED, cache.tier(2L));
+        assertEquals(RiskTier.BAN, cache.tier(3L));
+    }
+
+    @Test
+    void update_NotAppliedOnRollback() throws SQLException {
+        stubLoad(1L, RiskScoring.RISK_SCORE_WARN, List.of(), () -> {});
+        cache.reload();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.update(1L, RiskScoring.RISK_SCORE_AUTO_BAN);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(RiskTier.WARN, cache.tier(1L));
+    }
+
+    @Test
+    void updateAll_WritesEveryScoreAndBan() throws SQLException {
+        stubLoad(1L, RiskScoring.RISK_SCORE_WARN, List.of(), () -> {});
+        cache.reload();
+
+        cache.updateAll(Map.of(1L, 0, 2L, RiskScoring.RISK_SCORE_SOFT_BAN), List.of(3L));
+
+        assertEquals(RiskTier.NONE, cache.tier(1L));
+        assertEquals(RiskTier.SOFT_BAN, cache.tier(2L));
+        assertEquals(RiskTier.BAN, cache.tier(3L));
+        assertTrue(cache.isAtLeast(3L, RiskTier.RESTRICTED));
+        assertFalse(cache.isAtLeast(2L, RiskTier.RESTRICTED));
+    }
+}
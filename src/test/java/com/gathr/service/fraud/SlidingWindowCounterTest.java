@@ -0,0 +1,57 @@
+package com.gathr.service.fraud;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void count_IncludesEveryEventInsideWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofDays(1), 24);
+        long now = 1000 * HOUR + HOUR / 2;
+
+        counter.add(now - 24 * HOUR + 1, 1); // just inside the window
+        counter.add(now - HOUR, 2);
+        counter.add(now, 1);
+
+        assertEquals(4, counter.count(now));
+    }
+
+    @Test
+    void count_DropsEventsOlderThanWindowPlusOneBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofDays(1), 24);
+        long now = 1000 * HOUR;
+
+        counter.add(now, 3);
+
+        assertEquals(3, counter.count(now + 24 * HOUR));
+        assertEquals(0, counter.count(now + 25 * HOUR));
+    }
+
+    @Test
+    void add_ReusedSlotStartsFromZero() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofDays(1), 24);
+        long now = 1000 * HOUR;
+
+        counter.add(now, 5);
+        counter.add(now + 25 * HOUR, 1); // same slot, next lap of the ring
+
+        assertEquals(1, counter.count(now + 25 * HOUR));
+    }
+
+    @Test
+    void add_IgnoresEventOlderThanSlotContents() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofDays(1), 24);
+        long now = 1000 * HOUR;
+
+        counter.add(now, 2);
+        counter.add(now - 25 * HOUR, 7); // late seed row for the same slot
+
+        assertEquals(2, counter.count(now));
+    }
+}
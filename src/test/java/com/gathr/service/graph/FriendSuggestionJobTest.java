@@ -0,0 +1,107 @@
+package com.gathr.service.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendSuggestionJobTest {
+
+    @Mock
+    private SocialGraphIndex socialGraphIndex;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FriendSuggestionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new FriendSuggestionJob(socialGraphIndex, jdbcTemplate, transactionManager, 20, 1);
+    }
+
+    @Test
+    void run_IndexNotLoaded_WritesNothing() {
+        when(socialGraphIndex.isLoaded()).thenReturn(false);
+
+        job.run();
+
+        verify(socialGraphIndex, never()).snapshot();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void run_EmptyGraph_WritesNothing() {
+        when(socialGraphIndex.isLoaded()).thenReturn(true);
+        when(socialGraphIndex.snapshot()).thenReturn(CsrGraph.EMPTY);
+
+        job.run();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void run_ReplacesOnlyRankedUsersThenSweepsStaleRows() throws SQLException {
+        // 1 - 2 - 3: 1 and 3 are suggested to each other through 2
+        CsrGraph.Builder builder = CsrGraph.builder(4);
+        builder.add(1L, 2L, 0.5f);
+        builder.add(2L, 1L, 0.5f);
+        builder.add(2L, 3L, 0.5f);
+        builder.add(3L, 2L, 0.5f);
+        when(socialGraphIndex.isLoaded()).thenReturn(true);
+        when(socialGraphIndex.snapshot()).thenReturn(builder.build());
+
+        job.run();
+
+        ArgumentCaptor<PreparedStatementCreator> delete = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(delete.capture());
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createArrayOf(eq("bigint"), any())).thenReturn(mock(Array.class));
+        delete.getValue().createPreparedStatement(connection);
+        verify(connection).createArrayOf("bigint", new Long[] { 1L, 2L, 3L });
+
+        ArgumentCaptor<List<Object[]>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), inserted.capture());
+        assertEquals(2, inserted.getValue().size());
+        verify(jdbcTemplate).update(startsWith("DELETE FROM friend_suggestions WHERE computed_at"), any(Timestamp.class));
+    }
+
+    @Test
+    void run_LeafFailure_SkipsSweep() {
+        CsrGraph.Builder builder = CsrGraph.builder(2);
+        builder.add(1L, 2L, 0.5f);
+        builder.add(2L, 1L, 0.5f);
+        when(socialGraphIndex.isLoaded()).thenReturn(true);
+        when(socialGraphIndex.snapshot()).thenReturn(builder.build());
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenThrow(new RuntimeException("deadlock"));
+
+        job.run();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.gathr.service.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreAccumulatorTest {
+
+    @Test
+    void add_MergesRepeatedKeysAcrossResizes() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(4);
+        for (long key = 1; key <= 1000; key++) {
+            accumulator.add(key, 1f);
+        }
+        accumulator.add(500L, 2f);
+        accumulator.add(500L, 2f);
+
+        List<FriendSuggestion> top = accumulator.top(2);
+
+        assertEquals(2, top.size());
+        assertEquals(500L, top.get(0).userId());
+        assertEquals(5.0, top.get(0).score(), 1e-6);
+        assertEquals(3, top.get(0).sharedConnections());
+        // Ties on score and count go to the lower id
+        assertEquals(1L, top.get(1).userId());
+    }
+
+    @Test
+    void clear_ForgetsEntriesAfterTablesGrew() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(4);
+        for (long key = 1; key <= 1000; key++) {
+            accumulator.add(key, 1f);
+        }
+
+        accumulator.clear();
+        assertTrue(accumulator.isEmpty());
+        assertTrue(accumulator.top(10).isEmpty());
+
+        accumulator.add(7L, 0.5f);
+        accumulator.add(3L, 1.5f);
+        List<FriendSuggestion> top = accumulator.top(10);
+
+        assertEquals(List.of(3L, 7L), top.stream().map(FriendSuggestion::userId).toList());
+        assertEquals(1, top.get(0).sharedConnections());
+    }
+}
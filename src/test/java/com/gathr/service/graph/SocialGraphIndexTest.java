@@ -0,0 +1,155 @@
+package com.gathr.service.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SocialGraphIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SocialGraphIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SocialGraphIndex(jdbcTemplate);
+    }
+
+    @Test
+    void friendsOfFriends_RanksByStrengthWeightedSharedConnections() {
+        // 1 knows 2 and 3; 2 and 3 both know 4; only 3 knows 5
+        connect(1L, List.of(2L, 3L));
+        connect(2L, List.of(4L));
+        connect(3L, List.of(4L, 5L));
+
+        List<FriendSuggestion> suggestions = index.friendsOfFriends(1L, 10);
+
+        assertEquals(List.of(4L, 5L), suggestions.stream().map(FriendSuggestion::userId).toList());
+        assertEquals(2, suggestions.get(0).sharedConnections());
+        assertEquals(1, suggestions.get(1).sharedConnections());
+        assertTrue(suggestions.get(0).score() > suggestions.get(1).score());
+    }
+
+    @Test
+    void friendsOfFriends_ExcludesSelfAndDirectConnections() {
+        connect(1L, List.of(2L, 3L));
+        connect(2L, List.of(3L));
+
+        assertTrue(index.friendsOfFriends(1L, 10).isEmpty());
+    }
+
+    @Test
+    void friendsOfFriends_AppliesTopKLimit() {
+        connect(1L, List.of(2L));
+        connect(2L, List.of(10L, 11L, 12L));
+        connect(10L, List.of(2L));
+
+        assertEquals(2, index.friendsOfFriends(1L, 2).size());
+    }
+
+    @Test
+    void compact_PreservesEdgesAndStrengths() {
+        stubLoad(() -> {});
+        index.load();
+        connect(1L, List.of(2L));
+        connect(1L, List.of(2L));
+        connect(2L, List.of(3L));
+        double before = index.strength(1L, 2L);
+
+        index.compact();
+        connect(3L, List.of(4L));
+
+        assertEquals(before, index.strength(1L, 2L), 1e-6);
+        assertEquals(0.2, before, 1e-6);
+        assertEquals(List.of(3L), index.friendsOfFriends(1L, 10).stream().map(FriendSuggestion::userId).toList());
+        assertEquals(List.of(4L), index.friendsOfFriends(2L, 10).stream().map(FriendSuggestion::userId).toList());
+    }
+
+    @Test
+    void friendsOfFriends_UnknownUser_ReturnsEmpty() {
+        assertTrue(index.friendsOfFriends(42L, 10).isEmpty());
+    }
+
+    @Test
+    void load_Failure_LeavesIndexUnloadedAndIsRetried() throws Exception {
+        doThrow(new RuntimeException("connection refused"))
+                .doAnswer(invocation -> {
+                    RowCallbackHandler handler = invocation.getArgument(1);
+                    handler.processRow(edge(1L, 2L, 0.5f));
+                    return null;
+                })
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.load();
+        assertFalse(index.isLoaded());
+
+        index.reloadIfStale();
+        assertTrue(index.isLoaded());
+        assertEquals(0.5, index.strength(1L, 2L), 1e-6);
+    }
+
+    @Test
+    void compact_BeforeLoad_LoadReplacesOverlay() throws Exception {
+        // Written before the load; the database rows already include it
+        connect(1L, List.of(2L));
+        index.compact();
+        stubLoad(() -> {}, edge(1L, 2L, 0.3f), edge(2L, 1L, 0.3f));
+
+        index.load();
+
+        assertEquals(0.3, index.strength(1L, 2L), 1e-6);
+        index.reloadIfStale();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void load_ReplaysUpdatesArrivingWhileLoading() throws Exception {
+        stubLoad(() -> connect(1L, List.of(2L)), edge(1L, 2L, 0.5f), edge(2L, 1L, 0.5f));
+
+        index.load();
+
+        assertEquals(0.6, index.strength(1L, 2L), 1e-6);
+        assertEquals(0.6, index.strength(2L, 1L), 1e-6);
+    }
+
+    /**
+     * Stub the load query to return {@code rows}, running {@code duringLoad} before them.
+     */
+    private void stubLoad(Runnable duringLoad, ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            duringLoad.run();
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet edge(long source, long target, float strength) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(source);
+        when(rs.getLong(2)).thenReturn(target);
+        when(rs.getFloat(3)).thenReturn(strength);
+        return rs;
+    }
+
+    private void connect(Long userId, List<Long> partnerIds) {
+        index.onConnectionsChanged(new SocialConnectionsChangedEvent(userId, partnerIds, 0.1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.gathr.service.user;
+
+import com.gathr.entity.User;
+import com.gathr.exception.ResourceNotFoundException;
+import com.gathr.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSnapshotCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserSnapshotCache(userRepository, 100, 10);
+
+        user = new User();
+        user.setId(1L);
+        user.setInterests(new String[] { "SPORTS" });
+    }
+
+    @Test
+    void require_LoadsOnceThenServesFromCache() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserSnapshot first = cache.require(1L);
+        UserSnapshot second = cache.require(1L);
+
+        assertSame(first, second);
+        assertEquals(List.of("SPORTS"), first.interests());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidate_ReloadsChangedUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        assertFalse(cache.require(1L).banned());
+
+        user.setIsBanned(true);
+        cache.invalidate(1L);
+
+        assertTrue(cache.require(1L).banned());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void get_DoesNotCacheLoadRacingAnInvalidation() {
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            // A write to the user lands while the row is being read
+            cache.invalidate(1L);
+            return Optional.of(user);
+        });
+
+        cache.require(1L);
+        cache.require(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void require_ThrowsForMissingUserWithoutCachingTheMiss() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.require(2L));
+        assertTrue(cache.get(2L).isEmpty());
+        verify(userRepository, times(2)).findById(2L);
+    }
+}